@@ -0,0 +1,161 @@
+package no.acntech.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Test data and infrastructure shared by the benchmarks, set up the same way as in the running services.
+ */
+public final class Fixtures {
+
+    private static final Pattern CREATE_INDEX = Pattern.compile("CREATE INDEX (\\w+)");
+    private static final Pattern ADD_CONSTRAINT = Pattern.compile("ALTER TABLE (\\w+)\\s+ADD CONSTRAINT (\\w+)");
+
+    private Fixtures() {
+    }
+
+    /**
+     * Jackson configured as by the {@code spring.jackson} section of {@code application.yml}.
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .dateFormat(new StdDateFormat())
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * In-memory H2 database with the schema of the service on the classpath, migrated by Flyway from the same
+     * locations as in {@code application.yml}.
+     */
+    public static HikariDataSource database(final String name) {
+        return database(name, "REGULAR");
+    }
+
+    /**
+     * In-memory H2 database like {@link #database(String)}, but in the given
+     * <a href="https://h2database.com/html/features.html#compatibility">compatibility mode</a>, such as
+     * {@code PostgreSQL}.
+     */
+    public static HikariDataSource database(final String name, final String mode) {
+        final var dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=" + mode + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+        return dataSource;
+    }
+
+    /**
+     * Drops the indexes and unique constraints that a Flyway migration on the classpath creates, so that queries can be
+     * measured as they ran before the migration.
+     */
+    public static void dropIndexes(final DataSource dataSource, final String migration) throws IOException, SQLException {
+        final String script;
+        try (final var inputStream = new ClassPathResource(migration).getInputStream()) {
+            script = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (final var connection = dataSource.getConnection();
+             final var statement = connection.createStatement()) {
+            final var indexes = CREATE_INDEX.matcher(script);
+            while (indexes.find()) {
+                statement.execute("DROP INDEX " + indexes.group(1));
+            }
+            final var constraints = ADD_CONSTRAINT.matcher(script);
+            while (constraints.find()) {
+                statement.execute("ALTER TABLE " + constraints.group(1) + " DROP CONSTRAINT " + constraints.group(2));
+            }
+        }
+    }
+
+    /**
+     * Runs a query with the given parameters and reads all rows of the result.
+     *
+     * @return the number of rows read
+     */
+    public static int countRows(final DataSource dataSource, final String sql, final Object... parameters) throws SQLException {
+        try (final var connection = dataSource.getConnection();
+             final var statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            var rows = 0;
+            try (final var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Picks one of the given values at random.
+     */
+    public static <T> T any(final List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    /**
+     * Hibernate configured as by the {@code spring.jpa} section of {@code application.yml}, but with the given JDBC
+     * batch size. A batch size of 1 turns batching off. The entities and converters are scanned for in the given
+     * packages.
+     */
+    public static EntityManagerFactory entityManagerFactory(final DataSource dataSource, final int batchSize, final String... packagesToScan) {
+        final var factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(packagesToScan);
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.type.preferred_uuid_jdbc_type", "UUID",
+                "hibernate.jdbc.batch_size", batchSize,
+                "hibernate.order_inserts", true,
+                "hibernate.order_updates", true,
+                "hibernate.id.optimizer.pooled.preferred", "pooled-lo"));
+        factoryBean.afterPropertiesSet();
+        return factoryBean.getObject();
+    }
+
+    /**
+     * Fills in the fields an entity gets from its JPA lifecycle callbacks, as if it was persisted and then updated.
+     */
+    public static <T> T persisted(final T entity) {
+        invoke(entity, "prePersist");
+        invoke(entity, "preUpdate");
+        return entity;
+    }
+
+    private static void invoke(final Object entity, final String methodName) {
+        final var method = ReflectionUtils.findMethod(entity.getClass(), methodName);
+        if (method == null) {
+            throw new IllegalArgumentException("No method " + methodName + " on " + entity.getClass().getName());
+        }
+        ReflectionUtils.makeAccessible(method);
+        ReflectionUtils.invokeMethod(method, entity);
+    }
+}
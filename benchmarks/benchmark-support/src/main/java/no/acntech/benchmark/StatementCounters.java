@@ -0,0 +1,42 @@
+package no.acntech.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+
+/**
+ * Reports the number of statements sent to the database per operation as a secondary result of the benchmark, next to
+ * the time. A benchmark takes it as a parameter and records the statements of each operation, as counted by a
+ * {@link StatementCountingDataSource}.
+ * <p>
+ * JMH adds up event counters over the threads and the iterations of a run, so each thread and iteration reports its
+ * share of the average, and the result is the average number of statements per operation.
+ */
+@AuxCounters(AuxCounters.Type.EVENTS)
+@State(Scope.Thread)
+public class StatementCounters {
+
+    private long statements;
+    private long operations;
+    private int shares;
+
+    @Setup(Level.Iteration)
+    public void reset(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+        statements = 0;
+        operations = 0;
+        shares = benchmarkParams.getThreads() * iterationParams.getCount();
+    }
+
+    public void record(final long operationStatements) {
+        statements += operationStatements;
+        operations++;
+    }
+
+    public double statementsPerOperation() {
+        return operations == 0 ? 0 : (double) statements / operations / shares;
+    }
+}
@@ -0,0 +1,81 @@
+package no.acntech.benchmark;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Data source that counts the statements executed on its connections, by the thread that executed them, so that the
+ * threads of a benchmark each see their own. A batch counts as one statement, as it is sent to the database in one
+ * round trip.
+ */
+public final class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private final ThreadLocal<AtomicLong> statements = ThreadLocal.withInitial(AtomicLong::new);
+
+    public StatementCountingDataSource(final DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * Returns the number of statements executed by the current thread.
+     */
+    public long getStatements() {
+        return statements.get().get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection(), (connection, method, args) -> {
+            final var result = invoke(connection, method, args);
+            if (result instanceof CallableStatement callableStatement) {
+                return countExecutions(CallableStatement.class, callableStatement);
+            } else if (result instanceof PreparedStatement preparedStatement) {
+                return countExecutions(PreparedStatement.class, preparedStatement);
+            } else if (result instanceof Statement statement) {
+                return countExecutions(Statement.class, statement);
+            }
+            return result;
+        });
+    }
+
+    private <T extends Statement> T countExecutions(final Class<T> type, final T statement) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                statements.get().incrementAndGet();
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static <T> T proxy(final Class<T> type, final T target, final TargetInvocationHandler<T> handler) {
+        final InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler<T> {
+
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,51 @@
+package no.acntech.benchmark;
+
+import no.acntech.common.converter.ZonedDateTimeAttributeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per column value of the JPA attribute converters, paid for every row written and read. The warehouse-service
+ * copy of {@link ZonedDateTimeAttributeConverter} is identical and is not measured separately.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttributeConverterBenchmark {
+
+    private ZonedDateTimeAttributeConverter converter;
+    private ZonedDateTime zonedDateTime;
+    private Timestamp timestamp;
+
+    @Setup
+    public void setup() {
+        converter = new ZonedDateTimeAttributeConverter();
+        zonedDateTime = ZonedDateTime.now();
+        timestamp = converter.convertToDatabaseColumn(zonedDateTime);
+    }
+
+    @Benchmark
+    public Timestamp convertToDatabaseColumn() {
+        return converter.convertToDatabaseColumn(zonedDateTime);
+    }
+
+    @Benchmark
+    public ZonedDateTime convertToEntityAttribute() {
+        return converter.convertToEntityAttribute(timestamp);
+    }
+}
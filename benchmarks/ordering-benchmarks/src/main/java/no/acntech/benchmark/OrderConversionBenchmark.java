@@ -0,0 +1,92 @@
+package no.acntech.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.acntech.order.converter.OrderEntityToOrderDtoConverter;
+import no.acntech.order.converter.OrderItemEntityToOrderItemDtoConverter;
+import no.acntech.order.model.OrderDto;
+import no.acntech.order.model.OrderEntity;
+import no.acntech.order.model.OrderItemEntity;
+import no.acntech.order.model.OrderItemStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.convert.ConversionService;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an {@link OrderEntity} into the JSON body of a response, split into the entity to DTO conversion,
+ * directly and through the {@link ConversionService} the services use, and the Jackson serialization of the DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderConversionBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int items;
+
+    private OrderEntityToOrderDtoConverter converter;
+    private ConversionService conversionService;
+    private ObjectMapper objectMapper;
+    private OrderEntity orderEntity;
+    private OrderDto orderDto;
+
+    @Setup
+    public void setup() {
+        converter = new OrderEntityToOrderDtoConverter(new OrderItemEntityToOrderItemDtoConverter());
+        final var applicationConversionService = new ApplicationConversionService();
+        applicationConversionService.addConverter(converter);
+        conversionService = applicationConversionService;
+        objectMapper = Fixtures.objectMapper();
+
+        orderEntity = Fixtures.persisted(OrderEntity.builder()
+                .customerId(UUID.randomUUID())
+                .name("Order")
+                .description("Benchmark order")
+                .build());
+        for (int i = 0; i < items; i++) {
+            orderEntity.addItem(Fixtures.persisted(OrderItemEntity.builder()
+                    .productId(UUID.randomUUID())
+                    .reservationId(UUID.randomUUID())
+                    .quantity((long) i + 1)
+                    .status(OrderItemStatus.RESERVED)
+                    .build()));
+        }
+        orderDto = converter.convert(orderEntity);
+    }
+
+    @Benchmark
+    public OrderDto convert() {
+        return converter.convert(orderEntity);
+    }
+
+    @Benchmark
+    public OrderDto convertWithConversionService() {
+        return conversionService.convert(orderEntity, OrderDto.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderDto);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(conversionService.convert(orderEntity, OrderDto.class));
+    }
+}
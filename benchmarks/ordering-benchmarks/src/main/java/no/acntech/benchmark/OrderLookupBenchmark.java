@@ -0,0 +1,126 @@
+package no.acntech.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the order lookups that {@code V0.0.2__LOOKUP_INDEXES.sql} adds indexes for, on a database seeded with
+ * about a million rows. Without indexes the lookups are measured after dropping the indexes of that migration again,
+ * so that both runs have the same data and the same schema otherwise. The statements are the ones Hibernate sends for
+ * {@code OrderRepository} and {@code OrderItemRepository}, reading one page of orders by the ID cursor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class OrderLookupBenchmark {
+
+    private static final int ORDERS = 500_000;
+    private static final int ITEMS_PER_ORDER = 2;
+    private static final int CUSTOMERS = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int SAMPLES = 1000;
+
+    @Param({"REGULAR", "PostgreSQL"})
+    private String mode;
+    @Param({"false", "true"})
+    private boolean indexes;
+
+    private HikariDataSource database;
+    private final List<UUID> customerIds = new ArrayList<>();
+    private final List<UUID> reservationIds = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException, SQLException {
+        database = Fixtures.database("order-lookups", mode);
+        if (!indexes) {
+            Fixtures.dropIndexes(database, "db/migration/V0.0.2__LOOKUP_INDEXES.sql");
+        }
+        try (final var connection = database.getConnection();
+             final var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE CUSTOMERS (N BIGINT PRIMARY KEY, CUSTOMER_ID UUID NOT NULL)");
+            statement.execute("INSERT INTO CUSTOMERS SELECT X, RANDOM_UUID() FROM SYSTEM_RANGE(0, " + (CUSTOMERS - 1) + ")");
+            // Most orders are closed, as in a service that has run for a while. Each customer has some open orders.
+            statement.execute("""
+                    INSERT INTO ORDERS (ID, ORDER_ID, CUSTOMER_ID, NAME, STATUS, CREATED)
+                    SELECT X, RANDOM_UUID(), C.CUSTOMER_ID, 'Order ' || X,
+                           CASE MOD(X + X / %2$d, 20) WHEN 0 THEN 'OPEN' WHEN 1 THEN 'CANCELED' ELSE 'CLOSED' END,
+                           CURRENT_TIMESTAMP
+                    FROM SYSTEM_RANGE(1, %1$d) JOIN CUSTOMERS C ON C.N = MOD(X, %2$d)
+                    """.formatted(ORDERS, CUSTOMERS));
+            statement.execute("""
+                    INSERT INTO ORDER_ITEMS (ID, ORDER_ID, ITEM_ID, PRODUCT_ID, RESERVATION_ID, QUANTITY, STATUS, CREATED)
+                    SELECT X, (X + %1$d - 1) / %1$d, RANDOM_UUID(), RANDOM_UUID(), RANDOM_UUID(), 1, 'CONFIRMED', CURRENT_TIMESTAMP
+                    FROM SYSTEM_RANGE(1, %2$d)
+                    """.formatted(ITEMS_PER_ORDER, ORDERS * ITEMS_PER_ORDER));
+            statement.execute("DROP TABLE CUSTOMERS");
+            statement.execute("ANALYZE");
+        }
+        customerIds.addAll(sample("SELECT CUSTOMER_ID FROM ORDERS WHERE ID = ?", ORDERS));
+        reservationIds.addAll(sample("SELECT RESERVATION_ID FROM ORDER_ITEMS WHERE ID = ?", ORDERS * ITEMS_PER_ORDER));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int findOrdersByCustomer() throws SQLException {
+        return Fixtures.countRows(database, "SELECT * FROM ORDERS WHERE CUSTOMER_ID = ? AND ID > ? ORDER BY ID LIMIT " + PAGE_SIZE,
+                Fixtures.any(customerIds), 0L);
+    }
+
+    @Benchmark
+    public int findOrdersByCustomerAndStatus() throws SQLException {
+        return Fixtures.countRows(database, "SELECT * FROM ORDERS WHERE CUSTOMER_ID = ? AND STATUS = ? AND ID > ? ORDER BY ID LIMIT " + PAGE_SIZE,
+                Fixtures.any(customerIds), "OPEN", 0L);
+    }
+
+    @Benchmark
+    public int findOrdersByStatus() throws SQLException {
+        return Fixtures.countRows(database, "SELECT * FROM ORDERS WHERE STATUS = ? AND ID > ? ORDER BY ID LIMIT " + PAGE_SIZE,
+                "OPEN", ThreadLocalRandom.current().nextLong(ORDERS));
+    }
+
+    @Benchmark
+    public int findItemByReservationId() throws SQLException {
+        return Fixtures.countRows(database, "SELECT * FROM ORDER_ITEMS WHERE RESERVATION_ID = ?", Fixtures.any(reservationIds));
+    }
+
+    private List<UUID> sample(final String sql, final int rows) throws SQLException {
+        final var values = new ArrayList<UUID>();
+        try (final var connection = database.getConnection();
+             final var statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < SAMPLES; i++) {
+                statement.setLong(1, ThreadLocalRandom.current().nextLong(1, rows + 1));
+                try (final var resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    values.add(resultSet.getObject(1, UUID.class));
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,97 @@
+package no.acntech.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import no.acntech.order.model.OrderEntity;
+import no.acntech.order.model.OrderItemEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating orders with their items in one transaction, with JDBC batching off and on. Besides the time, the
+ * number of statements sent to the database per operation is reported as {@code statementsPerOperation}. Each
+ * statement is a round trip, which costs far more against a database over the network than against in-memory H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPersistenceBenchmark {
+
+    private static final int ORDERS = 20;
+    private static final int ITEMS = 5;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private HikariDataSource database;
+    private StatementCountingDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setup() {
+        database = Fixtures.database("orders");
+        dataSource = new StatementCountingDataSource(database);
+        entityManagerFactory = Fixtures.entityManagerFactory(dataSource, batchSize, "no.acntech.common.converter", "no.acntech.order.model");
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        database.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteOrders() throws SQLException {
+        try (final var connection = database.getConnection();
+             final var statement = connection.createStatement()) {
+            statement.execute("DELETE FROM ORDER_ITEMS");
+            statement.execute("DELETE FROM ORDERS");
+        }
+    }
+
+    @Benchmark
+    public void createOrders(final StatementCounters statementCounters) {
+        final var statements = dataSource.getStatements();
+        final var entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final var transaction = entityManager.getTransaction();
+            transaction.begin();
+            for (int i = 0; i < ORDERS; i++) {
+                final var orderEntity = OrderEntity.builder()
+                        .customerId(UUID.randomUUID())
+                        .name("Order")
+                        .description("Benchmark order")
+                        .build();
+                for (int j = 0; j < ITEMS; j++) {
+                    orderEntity.addItem(OrderItemEntity.builder()
+                            .productId(UUID.randomUUID())
+                            .quantity((long) j + 1)
+                            .build());
+                }
+                entityManager.persist(orderEntity);
+            }
+            transaction.commit();
+        } finally {
+            entityManager.close();
+        }
+        statementCounters.record(dataSource.getStatements() - statements);
+    }
+}
@@ -0,0 +1,81 @@
+package no.acntech.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.acntech.product.converter.ProductEntityToProductDtoConverter;
+import no.acntech.product.model.Currency;
+import no.acntech.product.model.ProductDto;
+import no.acntech.product.model.ProductEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.convert.ConversionService;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a {@link ProductEntity} into the JSON body of a response, split into the entity to DTO conversion,
+ * directly and through the {@link ConversionService} the services use, and the Jackson serialization of the DTO.
+ */
+@SuppressWarnings("Duplicates")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductConversionBenchmark {
+
+    private ProductEntityToProductDtoConverter converter;
+    private ConversionService conversionService;
+    private ObjectMapper objectMapper;
+    private ProductEntity productEntity;
+    private ProductDto productDto;
+
+    @Setup
+    public void setup() {
+        converter = new ProductEntityToProductDtoConverter();
+        final var applicationConversionService = new ApplicationConversionService();
+        applicationConversionService.addConverter(converter);
+        conversionService = applicationConversionService;
+        objectMapper = Fixtures.objectMapper();
+
+        productEntity = Fixtures.persisted(ProductEntity.builder()
+                .name("Product")
+                .description("Benchmark product")
+                .stock(1000L)
+                .price(new BigDecimal("199.9500"))
+                .currency(Currency.USD)
+                .build());
+        productDto = converter.convert(productEntity);
+    }
+
+    @Benchmark
+    public ProductDto convert() {
+        return converter.convert(productEntity);
+    }
+
+    @Benchmark
+    public ProductDto convertWithConversionService() {
+        return conversionService.convert(productEntity, ProductDto.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productDto);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(conversionService.convert(productEntity, ProductDto.class));
+    }
+}
@@ -0,0 +1,89 @@
+package no.acntech.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.acntech.product.model.Currency;
+import no.acntech.product.model.ProductEntity;
+import no.acntech.reservation.converter.ReservationEntityToReservationDtoConverter;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.convert.ConversionService;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a {@link ReservationEntity} into the JSON body of a response, split into the entity to DTO conversion,
+ * directly and through the {@link ConversionService} the services use, and the Jackson serialization of the DTO.
+ */
+@SuppressWarnings("Duplicates")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationConversionBenchmark {
+
+    private ReservationEntityToReservationDtoConverter converter;
+    private ConversionService conversionService;
+    private ObjectMapper objectMapper;
+    private ReservationEntity reservationEntity;
+    private ReservationDto reservationDto;
+
+    @Setup
+    public void setup() {
+        converter = new ReservationEntityToReservationDtoConverter();
+        final var applicationConversionService = new ApplicationConversionService();
+        applicationConversionService.addConverter(converter);
+        conversionService = applicationConversionService;
+        objectMapper = Fixtures.objectMapper();
+
+        final var productEntity = Fixtures.persisted(ProductEntity.builder()
+                .name("Product")
+                .description("Benchmark product")
+                .stock(1000L)
+                .price(new BigDecimal("199.9500"))
+                .currency(Currency.USD)
+                .build());
+        reservationEntity = Fixtures.persisted(ReservationEntity.builder()
+                .product(productEntity)
+                .orderId(UUID.randomUUID())
+                .quantity(3L)
+                .statusReserved()
+                .build());
+        reservationDto = converter.convert(reservationEntity);
+    }
+
+    @Benchmark
+    public ReservationDto convert() {
+        return converter.convert(reservationEntity);
+    }
+
+    @Benchmark
+    public ReservationDto convertWithConversionService() {
+        return conversionService.convert(reservationEntity, ReservationDto.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservationDto);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(conversionService.convert(reservationEntity, ReservationDto.class));
+    }
+}
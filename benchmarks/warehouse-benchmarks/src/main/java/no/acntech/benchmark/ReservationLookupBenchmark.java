@@ -0,0 +1,104 @@
+package no.acntech.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the reservation lookups that {@code V0.0.2__LOOKUP_INDEXES.sql} adds indexes for, on a database seeded
+ * with a million reservations. Without indexes the lookups are measured after dropping the indexes of that migration
+ * again, so that both runs have the same data. The statements are the ones Hibernate sends for
+ * {@code ReservationRepository}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ReservationLookupBenchmark {
+
+    private static final int PRODUCTS = 1000;
+    private static final int RESERVATIONS = 1_000_000;
+    private static final int RESERVATIONS_PER_ORDER = 2;
+    private static final int SAMPLES = 1000;
+
+    @Param({"REGULAR", "PostgreSQL"})
+    private String mode;
+    @Param({"false", "true"})
+    private boolean indexes;
+
+    private HikariDataSource database;
+    private final List<UUID> orderIds = new ArrayList<>();
+    private final List<UUID> reservationIds = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException, SQLException {
+        database = Fixtures.database("reservation-lookups", mode);
+        if (!indexes) {
+            Fixtures.dropIndexes(database, "db/migration/V0.0.2__LOOKUP_INDEXES.sql");
+        }
+        try (final var connection = database.getConnection();
+             final var statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO PRODUCTS (ID, PRODUCT_ID, NAME, STOCK, PRICE, CURRENCY, CREATED)
+                    SELECT X, RANDOM_UUID(), 'Product ' || X, 1000000, 199.95, 'USD', CURRENT_TIMESTAMP
+                    FROM SYSTEM_RANGE(1, %d)
+                    """.formatted(PRODUCTS));
+            statement.execute("CREATE TABLE ORDERS (N BIGINT PRIMARY KEY, ORDER_ID UUID NOT NULL)");
+            statement.execute("INSERT INTO ORDERS SELECT X, RANDOM_UUID() FROM SYSTEM_RANGE(0, " + (RESERVATIONS / RESERVATIONS_PER_ORDER - 1) + ")");
+            // The reservations of an order are for different products, as an order has one item per product
+            statement.execute("""
+                    INSERT INTO RESERVATIONS (ID, RESERVATION_ID, PRODUCT_ID, ORDER_ID, QUANTITY, STATUS, CREATED)
+                    SELECT X, RANDOM_UUID(), MOD(X, %1$d) + 1, O.ORDER_ID, 1, 'CONFIRMED', CURRENT_TIMESTAMP
+                    FROM SYSTEM_RANGE(0, %2$d) JOIN ORDERS O ON O.N = X / %3$d
+                    """.formatted(PRODUCTS, RESERVATIONS - 1, RESERVATIONS_PER_ORDER));
+            statement.execute("DROP TABLE ORDERS");
+            statement.execute("ANALYZE");
+        }
+        try (final var connection = database.getConnection();
+             final var statement = connection.prepareStatement("SELECT ORDER_ID, RESERVATION_ID FROM RESERVATIONS WHERE ID = ?")) {
+            for (int i = 0; i < SAMPLES; i++) {
+                statement.setLong(1, ThreadLocalRandom.current().nextLong(RESERVATIONS));
+                try (final var resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    orderIds.add(resultSet.getObject(1, UUID.class));
+                    reservationIds.add(resultSet.getObject(2, UUID.class));
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int findReservationsByOrderId() throws SQLException {
+        return Fixtures.countRows(database, "SELECT * FROM RESERVATIONS WHERE ORDER_ID = ?", Fixtures.any(orderIds));
+    }
+
+    @Benchmark
+    public int findReservationByReservationId() throws SQLException {
+        return Fixtures.countRows(database, "SELECT * FROM RESERVATIONS WHERE RESERVATION_ID = ?", Fixtures.any(reservationIds));
+    }
+}
@@ -0,0 +1,114 @@
+package no.acntech.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import no.acntech.product.model.Currency;
+import no.acntech.product.model.ProductEntity;
+import no.acntech.reservation.model.ReservationEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating reservations for a few products in one transaction, with JDBC batching off and on. Besides the
+ * time, the number of statements sent to the database per operation is reported as {@code statementsPerOperation}.
+ * Each statement is a round trip, which costs far more against a database over the network than against in-memory H2.
+ */
+@SuppressWarnings("Duplicates")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationPersistenceBenchmark {
+
+    private static final int PRODUCTS = 10;
+    private static final int RESERVATIONS = 100;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private HikariDataSource database;
+    private StatementCountingDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        database = Fixtures.database("reservations");
+        dataSource = new StatementCountingDataSource(database);
+        entityManagerFactory = Fixtures.entityManagerFactory(dataSource, batchSize, "no.acntech.common.converter", "no.acntech.product.model", "no.acntech.reservation.model");
+        final var entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < PRODUCTS; i++) {
+                final var productEntity = ProductEntity.builder()
+                        .name("Product " + i)
+                        .description("Benchmark product")
+                        .stock(1000L)
+                        .price(new BigDecimal("199.9500"))
+                        .currency(Currency.USD)
+                        .build();
+                entityManager.persist(productEntity);
+                productIds.add(productEntity.getId());
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        database.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteReservations() throws SQLException {
+        try (final var connection = database.getConnection();
+             final var statement = connection.createStatement()) {
+            statement.execute("DELETE FROM RESERVATIONS");
+        }
+    }
+
+    @Benchmark
+    public void createReservations(final StatementCounters statementCounters) {
+        final var statements = dataSource.getStatements();
+        final var entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final var transaction = entityManager.getTransaction();
+            transaction.begin();
+            for (int i = 0; i < RESERVATIONS; i++) {
+                entityManager.persist(ReservationEntity.builder()
+                        .product(entityManager.getReference(ProductEntity.class, productIds.get(i % PRODUCTS)))
+                        .orderId(UUID.randomUUID())
+                        .quantity(1L)
+                        .statusReserved()
+                        .build());
+            }
+            transaction.commit();
+        } finally {
+            entityManager.close();
+        }
+        statementCounters.record(dataSource.getStatements() - statements);
+    }
+}
@@ -0,0 +1,139 @@
+package no.acntech.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read replica that hands out connections to the primary instead while the replica is unavailable or lags too far
+ * behind. Meant as the read-only data source of a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so that read-only transactions go to the
+ * replica.
+ * <p>
+ * The replica is checked at most once per check interval, by the first caller after the interval has passed. The check
+ * takes a connection and, if there is a lag query, runs it. The lag query must return the lag of the replica in seconds.
+ * A replica that fails to hand out a connection is taken out of use until the next check.
+ */
+public final class ReplicaDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaDataSource.class);
+    private final DataSource primaryDataSource;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final long checkIntervalNanos;
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile State state = State.UNCHECKED;
+    private volatile long checkedAtNanos;
+
+    public ReplicaDataSource(final DataSource replicaDataSource,
+                             final DataSource primaryDataSource,
+                             final Duration maxLag,
+                             final String lagQuery,
+                             final Duration checkInterval) {
+        super(replicaDataSource);
+        this.primaryDataSource = primaryDataSource;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.checkIntervalNanos = checkInterval.toNanos();
+        this.checkedAtNanos = System.nanoTime() - checkIntervalNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (isUsable()) {
+            try {
+                return super.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                changeState(State.UNAVAILABLE, e);
+            }
+        }
+        return primaryDataSource.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        if (isUsable()) {
+            try {
+                return super.getConnection(username, password);
+            } catch (SQLException | RuntimeException e) {
+                changeState(State.UNAVAILABLE, e);
+            }
+        }
+        return primaryDataSource.getConnection(username, password);
+    }
+
+    /**
+     * Tells whether read-only work currently goes to the replica.
+     */
+    public boolean isUsable() {
+        if (System.nanoTime() - checkedAtNanos >= checkIntervalNanos && checking.compareAndSet(false, true)) {
+            try {
+                check();
+            } finally {
+                checking.set(false);
+            }
+        }
+        return state == State.USABLE;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void check() {
+        try (final var connection = super.getConnection()) {
+            final var lag = lagOf(connection);
+            if (lag.compareTo(maxLag) > 0) {
+                LOGGER.debug("Read replica lags {} behind", lag);
+                changeState(State.LAGGING, null);
+            } else {
+                changeState(State.USABLE, null);
+            }
+        } catch (SQLException | RuntimeException e) {
+            changeState(State.UNAVAILABLE, e);
+        }
+    }
+
+    private Duration lagOf(final Connection connection) throws SQLException {
+        if (lagQuery == null) {
+            return Duration.ZERO;
+        }
+        try (final var statement = connection.createStatement();
+             final var resultSet = statement.executeQuery(lagQuery)) {
+            final var seconds = resultSet.next() ? resultSet.getDouble(1) : 0.0;
+            return Duration.ofNanos((long) (seconds * 1_000_000_000L));
+        }
+    }
+
+    private void changeState(final State newState, final Exception e) {
+        checkedAtNanos = System.nanoTime();
+        final var oldState = state;
+        state = newState;
+        if (newState == oldState) {
+            return;
+        }
+        switch (newState) {
+            case USABLE -> LOGGER.info("Read replica is in use");
+            case LAGGING -> LOGGER.warn("Read replica lags more than {} behind, reading from the primary", maxLag);
+            case UNAVAILABLE -> LOGGER.warn("Read replica is unavailable, reading from the primary", e);
+            default -> {
+            }
+        }
+    }
+
+    private enum State {
+        UNCHECKED,
+        USABLE,
+        LAGGING,
+        UNAVAILABLE
+    }
+}
@@ -0,0 +1,75 @@
+package no.acntech.datasource.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import no.acntech.datasource.ReplicaDataSource;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Sends read-only transactions to a read replica with a connection pool of its own, and all other transactions to
+ * the primary. The connection of a transaction is only taken once the transaction runs its first statement, by when it
+ * is known whether the transaction is read-only. Reads go to the primary while the replica is unavailable or lags
+ * too far behind.
+ * <p>
+ * Flyway migrates the primary only. Runs before the data source autoconfiguration of Spring Boot, which backs off from
+ * the data source defined here. Applications that do not use JDBC in every profile exclude it where they don't.
+ */
+@ConditionalOnClass({HikariDataSource.class, LazyConnectionDataSourceProxy.class})
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties({ReadReplicaProperties.class, DataSourceProperties.class})
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+public class ReadReplicaAutoConfiguration {
+
+    @FlywayDataSource
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    @Bean
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        final var dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(final ReadReplicaProperties properties,
+                                               final HikariDataSource primaryDataSource) {
+        final var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        dataSource.setReadOnly(true);
+        // Start without the replica rather than fail, and read from the primary until it is available
+        dataSource.setInitializationFailTimeout(-1);
+        return new ReplicaDataSource(
+                dataSource,
+                primaryDataSource,
+                properties.getMaxLag(),
+                properties.getLagQuery(),
+                properties.getCheckInterval());
+    }
+
+    @Primary
+    @Bean
+    public LazyConnectionDataSourceProxy dataSource(final HikariDataSource primaryDataSource,
+                                                    final ReplicaDataSource replicaDataSource) {
+        final var dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,127 @@
+package no.acntech.datasource.config;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Read replica that read-only transactions are sent to.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReadReplicaProperties {
+
+    /**
+     * Whether read-only transactions go to the replica. Otherwise, all transactions go to the primary.
+     */
+    @NotNull
+    private Boolean enabled = false;
+    /**
+     * JDBC URL of the replica.
+     */
+    @NotBlank
+    private String url;
+    private String username;
+    private String password;
+    /**
+     * Maximum number of connections to the replica.
+     */
+    @NotNull
+    @Positive
+    private Integer maximumPoolSize = 10;
+    /**
+     * How long to wait for a connection to the replica before reading from the primary instead. At least 250ms.
+     */
+    @NotNull
+    private Duration connectionTimeout = Duration.ofMillis(250);
+    /**
+     * Query returning how far the replica lags behind the primary, in seconds. Without it, the lag is not checked.
+     */
+    private String lagQuery;
+    /**
+     * Maximum lag of the replica. Reads go to the primary while the replica lags further behind.
+     */
+    @NotNull
+    private Duration maxLag = Duration.ofSeconds(5);
+    /**
+     * How often the availability and lag of the replica is checked.
+     */
+    @NotNull
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Integer getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(Integer maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+}
@@ -0,0 +1,159 @@
+package no.acntech.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The primary and the replica are separate in-memory databases, told apart by their URL. The replica reports its lag
+ * from a table that the tests update.
+ */
+class ReplicaDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+    private static final Duration CHECK_INTERVAL = Duration.ofMillis(200);
+    private static final String LAG_QUERY = "SELECT SECONDS FROM REPLICA_LAG";
+    private DataSource primaryDataSource;
+    private SwitchableDataSource replicaDataSource;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primaryDataSource = database("primary");
+        replicaDataSource = new SwitchableDataSource(database("replica"));
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE REPLICA_LAG (SECONDS DOUBLE PRECISION NOT NULL)");
+        replica.update("INSERT INTO REPLICA_LAG (SECONDS) VALUES (0.5)");
+    }
+
+    @Test
+    void readsFromTheReplicaWhileItKeepsUp() throws SQLException {
+        final var dataSource = replicaDataSource(LAG_QUERY, CHECK_INTERVAL);
+
+        assertThat(dataSource.isUsable()).isTrue();
+        assertThat(databaseOf(dataSource)).startsWith("replica");
+    }
+
+    @Test
+    void readsFromThePrimaryWhileTheReplicaLagsTooFarBehind() throws SQLException {
+        replica.update("UPDATE REPLICA_LAG SET SECONDS = 5.5");
+        final var dataSource = replicaDataSource(LAG_QUERY, CHECK_INTERVAL);
+
+        assertThat(dataSource.isUsable()).isFalse();
+        assertThat(databaseOf(dataSource)).startsWith("primary");
+    }
+
+    @Test
+    void doesNotCheckTheLagWithoutALagQuery() throws SQLException {
+        replica.update("UPDATE REPLICA_LAG SET SECONDS = 60");
+        final var dataSource = replicaDataSource(null, CHECK_INTERVAL);
+
+        assertThat(dataSource.isUsable()).isTrue();
+        assertThat(databaseOf(dataSource)).startsWith("replica");
+    }
+
+    @Test
+    void readsFromThePrimaryWhileTheReplicaIsUnavailable() throws SQLException {
+        replicaDataSource.available = false;
+        final var dataSource = replicaDataSource(LAG_QUERY, CHECK_INTERVAL);
+
+        assertThat(dataSource.isUsable()).isFalse();
+        assertThat(databaseOf(dataSource)).startsWith("primary");
+    }
+
+    @Test
+    void failsOverToThePrimaryAsSoonAsTheReplicaFailsToHandOutAConnection() throws SQLException {
+        final var dataSource = replicaDataSource(LAG_QUERY, Duration.ofHours(1));
+        assertThat(databaseOf(dataSource)).startsWith("replica");
+
+        replicaDataSource.available = false;
+        assertThat(databaseOf(dataSource)).startsWith("primary");
+
+        // The replica stays out of use until the next check, even once it is back
+        replicaDataSource.available = true;
+        assertThat(dataSource.isUsable()).isFalse();
+        assertThat(databaseOf(dataSource)).startsWith("primary");
+    }
+
+    @Test
+    void takesTheReplicaBackIntoUseOnceItHasCaughtUp() throws SQLException, InterruptedException {
+        replica.update("UPDATE REPLICA_LAG SET SECONDS = 60");
+        final var dataSource = replicaDataSource(LAG_QUERY, CHECK_INTERVAL);
+        assertThat(databaseOf(dataSource)).startsWith("primary");
+
+        replica.update("UPDATE REPLICA_LAG SET SECONDS = 0");
+        assertThat(databaseOf(dataSource)).startsWith("primary");
+
+        Thread.sleep(CHECK_INTERVAL.toMillis());
+        assertThat(databaseOf(dataSource)).startsWith("replica");
+    }
+
+    @Test
+    void takesTheReplicaBackIntoUseOnceItIsAvailableAgain() throws SQLException, InterruptedException {
+        replicaDataSource.available = false;
+        final var dataSource = replicaDataSource(LAG_QUERY, CHECK_INTERVAL);
+        assertThat(databaseOf(dataSource)).startsWith("primary");
+
+        replicaDataSource.available = true;
+        Thread.sleep(CHECK_INTERVAL.toMillis());
+        assertThat(databaseOf(dataSource)).startsWith("replica");
+    }
+
+    @Test
+    void takesALaggingReplicaOutOfUseAtTheNextCheck() throws SQLException, InterruptedException {
+        final var dataSource = replicaDataSource(LAG_QUERY, CHECK_INTERVAL);
+        assertThat(databaseOf(dataSource)).startsWith("replica");
+
+        replica.update("UPDATE REPLICA_LAG SET SECONDS = 60");
+        Thread.sleep(CHECK_INTERVAL.toMillis());
+        assertThat(databaseOf(dataSource)).startsWith("primary");
+    }
+
+    private ReplicaDataSource replicaDataSource(final String lagQuery, final Duration checkInterval) {
+        return new ReplicaDataSource(replicaDataSource, primaryDataSource, MAX_LAG, lagQuery, checkInterval);
+    }
+
+    private static DataSource database(final String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    /**
+     * Returns the name of the database the data source hands out a connection to.
+     */
+    private static String databaseOf(final DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL().substring("jdbc:h2:mem:".length());
+        }
+    }
+
+    /**
+     * Replica that can be taken down and brought back up.
+     */
+    private static final class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean available = true;
+
+        private SwitchableDataSource(final DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!available) {
+                throw new SQLTransientConnectionException("Replica is unavailable");
+            }
+            return super.getConnection();
+        }
+    }
+}
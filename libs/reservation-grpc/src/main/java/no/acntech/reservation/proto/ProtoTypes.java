@@ -0,0 +1,49 @@
+package no.acntech.reservation.proto;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Conversions between the types of the reservation messages and the Java types the services use. UUIDs travel as 16
+ * bytes instead of the 36 characters of their text form. Timestamps are read back in UTC.
+ */
+public final class ProtoTypes {
+
+    private ProtoTypes() {
+    }
+
+    public static ByteString toBytes(final UUID uuid) {
+        final var buffer = ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits());
+        return ByteString.copyFrom(buffer.array());
+    }
+
+    public static UUID toUuid(final ByteString bytes) {
+        if (bytes.size() != 16) {
+            throw new IllegalArgumentException("UUID must be 16 bytes, but was " + bytes.size());
+        }
+        final var buffer = bytes.asReadOnlyByteBuffer();
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    public static Timestamp toTimestamp(final ZonedDateTime zonedDateTime) {
+        final var instant = zonedDateTime.toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+
+    public static ZonedDateTime toZonedDateTime(final Timestamp timestamp) {
+        Timestamps.checkValid(timestamp);
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()).atZone(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,168 @@
+package no.acntech.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link BatchSpanProcessor} that reports to Micrometer, which the batch processor itself only does through the
+ * OpenTelemetry metrics API. It publishes the number of spans waiting to be exported in {@code tracing.spans.queued},
+ * the spans exported in {@code tracing.spans.exported}, and the spans dropped because the queue was full or the
+ * export failed in {@code tracing.spans.dropped}.
+ * <p>
+ * Spans count as queued until their batch is handed to the exporter. Spans that would take the count over the queue
+ * size are dropped here, before the batch processor would drop them without telling.
+ */
+public final class MeteredBatchSpanProcessor implements SpanProcessor {
+
+    private final SpanProcessor delegate;
+    private final int maxQueueSize;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter exportedCounter;
+    private final Counter queueFullCounter;
+    private final Counter exportFailedCounter;
+
+    private MeteredBatchSpanProcessor(final Builder builder) {
+        this.maxQueueSize = builder.maxQueueSize;
+        this.delegate = BatchSpanProcessor.builder(new MeteredSpanExporter(builder.spanExporter))
+                .setMaxQueueSize(builder.maxQueueSize)
+                .setMaxExportBatchSize(builder.maxExportBatchSize)
+                .setScheduleDelay(builder.scheduleDelay)
+                .setExporterTimeout(builder.exporterTimeout)
+                .build();
+        Gauge.builder("tracing.spans.queued", queued, AtomicInteger::get)
+                .description("Spans waiting to be exported")
+                .register(builder.meterRegistry);
+        this.exportedCounter = Counter.builder("tracing.spans.exported")
+                .description("Spans exported")
+                .register(builder.meterRegistry);
+        this.queueFullCounter = droppedCounter(builder.meterRegistry, "queue-full");
+        this.exportFailedCounter = droppedCounter(builder.meterRegistry, "export-failed");
+    }
+
+    public static Builder builder(final SpanExporter spanExporter, final MeterRegistry meterRegistry) {
+        return new Builder(spanExporter, meterRegistry);
+    }
+
+    static Counter droppedCounter(final MeterRegistry meterRegistry, final String reason) {
+        return Counter.builder("tracing.spans.dropped")
+                .description("Sampled spans that were not exported")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onStart(final Context parentContext, final ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(final ReadableSpan span) {
+        if (!span.getSpanContext().isSampled()) {
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueueSize) {
+            queued.decrementAndGet();
+            queueFullCounter.increment();
+            return;
+        }
+        delegate.onEnd(span);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    private final class MeteredSpanExporter implements SpanExporter {
+
+        private final SpanExporter delegate;
+
+        private MeteredSpanExporter(final SpanExporter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableResultCode export(final Collection<SpanData> spans) {
+            queued.addAndGet(-spans.size());
+            final var result = delegate.export(spans);
+            result.whenComplete(() -> (result.isSuccess() ? exportedCounter : exportFailedCounter).increment(spans.size()));
+            return result;
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return delegate.shutdown();
+        }
+    }
+
+    public static final class Builder {
+
+        private final SpanExporter spanExporter;
+        private final MeterRegistry meterRegistry;
+        private int maxQueueSize = 2048;
+        private int maxExportBatchSize = 512;
+        private Duration scheduleDelay = Duration.ofSeconds(5);
+        private Duration exporterTimeout = Duration.ofSeconds(30);
+
+        private Builder(final SpanExporter spanExporter, final MeterRegistry meterRegistry) {
+            this.spanExporter = spanExporter;
+            this.meterRegistry = meterRegistry;
+        }
+
+        public Builder maxQueueSize(final int maxQueueSize) {
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        public Builder maxExportBatchSize(final int maxExportBatchSize) {
+            this.maxExportBatchSize = maxExportBatchSize;
+            return this;
+        }
+
+        public Builder scheduleDelay(final Duration scheduleDelay) {
+            this.scheduleDelay = scheduleDelay;
+            return this;
+        }
+
+        public Builder exporterTimeout(final Duration exporterTimeout) {
+            this.exporterTimeout = exporterTimeout;
+            return this;
+        }
+
+        public MeteredBatchSpanProcessor build() {
+            return new MeteredBatchSpanProcessor(this);
+        }
+    }
+}
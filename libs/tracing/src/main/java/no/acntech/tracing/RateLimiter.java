@@ -0,0 +1,32 @@
+package no.acntech.tracing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket that allows a number of permits per second, and a burst of up to one second worth of permits.
+ */
+final class RateLimiter {
+
+    private final double permitsPerNano;
+    private final double maxBalance;
+    private double balance;
+    private long lastNanos;
+
+    RateLimiter(final double permitsPerSecond) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxBalance = permitsPerSecond > 0 ? Math.max(permitsPerSecond, 1.0) : 0.0;
+        this.balance = maxBalance;
+        this.lastNanos = System.nanoTime();
+    }
+
+    synchronized boolean tryAcquire() {
+        final var nanos = System.nanoTime();
+        balance = Math.min(maxBalance, balance + (nanos - lastNanos) * permitsPerNano);
+        lastNanos = nanos;
+        if (balance < 1.0) {
+            return false;
+        }
+        balance -= 1.0;
+        return true;
+    }
+}
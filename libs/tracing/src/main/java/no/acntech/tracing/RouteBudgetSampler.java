@@ -0,0 +1,81 @@
+package no.acntech.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Head sampler that samples at most a budget of new traces per second for each route, the route being the name of the
+ * root span. Quiet routes are sampled in full, while busy routes are sampled at their budget, whatever their traffic.
+ * Routes beyond the maximum number share one budget.
+ * <p>
+ * Spans with a parent follow the decision made for the parent. Traces over budget are dropped, or recorded without
+ * being sampled, so that a {@link TailSamplingSpanProcessor} may still keep them.
+ */
+public final class RouteBudgetSampler implements Sampler {
+
+    private static final String OTHER_ROUTES = "other";
+    private final double tracesPerSecond;
+    private final Map<String, Double> routeTracesPerSecond;
+    private final int maxRoutes;
+    private final SamplingResult overBudget;
+    private final ConcurrentMap<String, RateLimiter> budgets = new ConcurrentHashMap<>();
+
+    public RouteBudgetSampler(final double tracesPerSecond,
+                              final Map<String, Double> routeTracesPerSecond,
+                              final int maxRoutes,
+                              final boolean recordOverBudget) {
+        this.tracesPerSecond = tracesPerSecond;
+        this.routeTracesPerSecond = Map.copyOf(routeTracesPerSecond);
+        this.maxRoutes = maxRoutes;
+        this.overBudget = recordOverBudget ? SamplingResult.create(SamplingDecision.RECORD_ONLY) : SamplingResult.drop();
+    }
+
+    @Override
+    public SamplingResult shouldSample(final Context parentContext,
+                                       final String traceId,
+                                       final String name,
+                                       final SpanKind spanKind,
+                                       final Attributes attributes,
+                                       final List<LinkData> parentLinks) {
+        final var parentSpan = Span.fromContext(parentContext);
+        final var parentSpanContext = parentSpan.getSpanContext();
+        if (parentSpanContext.isValid()) {
+            if (parentSpanContext.isSampled()) {
+                return SamplingResult.recordAndSample();
+            }
+            // A local parent that is not recorded was dropped, while a remote one may still be kept by its tail sampler
+            if (!parentSpanContext.isRemote() && !parentSpan.isRecording()) {
+                return SamplingResult.drop();
+            }
+            return overBudget;
+        }
+        return budget(name).tryAcquire() ? SamplingResult.recordAndSample() : overBudget;
+    }
+
+    @Override
+    public String getDescription() {
+        return "RouteBudgetSampler{tracesPerSecond=" + tracesPerSecond + ",maxRoutes=" + maxRoutes + "}";
+    }
+
+    private RateLimiter budget(final String route) {
+        final var budget = budgets.get(route);
+        if (budget != null) {
+            return budget;
+        }
+        if (budgets.size() >= maxRoutes) {
+            return budgets.computeIfAbsent(OTHER_ROUTES, key -> new RateLimiter(tracesPerSecond));
+        }
+        return budgets.computeIfAbsent(route, key -> new RateLimiter(routeTracesPerSecond.getOrDefault(key, tracesPerSecond)));
+    }
+}
@@ -0,0 +1,46 @@
+package no.acntech.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.data.DelegatingSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+/**
+ * An ended span that was recorded without being sampled, marked as sampled so that span processors export it.
+ */
+final class SampledSpan extends DelegatingSpanData implements ReadableSpan {
+
+    private final SpanContext spanContext;
+
+    SampledSpan(final SpanData spanData) {
+        super(spanData);
+        final var unsampledSpanContext = spanData.getSpanContext();
+        this.spanContext = SpanContext.create(
+                unsampledSpanContext.getTraceId(),
+                unsampledSpanContext.getSpanId(),
+                TraceFlags.getSampled(),
+                unsampledSpanContext.getTraceState());
+    }
+
+    @Override
+    public SpanContext getSpanContext() {
+        return spanContext;
+    }
+
+    @Override
+    public SpanData toSpanData() {
+        return this;
+    }
+
+    @Override
+    public long getLatencyNanos() {
+        return getEndEpochNanos() - getStartEpochNanos();
+    }
+
+    @Override
+    public <T> T getAttribute(final AttributeKey<T> key) {
+        return getAttributes().get(key);
+    }
+}
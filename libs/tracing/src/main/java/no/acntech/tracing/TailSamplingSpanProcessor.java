@@ -0,0 +1,185 @@
+package no.acntech.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the traces the head sampler left out when they turn out to be worth looking at. The spans of such a trace are
+ * buffered until its local root span ends. The trace is then kept if one of its spans failed or the root span took
+ * longer than the slow threshold, and its spans are handed to the delegate as sampled. Otherwise it is discarded.
+ * Sampled spans are handed to the delegate at once.
+ * <p>
+ * The buffer holds at most {@code maxTraces} traces of at most {@code maxSpansPerTrace} spans each. Spans that do not
+ * fit, and the spans of traces whose root span has not ended within the trace timeout, are dropped.
+ */
+public final class TailSamplingSpanProcessor implements SpanProcessor {
+
+    // Set on HTTP server spans by Micrometer, which does not mark a 5xx response as an error unless it has an exception
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final String SERVER_ERROR = "SERVER_ERROR";
+    private final SpanProcessor delegate;
+    private final long slowThresholdNanos;
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final long traceTimeoutNanos;
+    private final ConcurrentMap<String, TraceBuffer> traces = new ConcurrentHashMap<>();
+    private final AtomicLong lastExpiryNanos = new AtomicLong(System.nanoTime());
+    private final Counter keptErrorCounter;
+    private final Counter keptSlowCounter;
+    private final Counter discardedCounter;
+    private final Counter bufferFullCounter;
+    private final Counter expiredCounter;
+
+    public TailSamplingSpanProcessor(final SpanProcessor delegate,
+                                     final Duration slowThreshold,
+                                     final int maxTraces,
+                                     final int maxSpansPerTrace,
+                                     final Duration traceTimeout,
+                                     final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.traceTimeoutNanos = traceTimeout.toNanos();
+        this.keptErrorCounter = traceCounter(meterRegistry, "kept-error");
+        this.keptSlowCounter = traceCounter(meterRegistry, "kept-slow");
+        this.discardedCounter = traceCounter(meterRegistry, "discarded");
+        this.bufferFullCounter = MeteredBatchSpanProcessor.droppedCounter(meterRegistry, "tail-buffer-full");
+        this.expiredCounter = MeteredBatchSpanProcessor.droppedCounter(meterRegistry, "tail-expired");
+    }
+
+    @Override
+    public void onStart(final Context parentContext, final ReadWriteSpan span) {
+        delegate.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(final ReadableSpan span) {
+        if (span.getSpanContext().isSampled()) {
+            delegate.onEnd(span);
+            return;
+        }
+        expireTraces();
+        final var spanData = span.toSpanData();
+        final var parentSpanContext = spanData.getParentSpanContext();
+        if (parentSpanContext.isValid() && !parentSpanContext.isRemote()) {
+            buffer(spanData);
+        } else {
+            decide(spanData);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        traces.clear();
+        return delegate.shutdown();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    private void buffer(final SpanData spanData) {
+        var traceBuffer = traces.get(spanData.getTraceId());
+        if (traceBuffer == null) {
+            if (traces.size() >= maxTraces) {
+                bufferFullCounter.increment();
+                return;
+            }
+            traceBuffer = traces.computeIfAbsent(spanData.getTraceId(), traceId -> new TraceBuffer());
+        }
+        if (!traceBuffer.add(spanData)) {
+            bufferFullCounter.increment();
+        }
+    }
+
+    private void decide(final SpanData rootSpanData) {
+        final var traceBuffer = traces.remove(rootSpanData.getTraceId());
+        final var spans = traceBuffer != null ? traceBuffer.close() : new ArrayList<SpanData>();
+        spans.add(rootSpanData);
+        if (spans.stream().anyMatch(TailSamplingSpanProcessor::isError)) {
+            keptErrorCounter.increment();
+        } else if (rootSpanData.getEndEpochNanos() - rootSpanData.getStartEpochNanos() >= slowThresholdNanos) {
+            keptSlowCounter.increment();
+        } else {
+            discardedCounter.increment();
+            return;
+        }
+        spans.forEach(spanData -> delegate.onEnd(new SampledSpan(spanData)));
+    }
+
+    private void expireTraces() {
+        final var nanos = System.nanoTime();
+        final var lastNanos = lastExpiryNanos.get();
+        // Look for expired traces at most once a second
+        if (nanos - lastNanos < 1_000_000_000L || !lastExpiryNanos.compareAndSet(lastNanos, nanos)) {
+            return;
+        }
+        traces.forEach((traceId, traceBuffer) -> {
+            if (nanos - traceBuffer.createdNanos >= traceTimeoutNanos && traces.remove(traceId, traceBuffer)) {
+                expiredCounter.increment(traceBuffer.close().size());
+            }
+        });
+    }
+
+    private static boolean isError(final SpanData spanData) {
+        return spanData.getStatus().getStatusCode() == StatusCode.ERROR
+                || SERVER_ERROR.equals(spanData.getAttributes().get(OUTCOME));
+    }
+
+    private static Counter traceCounter(final MeterRegistry meterRegistry, final String decision) {
+        return Counter.builder("tracing.tail.traces")
+                .description("Traces left out by the head sampler, by the decision of the tail sampler")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    private final class TraceBuffer {
+
+        private final long createdNanos = System.nanoTime();
+        private final List<SpanData> spans = new ArrayList<>();
+        private boolean closed;
+
+        private synchronized boolean add(final SpanData spanData) {
+            if (closed || spans.size() >= maxSpansPerTrace) {
+                return false;
+            }
+            spans.add(spanData);
+            return true;
+        }
+
+        /**
+         * Returns the buffered spans. Spans that end after this are dropped.
+         */
+        private synchronized List<SpanData> close() {
+            closed = true;
+            return new ArrayList<>(spans);
+        }
+    }
+}
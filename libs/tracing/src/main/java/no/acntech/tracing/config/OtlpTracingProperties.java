@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package no.acntech.common.config;
+package no.acntech.tracing.config;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
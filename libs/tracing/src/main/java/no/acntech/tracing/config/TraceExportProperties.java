@@ -0,0 +1,71 @@
+package no.acntech.tracing.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Batching of sampled spans on their way to the span exporters.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.tracing.export")
+public class TraceExportProperties {
+
+    /**
+     * Maximum number of spans waiting to be exported. Further spans are dropped.
+     */
+    @NotNull
+    @Positive
+    private Integer maxQueueSize = 2048;
+    /**
+     * Maximum number of spans exported in one batch.
+     */
+    @NotNull
+    @Positive
+    private Integer maxExportBatchSize = 512;
+    /**
+     * How long spans may wait for a batch to fill up before they are exported.
+     */
+    @NotNull
+    private Duration scheduleDelay = Duration.ofSeconds(5);
+    /**
+     * How long the export of a batch may take before it is abandoned.
+     */
+    @NotNull
+    private Duration exporterTimeout = Duration.ofSeconds(30);
+
+    public Integer getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public void setMaxQueueSize(Integer maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public Integer getMaxExportBatchSize() {
+        return maxExportBatchSize;
+    }
+
+    public void setMaxExportBatchSize(Integer maxExportBatchSize) {
+        this.maxExportBatchSize = maxExportBatchSize;
+    }
+
+    public Duration getScheduleDelay() {
+        return scheduleDelay;
+    }
+
+    public void setScheduleDelay(Duration scheduleDelay) {
+        this.scheduleDelay = scheduleDelay;
+    }
+
+    public Duration getExporterTimeout() {
+        return exporterTimeout;
+    }
+
+    public void setExporterTimeout(Duration exporterTimeout) {
+        this.exporterTimeout = exporterTimeout;
+    }
+}
@@ -0,0 +1,144 @@
+package no.acntech.tracing.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Head and tail sampling of traces. These replace {@code management.tracing.sampling.probability}.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.tracing.sampling")
+public class TraceSamplingProperties {
+
+    /**
+     * Maximum number of new traces sampled per second for each route, unless the route has a budget of its own.
+     */
+    @NotNull
+    @PositiveOrZero
+    private Double tracesPerSecond = 10.0;
+    /**
+     * Budgets of single routes, in traces per second, by the name of their root span.
+     */
+    @NotNull
+    private Map<String, Double> routes = new HashMap<>();
+    /**
+     * Maximum number of routes with a budget of their own. Further routes share one budget.
+     */
+    @NotNull
+    @Positive
+    private Integer maxRoutes = 200;
+    @Valid
+    @NotNull
+    private Tail tail = new Tail();
+
+    public Double getTracesPerSecond() {
+        return tracesPerSecond;
+    }
+
+    public void setTracesPerSecond(Double tracesPerSecond) {
+        this.tracesPerSecond = tracesPerSecond;
+    }
+
+    public Map<String, Double> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Double> routes) {
+        this.routes = routes;
+    }
+
+    public Integer getMaxRoutes() {
+        return maxRoutes;
+    }
+
+    public void setMaxRoutes(Integer maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    public Tail getTail() {
+        return tail;
+    }
+
+    public void setTail(Tail tail) {
+        this.tail = tail;
+    }
+
+    public static class Tail {
+
+        /**
+         * Whether traces over the head sampling budget are recorded, so that slow and failed ones can still be kept.
+         */
+        @NotNull
+        private Boolean enabled = true;
+        /**
+         * Duration from which the root span of a trace makes it slow.
+         */
+        @NotNull
+        private Duration slowThreshold = Duration.ofMillis(500);
+        /**
+         * Maximum number of traces buffered while their root span has not ended.
+         */
+        @NotNull
+        @Positive
+        private Integer maxTraces = 10000;
+        /**
+         * Maximum number of spans buffered for one trace.
+         */
+        @NotNull
+        @Positive
+        private Integer maxSpansPerTrace = 500;
+        /**
+         * How long the spans of a trace are buffered for its root span to end.
+         */
+        @NotNull
+        private Duration traceTimeout = Duration.ofSeconds(30);
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public Integer getMaxTraces() {
+            return maxTraces;
+        }
+
+        public void setMaxTraces(Integer maxTraces) {
+            this.maxTraces = maxTraces;
+        }
+
+        public Integer getMaxSpansPerTrace() {
+            return maxSpansPerTrace;
+        }
+
+        public void setMaxSpansPerTrace(Integer maxSpansPerTrace) {
+            this.maxSpansPerTrace = maxSpansPerTrace;
+        }
+
+        public Duration getTraceTimeout() {
+            return traceTimeout;
+        }
+
+        public void setTraceTimeout(Duration traceTimeout) {
+            this.traceTimeout = traceTimeout;
+        }
+    }
+}
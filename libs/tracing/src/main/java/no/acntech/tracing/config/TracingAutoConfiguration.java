@@ -0,0 +1,174 @@
+package no.acntech.tracing.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.exporter.SpanExportingPredicate;
+import io.micrometer.tracing.exporter.SpanFilter;
+import io.micrometer.tracing.exporter.SpanReporter;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingReceiverTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.CompositeSpanExporter;
+import io.micrometer.tracing.propagation.Propagator;
+import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import no.acntech.tracing.MeteredBatchSpanProcessor;
+import no.acntech.tracing.RouteBudgetSampler;
+import no.acntech.tracing.TailSamplingSpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.tracing.MicrometerTracingAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanExporters;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.actuate.autoconfigure.tracing.otlp.OtlpAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.scheduling.support.DefaultScheduledTaskObservationConvention;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+import org.springframework.scheduling.support.ScheduledTaskObservationConvention;
+
+import java.util.regex.Pattern;
+
+/**
+ * Spring Boot Actuator does not yet provide autoconfiguration for a pure OTLP setup.
+ * As of Spring Boot 3.0.1 they only support Zipkin and Wavefront out of the box.
+ * Due to this shortcoming we need to create an OTLP span exporter which is then used by
+ * the OTLP Micrometer bridge.
+ * <p>
+ * Runs before the tracing autoconfiguration of Spring Boot, which backs off from the beans defined here.
+ */
+@ConditionalOnProperty(name = "management.tracing.enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfiguration(before = {
+        OtlpAutoConfiguration.class,
+        OpenTelemetryAutoConfiguration.class,
+        MicrometerTracingAutoConfiguration.class})
+public class TracingAutoConfiguration {
+
+    @ConditionalOnProperty(name = "management.otlp.tracing.enabled", havingValue = "true", matchIfMissing = true)
+    @EnableConfigurationProperties(OtlpTracingProperties.class)
+    @Configuration(proxyBeanMethods = false)
+    public static class OltpTracingConfig {
+
+        @Bean
+        public OtlpGrpcSpanExporter otlpGrpcSpanExporter(final OtlpTracingProperties properties) {
+            return OtlpGrpcSpanExporter.builder()
+                    .setEndpoint(properties.getExport().getGrpc().getUrl())
+                    .setTimeout(properties.getExport().getGrpc().getTimeout())
+                    .build();
+        }
+    }
+
+    /**
+     * Replaces the probability sampler and the batch span processor of Spring Boot. New traces are sampled within a
+     * budget per route, and traces over budget are kept after all if they turn out slow or failed. Sampled spans are
+     * batched for export to every {@link io.opentelemetry.sdk.trace.export.SpanExporter} bean, so an in-memory
+     * exporter may stand in for OTLP with {@code management.otlp.tracing.enabled=false}.
+     * <p>
+     * Spring Boot still creates its own batch span processor, but it is not registered with the tracer provider.
+     */
+    @EnableConfigurationProperties({TraceSamplingProperties.class, TraceExportProperties.class})
+    @Configuration(proxyBeanMethods = false)
+    public static class SamplingConfig {
+
+        private static final ScheduledTaskObservationConvention SCHEDULED_TASK_CONVENTION = new DefaultScheduledTaskObservationConvention();
+        private static final Pattern ID_SEGMENT = Pattern.compile("/(?:\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}|\\d+)(?=/|$)");
+
+        @Bean
+        public Sampler routeBudgetSampler(final TraceSamplingProperties properties) {
+            return new RouteBudgetSampler(
+                    properties.getTracesPerSecond(),
+                    properties.getRoutes(),
+                    properties.getMaxRoutes(),
+                    properties.getTail().getEnabled());
+        }
+
+        @Bean
+        public SpanProcessors spanProcessors(final SpanExporters spanExporters,
+                                             final ObjectProvider<SpanExportingPredicate> spanExportingPredicates,
+                                             final ObjectProvider<SpanReporter> spanReporters,
+                                             final ObjectProvider<SpanFilter> spanFilters,
+                                             final TraceSamplingProperties samplingProperties,
+                                             final TraceExportProperties exportProperties,
+                                             final MeterRegistry meterRegistry) {
+            final var spanExporter = new CompositeSpanExporter(
+                    spanExporters.list(),
+                    spanExportingPredicates.orderedStream().toList(),
+                    spanReporters.orderedStream().toList(),
+                    spanFilters.orderedStream().toList());
+            final SpanProcessor batchSpanProcessor = MeteredBatchSpanProcessor.builder(spanExporter, meterRegistry)
+                    .maxQueueSize(exportProperties.getMaxQueueSize())
+                    .maxExportBatchSize(exportProperties.getMaxExportBatchSize())
+                    .scheduleDelay(exportProperties.getScheduleDelay())
+                    .exporterTimeout(exportProperties.getExporterTimeout())
+                    .build();
+            final var tail = samplingProperties.getTail();
+            if (!tail.getEnabled()) {
+                return SpanProcessors.of(batchSpanProcessor);
+            }
+            return SpanProcessors.of(new TailSamplingSpanProcessor(
+                    batchSpanProcessor,
+                    tail.getSlowThreshold(),
+                    tail.getMaxTraces(),
+                    tail.getMaxSpansPerTrace(),
+                    tail.getTraceTimeout(),
+                    meterRegistry));
+        }
+
+        /**
+         * Spring Boot starts spans without a name, and names them when they stop. These handlers name them after their
+         * route as they start instead, so that the head sampler can tell the routes apart.
+         */
+        @Order(MicrometerTracingAutoConfiguration.DEFAULT_TRACING_OBSERVATION_HANDLER_ORDER)
+        @Bean
+        public DefaultTracingObservationHandler defaultTracingObservationHandler(final Tracer tracer) {
+            return new DefaultTracingObservationHandler(tracer) {
+
+                @Override
+                public void onStart(final Observation.Context context) {
+                    final var parentSpan = getParentSpan(context);
+                    final var spanBuilder = getTracer().spanBuilder().name(routeOf(context));
+                    if (parentSpan != null) {
+                        spanBuilder.setParent(parentSpan.context());
+                    }
+                    getTracingContext(context).setSpan(spanBuilder.start());
+                }
+            };
+        }
+
+        @Order(MicrometerTracingAutoConfiguration.RECEIVER_TRACING_OBSERVATION_HANDLER_ORDER)
+        @Bean
+        public PropagatingReceiverTracingObservationHandler<?> propagatingReceiverTracingObservationHandler(final Tracer tracer,
+                                                                                                            final Propagator propagator) {
+            return new PropagatingReceiverTracingObservationHandler<ReceiverContext<?>>(tracer, propagator) {
+
+                @Override
+                public Span.Builder customizeExtractedSpan(final ReceiverContext<?> context, final Span.Builder builder) {
+                    return builder.name(routeOf(context));
+                }
+            };
+        }
+
+        /**
+         * The route of a request is its path with the IDs left out, as the route template is only known once the request
+         * has been mapped. The span is given the contextual name of its observation when it stops.
+         */
+        private static String routeOf(final Observation.Context context) {
+            if (context instanceof ServerRequestObservationContext serverRequestContext) {
+                final var request = serverRequestContext.getCarrier();
+                return "http " + request.getMethod().toLowerCase() + " " + ID_SEGMENT.matcher(request.getRequestURI()).replaceAll("/{id}");
+            }
+            if (context instanceof ScheduledTaskObservationContext scheduledTaskContext) {
+                return SCHEDULED_TASK_CONVENTION.getContextualName(scheduledTaskContext);
+            }
+            return context.getContextualName() != null ? context.getContextualName() : context.getName();
+        }
+    }
+}
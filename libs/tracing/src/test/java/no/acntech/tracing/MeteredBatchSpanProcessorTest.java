@@ -0,0 +1,161 @@
+package no.acntech.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeteredBatchSpanProcessorTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void exportsSampledSpansInBatches() {
+        final var tracer = tracer(MeteredBatchSpanProcessor.builder(spanExporter, meterRegistry)
+                .maxExportBatchSize(2)
+                .scheduleDelay(Duration.ofHours(1))
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            tracer.spanBuilder("span " + i).startSpan().end();
+        }
+        tracerProvider.forceFlush().join(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertThat(spanExporter.getFinishedSpanItems()).hasSize(5);
+        assertThat(exported()).isEqualTo(5.0);
+        assertThat(queued()).isZero();
+    }
+
+    @Test
+    void dropsSpansThatDoNotFitInTheQueue() throws InterruptedException {
+        final var blockingSpanExporter = new BlockingSpanExporter(spanExporter);
+        final var tracer = tracer(MeteredBatchSpanProcessor.builder(blockingSpanExporter, meterRegistry)
+                .maxQueueSize(1)
+                .maxExportBatchSize(1)
+                .scheduleDelay(Duration.ofMillis(1))
+                .build());
+
+        tracer.spanBuilder("exporting").startSpan().end();
+        assertThat(blockingSpanExporter.exporting.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        tracer.spanBuilder("queued").startSpan().end();
+        tracer.spanBuilder("dropped").startSpan().end();
+
+        assertThat(queued()).isEqualTo(1.0);
+        assertThat(dropped("queue-full")).isEqualTo(1.0);
+        blockingSpanExporter.release.countDown();
+        tracerProvider.forceFlush().join(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertThat(spanExporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("exporting", "queued");
+        assertThat(queued()).isZero();
+    }
+
+    @Test
+    void countsSpansOfFailedExportsAsDropped() {
+        final var tracer = tracer(MeteredBatchSpanProcessor.builder(new FailingSpanExporter(), meterRegistry)
+                .scheduleDelay(Duration.ofHours(1))
+                .build());
+
+        for (int i = 0; i < 3; i++) {
+            tracer.spanBuilder("span " + i).startSpan().end();
+        }
+        tracerProvider.forceFlush().join(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertThat(dropped("export-failed")).isEqualTo(3.0);
+        assertThat(exported()).isZero();
+    }
+
+    private Tracer tracer(final MeteredBatchSpanProcessor spanProcessor) {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(spanProcessor)
+                .build();
+        return tracerProvider.get(MeteredBatchSpanProcessorTest.class.getName());
+    }
+
+    private double queued() {
+        return meterRegistry.get("tracing.spans.queued").gauge().value();
+    }
+
+    private double exported() {
+        return meterRegistry.get("tracing.spans.exported").counter().count();
+    }
+
+    private double dropped(final String reason) {
+        return meterRegistry.get("tracing.spans.dropped").tag("reason", reason).counter().count();
+    }
+
+    /**
+     * Holds up the first export until released, so that the spans ended meanwhile stay in the queue.
+     */
+    private static final class BlockingSpanExporter implements SpanExporter {
+
+        private final SpanExporter delegate;
+        private final CountDownLatch exporting = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private BlockingSpanExporter(final SpanExporter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableResultCode export(final Collection<SpanData> spans) {
+            exporting.countDown();
+            try {
+                release.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableResultCode.ofFailure();
+            }
+            return delegate.export(spans);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return delegate.shutdown();
+        }
+    }
+
+    private static final class FailingSpanExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(final Collection<SpanData> spans) {
+            return CompletableResultCode.ofFailure();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
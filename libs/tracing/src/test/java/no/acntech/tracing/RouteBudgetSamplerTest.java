@@ -0,0 +1,136 @@
+package no.acntech.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The budgets are a few traces per second, so that the traces started by a test all fall within the same second.
+ */
+class RouteBudgetSamplerTest {
+
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void samplesNewTracesOfEachRouteWithinItsBudget() {
+        final var tracer = tracer(new RouteBudgetSampler(2.0, Map.of(), 10, false));
+
+        startTraces(tracer, "http get /orders", 10);
+        startTraces(tracer, "http get /products", 10);
+
+        assertThat(spanExporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("http get /orders", "http get /orders", "http get /products", "http get /products");
+    }
+
+    @Test
+    void samplesRoutesWithABudgetOfTheirOwnWithinThatBudget() {
+        final var tracer = tracer(new RouteBudgetSampler(2.0, Map.of("http get /orders", 5.0), 10, false));
+
+        startTraces(tracer, "http get /orders", 10);
+        startTraces(tracer, "http get /products", 10);
+
+        assertThat(spanExporter.getFinishedSpanItems())
+                .filteredOn(spanData -> spanData.getName().equals("http get /orders"))
+                .hasSize(5);
+        assertThat(spanExporter.getFinishedSpanItems())
+                .filteredOn(spanData -> spanData.getName().equals("http get /products"))
+                .hasSize(2);
+    }
+
+    @Test
+    void routesBeyondTheMaximumShareOneBudget() {
+        final var tracer = tracer(new RouteBudgetSampler(2.0, Map.of(), 1, false));
+
+        startTraces(tracer, "http get /orders", 10);
+        startTraces(tracer, "http get /products", 10);
+        startTraces(tracer, "http get /reservations", 10);
+
+        assertThat(spanExporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("http get /orders", "http get /orders", "http get /products", "http get /products");
+    }
+
+    @Test
+    void spansWithAParentFollowTheDecisionForTheParent() {
+        final var tracer = tracer(new RouteBudgetSampler(1.0, Map.of(), 10, false));
+
+        startTraceWithChild(tracer, "http get /orders");
+        startTraceWithChild(tracer, "http get /orders");
+
+        assertThat(spanExporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("child", "http get /orders");
+    }
+
+    @Test
+    void recordsTracesOverBudgetWithoutSamplingThemWhenAskedTo() {
+        final var tracer = tracer(new RouteBudgetSampler(0.0, Map.of(), 10, true));
+
+        final var rootSpan = tracer.spanBuilder("http get /orders").startSpan();
+        final var childSpan = tracer.spanBuilder("child")
+                .setParent(Context.current().with(rootSpan))
+                .startSpan();
+
+        assertThat(rootSpan.isRecording()).isTrue();
+        assertThat(rootSpan.getSpanContext().isSampled()).isFalse();
+        assertThat(childSpan.isRecording()).isTrue();
+        assertThat(childSpan.getSpanContext().isSampled()).isFalse();
+        childSpan.end();
+        rootSpan.end();
+        assertThat(spanExporter.getFinishedSpanItems()).isEmpty();
+    }
+
+    @Test
+    void dropsTracesOverBudgetOtherwise() {
+        final var tracer = tracer(new RouteBudgetSampler(0.0, Map.of(), 10, false));
+
+        final var rootSpan = tracer.spanBuilder("http get /orders").startSpan();
+        final var childSpan = tracer.spanBuilder("child")
+                .setParent(Context.current().with(rootSpan))
+                .startSpan();
+
+        assertThat(rootSpan.isRecording()).isFalse();
+        assertThat(childSpan.isRecording()).isFalse();
+    }
+
+    private Tracer tracer(final Sampler sampler) {
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(sampler)
+                .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                .build();
+        return tracerProvider.get(RouteBudgetSamplerTest.class.getName());
+    }
+
+    private static void startTraces(final Tracer tracer, final String route, final int traces) {
+        for (int i = 0; i < traces; i++) {
+            tracer.spanBuilder(route).startSpan().end();
+        }
+    }
+
+    private static void startTraceWithChild(final Tracer tracer, final String route) {
+        final Span rootSpan = tracer.spanBuilder(route).startSpan();
+        tracer.spanBuilder("child")
+                .setParent(Context.current().with(rootSpan))
+                .startSpan()
+                .end();
+        rootSpan.end();
+    }
+}
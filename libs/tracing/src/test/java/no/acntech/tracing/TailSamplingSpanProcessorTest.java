@@ -0,0 +1,152 @@
+package no.acntech.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The head sampler has no budget, so that every trace is left to the tail sampler unless a test samples it up front.
+ */
+class TailSamplingSpanProcessorTest {
+
+    private static final Duration SLOW_THRESHOLD = Duration.ofMillis(500);
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void discardsTracesThatAreFastAndDidNotFail() {
+        final var tracer = tracer(new RouteBudgetSampler(0.0, Map.of(), 10, true), 500);
+
+        final var rootSpan = tracer.spanBuilder("http get /orders").startSpan();
+        child(tracer, rootSpan).end();
+        rootSpan.end();
+
+        assertThat(spanExporter.getFinishedSpanItems()).isEmpty();
+        assertThat(traces("discarded")).isEqualTo(1.0);
+    }
+
+    @Test
+    void keepsTracesWithAFailedSpan() {
+        final var tracer = tracer(new RouteBudgetSampler(0.0, Map.of(), 10, true), 500);
+
+        final var rootSpan = tracer.spanBuilder("http get /orders").startSpan();
+        child(tracer, rootSpan).setStatus(StatusCode.ERROR).end();
+        rootSpan.end();
+
+        assertThat(spanExporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("child", "http get /orders");
+        assertThat(spanExporter.getFinishedSpanItems())
+                .allSatisfy(spanData -> assertThat(spanData.getSpanContext().isSampled()).isTrue());
+        assertThat(traces("kept-error")).isEqualTo(1.0);
+    }
+
+    @Test
+    void keepsTracesWithAServerErrorResponse() {
+        final var tracer = tracer(new RouteBudgetSampler(0.0, Map.of(), 10, true), 500);
+
+        tracer.spanBuilder("http get /orders")
+                .setAttribute(AttributeKey.stringKey("outcome"), "SERVER_ERROR")
+                .startSpan()
+                .end();
+
+        assertThat(spanExporter.getFinishedSpanItems()).hasSize(1);
+        assertThat(traces("kept-error")).isEqualTo(1.0);
+    }
+
+    @Test
+    void keepsTracesWithASlowRootSpan() {
+        final var tracer = tracer(new RouteBudgetSampler(0.0, Map.of(), 10, true), 500);
+
+        final var rootSpan = tracer.spanBuilder("http get /orders")
+                .setStartTimestamp(Instant.now().minus(SLOW_THRESHOLD))
+                .startSpan();
+        child(tracer, rootSpan).end();
+        rootSpan.end();
+
+        assertThat(spanExporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("child", "http get /orders");
+        assertThat(traces("kept-slow")).isEqualTo(1.0);
+    }
+
+    @Test
+    void passesSampledSpansOnAtOnce() {
+        final var tracer = tracer(Sampler.alwaysOn(), 500);
+
+        final var rootSpan = tracer.spanBuilder("http get /orders").startSpan();
+        child(tracer, rootSpan).end();
+
+        assertThat(spanExporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("child");
+        rootSpan.end();
+        assertThat(spanExporter.getFinishedSpanItems()).hasSize(2);
+        assertThat(meterRegistry.find("tracing.tail.traces").counters())
+                .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+
+    @Test
+    void dropsSpansBeyondTheMaximumPerTrace() {
+        final var tracer = tracer(new RouteBudgetSampler(0.0, Map.of(), 10, true), 1);
+
+        final var rootSpan = tracer.spanBuilder("http get /orders").startSpan();
+        for (int i = 0; i < 3; i++) {
+            child(tracer, rootSpan).end();
+        }
+        rootSpan.setStatus(StatusCode.ERROR).end();
+
+        assertThat(spanExporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("child", "http get /orders");
+        assertThat(meterRegistry.get("tracing.spans.dropped").tag("reason", "tail-buffer-full").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    private Tracer tracer(final Sampler sampler, final int maxSpansPerTrace) {
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(sampler)
+                .addSpanProcessor(new TailSamplingSpanProcessor(
+                        SimpleSpanProcessor.create(spanExporter),
+                        SLOW_THRESHOLD,
+                        100,
+                        maxSpansPerTrace,
+                        Duration.ofSeconds(30),
+                        meterRegistry))
+                .build();
+        return tracerProvider.get(TailSamplingSpanProcessorTest.class.getName());
+    }
+
+    private static Span child(final Tracer tracer, final Span parentSpan) {
+        return tracer.spanBuilder("child")
+                .setParent(Context.current().with(parentSpan))
+                .startSpan();
+    }
+
+    private double traces(final String decision) {
+        return meterRegistry.get("tracing.tail.traces").tag("decision", decision).counter().count();
+    }
+}
@@ -1,24 +1,28 @@
 package no.acntech.common.config;
 
-import no.acntech.common.converter.UUIDAttributeConverter;
 import no.acntech.common.converter.ZonedDateTimeAttributeConverter;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
+@Profile("!reactive")
 @EnableJpaAuditing
 @EnableJpaRepositories(basePackages = {
-        "no.acntech.order.repository"
+        "no.acntech.idempotency.repository",
+        "no.acntech.order.repository",
+        "no.acntech.reservation.repository"
 })
 @EntityScan(
         basePackageClasses = {
                 Jsr310JpaConverters.class,
-                ZonedDateTimeAttributeConverter.class,
-                UUIDAttributeConverter.class},
+                ZonedDateTimeAttributeConverter.class},
         basePackages = {
-                "no.acntech.order.model"
+                "no.acntech.idempotency.model",
+                "no.acntech.order.model",
+                "no.acntech.reservation.model"
         })
 @Configuration(proxyBeanMethods = false)
 public class DatabaseConfig {
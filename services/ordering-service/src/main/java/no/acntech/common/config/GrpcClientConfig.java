@@ -0,0 +1,40 @@
+package no.acntech.common.config;
+
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelFactory;
+import net.devh.boot.grpc.client.channelfactory.ShadedNettyChannelFactory;
+import net.devh.boot.grpc.client.config.GrpcChannelsProperties;
+import net.devh.boot.grpc.client.interceptor.GlobalClientInterceptorRegistry;
+import no.acntech.reservation.proto.ReservationServiceGrpc;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * The gRPC stub for warehouse-service, used when {@code app.service.warehouse.protocol} is {@code grpc}. The
+ * {@code warehouse} channel is configured under {@code grpc.client.warehouse}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class GrpcClientConfig {
+
+    /**
+     * Creates the network channels. The auto-configured channel factory also serves {@code in-process:} addresses,
+     * which needs grpc-inprocess, so it is only used where that is on the classpath, as in the tests.
+     */
+    @ConditionalOnMissingClass("io.grpc.inprocess.InProcessChannelBuilder")
+    @Bean
+    public GrpcChannelFactory grpcChannelFactory(final GrpcChannelsProperties grpcChannelsProperties,
+                                                 final GlobalClientInterceptorRegistry globalClientInterceptorRegistry,
+                                                 final List<GrpcChannelConfigurer> grpcChannelConfigurers) {
+        return new ShadedNettyChannelFactory(grpcChannelsProperties, globalClientInterceptorRegistry, grpcChannelConfigurers);
+    }
+
+    @ConditionalOnProperty(name = "app.service.warehouse.protocol", havingValue = "grpc")
+    @Bean
+    public ReservationServiceGrpc.ReservationServiceStub reservationServiceStub(final GrpcChannelFactory grpcChannelFactory) {
+        return ReservationServiceGrpc.newStub(grpcChannelFactory.createChannel("warehouse"));
+    }
+}
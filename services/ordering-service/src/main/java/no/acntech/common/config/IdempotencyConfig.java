@@ -0,0 +1,28 @@
+package no.acntech.common.config;
+
+import no.acntech.idempotency.filter.IdempotencyFilter;
+import no.acntech.idempotency.service.IdempotencyService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Order and item mutations accept an {@code Idempotency-Key} header, so that clients can retry them safely. Expired
+ * keys are purged on a schedule.
+ */
+@Profile("!reactive")
+@EnableScheduling
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@Configuration(proxyBeanMethods = false)
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(final IdempotencyService idempotencyService) {
+        final var filterRegistrationBean = new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService));
+        filterRegistrationBean.addUrlPatterns("/api/orders/*", "/api/items/*");
+        return filterRegistrationBean;
+    }
+}
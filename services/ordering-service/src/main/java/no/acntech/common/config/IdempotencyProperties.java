@@ -0,0 +1,67 @@
+package no.acntech.common.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a response is kept for replay after the request that produced it.
+     */
+    @NotNull
+    private Duration retention = Duration.ofHours(24);
+    /**
+     * How long a key may be held by a request that has not completed before another request may take it over.
+     */
+    @NotNull
+    private Duration lockTimeout = Duration.ofMinutes(1);
+    /**
+     * How often expired keys are purged from the database.
+     */
+    @NotNull
+    private Duration purgeInterval = Duration.ofMinutes(10);
+    /**
+     * Maximum number of responses held in memory. Older responses are still replayed from the database.
+     */
+    @NotNull
+    @Positive
+    private Long cacheSize = 10000L;
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getLockTimeout() {
+        return lockTimeout;
+    }
+
+    public void setLockTimeout(Duration lockTimeout) {
+        this.lockTimeout = lockTimeout;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public Long getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(Long cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+}
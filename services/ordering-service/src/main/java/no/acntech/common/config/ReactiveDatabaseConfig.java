@@ -0,0 +1,19 @@
+package no.acntech.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * R2DBC counterpart of {@link DatabaseConfig}, used with the {@code reactive} profile.
+ */
+@Profile("reactive")
+@EnableR2dbcAuditing(modifyOnCreate = false)
+@EnableR2dbcRepositories(basePackages = {
+        "no.acntech.order.reactive.repository"
+})
+@Configuration(proxyBeanMethods = false)
+public class ReactiveDatabaseConfig {
+
+}
@@ -0,0 +1,24 @@
+package no.acntech.common.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Serves the {@code reactive} profile on Reactor Netty. Spring Boot would otherwise run WebFlux on Tomcat, as
+ * Tomcat is on the class path for the servlet stack.
+ */
+@Profile("reactive")
+@Configuration(proxyBeanMethods = false)
+public class ReactiveWebConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(final ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        final var factory = new NettyReactiveWebServerFactory();
+        serverCustomizers.orderedStream().forEach(factory::addServerCustomizers);
+        return factory;
+    }
+}
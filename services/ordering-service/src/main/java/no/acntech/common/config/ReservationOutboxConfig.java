@@ -0,0 +1,16 @@
+package no.acntech.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The reservation outbox is relayed to warehouse-service on a schedule. The reactive stack calls warehouse-service
+ * directly, as it holds no database connection while it waits, so it has no outbox.
+ */
+@Profile("!reactive")
+@EnableScheduling
+@Configuration(proxyBeanMethods = false)
+public class ReservationOutboxConfig {
+
+}
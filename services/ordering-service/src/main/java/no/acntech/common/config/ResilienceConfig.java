@@ -0,0 +1,44 @@
+package no.acntech.common.config;
+
+import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import no.acntech.reservation.consumer.ReservationResilience;
+import no.acntech.reservation.consumer.RetryBudget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Predicate;
+
+/**
+ * Only failures that say something about the health of warehouse-service are recorded by the circuit breakers, and
+ * only those are retried, as long as the retry budget allows it. The remaining settings are in {@code resilience4j}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ResilienceConfig {
+
+    @Bean
+    public RetryBudget reservationRetryBudget(@Value("${app.reservation.retry-budget.ratio:0.1}") final double ratio,
+                                              @Value("${app.reservation.retry-budget.min-per-second:10}") final int minRetriesPerSecond,
+                                              @Value("${app.reservation.retry-budget.max-calls-per-second:1000}") final int maxCallsPerSecond) {
+        return new RetryBudget(ratio, minRetriesPerSecond, maxCallsPerSecond);
+    }
+
+    @Bean
+    public RetryConfigCustomizer reservationReadRetryCustomizer(final RetryBudget reservationRetryBudget) {
+        final Predicate<Throwable> retryable = throwable -> ReservationResilience.isTransient(throwable) && reservationRetryBudget.tryRetry();
+        return RetryConfigCustomizer.of("reservation-read", builder -> builder.retryOnException(retryable));
+    }
+
+    @Bean
+    public CircuitBreakerConfigCustomizer reservationReadCircuitBreakerCustomizer() {
+        return CircuitBreakerConfigCustomizer.of("reservation-read", builder -> builder
+                .recordException(ReservationResilience::isTransient));
+    }
+
+    @Bean
+    public CircuitBreakerConfigCustomizer reservationWriteCircuitBreakerCustomizer() {
+        return CircuitBreakerConfigCustomizer.of("reservation-write", builder -> builder
+                .recordException(ReservationResilience::isTransient));
+    }
+}
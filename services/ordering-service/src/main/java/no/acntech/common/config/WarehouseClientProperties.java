@@ -0,0 +1,145 @@
+package no.acntech.common.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and protocol settings for the HTTP client used to call warehouse-service.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.service.warehouse.client")
+public class WarehouseClientProperties {
+
+    /**
+     * Maximum number of open connections to warehouse-service.
+     */
+    @NotNull
+    @Positive
+    private Integer maxConnections = 500;
+    /**
+     * Maximum number of requests waiting for a connection once all connections are in use.
+     */
+    @NotNull
+    @Positive
+    private Integer pendingAcquireMaxCount = 1000;
+    /**
+     * How long a request waits for a connection before it fails.
+     */
+    @NotNull
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    /**
+     * How long a connection may stay idle in the pool before it is closed. Keep this below the keep-alive timeout of
+     * warehouse-service, so that the client never picks a connection the server is about to close.
+     */
+    @NotNull
+    private Duration maxIdleTime = Duration.ofSeconds(15);
+    /**
+     * How long a connection is used before it is closed, so that new instances behind a load balancer get traffic.
+     */
+    @NotNull
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    /**
+     * How often idle and expired connections are evicted in the background.
+     */
+    @NotNull
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    @NotNull
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    @NotNull
+    private Duration responseTimeout = Duration.ofSeconds(5);
+    /**
+     * Talk HTTP/2 without TLS (h2c) with prior knowledge, so that concurrent requests share a few connections.
+     * warehouse-service must have HTTP/2 enabled.
+     */
+    @NotNull
+    private Boolean http2 = false;
+    /**
+     * Ask for compressed responses and compress requests.
+     */
+    @NotNull
+    private Boolean compression = true;
+
+    public Integer getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(Integer maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public Integer getPendingAcquireMaxCount() {
+        return pendingAcquireMaxCount;
+    }
+
+    public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) {
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+        return pendingAcquireTimeout;
+    }
+
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public Duration getMaxLifeTime() {
+        return maxLifeTime;
+    }
+
+    public void setMaxLifeTime(Duration maxLifeTime) {
+        this.maxLifeTime = maxLifeTime;
+    }
+
+    public Duration getEvictionInterval() {
+        return evictionInterval;
+    }
+
+    public void setEvictionInterval(Duration evictionInterval) {
+        this.evictionInterval = evictionInterval;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public void setResponseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    public Boolean getHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(Boolean http2) {
+        this.http2 = http2;
+    }
+
+    public Boolean getCompression() {
+        return compression;
+    }
+
+    public void setCompression(Boolean compression) {
+        this.compression = compression;
+    }
+}
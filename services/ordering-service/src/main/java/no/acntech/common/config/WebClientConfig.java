@@ -1,14 +1,48 @@
 package no.acntech.common.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * The WebClient talks to warehouse-service through its own connection pool. Reactor Netty publishes the active, idle
+ * and pending connection gauges of the pool to Micrometer under {@code reactor.netty.connection.provider}, tagged with
+ * the pool name.
+ */
+@EnableConfigurationProperties(WarehouseClientProperties.class)
 @Configuration(proxyBeanMethods = false)
 public class WebClientConfig {
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider warehouseConnectionProvider(final WarehouseClientProperties properties) {
+        return ConnectionProvider.builder("warehouse")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+
     @Bean
-    public WebClient webClient(final WebClient.Builder webClientBuilder) {
-        return webClientBuilder.build();
+    public WebClient webClient(final WebClient.Builder webClientBuilder,
+                               final ConnectionProvider warehouseConnectionProvider,
+                               final WarehouseClientProperties properties) {
+        final var httpClient = HttpClient.create(warehouseConnectionProvider)
+                .protocol(properties.getHttp2() ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(properties.getConnectTimeout().toMillis()))
+                .responseTimeout(properties.getResponseTimeout())
+                .compress(properties.getCompression());
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 }
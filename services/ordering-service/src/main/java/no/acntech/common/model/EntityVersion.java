@@ -0,0 +1,28 @@
+package no.acntech.common.model;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The version of a resource, read without loading the entities behind it. It changes whenever one of the entities is
+ * created or modified, or the number of entities changes, and is used to answer conditional requests.
+ */
+public record EntityVersion(ZonedDateTime lastModified, long count) {
+
+    /**
+     * For resources built from a parent entity and its children, where the latest change may be in either.
+     */
+    public EntityVersion(final ZonedDateTime parentLastModified, final ZonedDateTime childLastModified, final long count) {
+        this(childLastModified == null || parentLastModified.isAfter(childLastModified) ? parentLastModified : childLastModified, count);
+    }
+
+    public String getETag() {
+        final var micros = lastModified == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, lastModified.toInstant());
+        return "\"" + Long.toHexString(micros) + "-" + count + "\"";
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,12 @@
+package no.acntech.idempotency.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.CONFLICT)
+public class IdempotencyKeyInUseException extends IllegalStateException {
+
+    public IdempotencyKeyInUseException(String idempotencyKey) {
+        super("A request with idempotency-key " + idempotencyKey + " is already being processed");
+    }
+}
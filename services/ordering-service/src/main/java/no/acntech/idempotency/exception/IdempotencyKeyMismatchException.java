@@ -0,0 +1,12 @@
+package no.acntech.idempotency.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyMismatchException extends IllegalStateException {
+
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super("Idempotency-key " + idempotencyKey + " was already used for a different request");
+    }
+}
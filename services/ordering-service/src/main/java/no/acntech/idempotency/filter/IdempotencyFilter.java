@@ -0,0 +1,202 @@
+package no.acntech.idempotency.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import no.acntech.idempotency.exception.IdempotencyKeyInUseException;
+import no.acntech.idempotency.exception.IdempotencyKeyMismatchException;
+import no.acntech.idempotency.model.IdempotentResponse;
+import no.acntech.idempotency.service.IdempotencyService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Replays the response to a mutating request that carries an {@code Idempotency-Key} header seen before, instead of
+ * passing it on. The key is tied to a fingerprint of the method, path and body of the first request, and reusing it
+ * for a different request is refused. Only successful responses are kept; after any other response the key is
+ * released and the request may be retried with it.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyFilter(final IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        final var method = HttpMethod.valueOf(request.getMethod());
+        return request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || HttpMethod.GET.equals(method)
+                || HttpMethod.HEAD.equals(method)
+                || HttpMethod.OPTIONS.equals(method);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final var idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).strip();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Idempotency-key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        final var cachedBodyRequest = new CachedBodyRequest(request);
+        final var fingerprint = fingerprint(cachedBodyRequest);
+        final IdempotentResponse idempotentResponse;
+        try {
+            idempotentResponse = idempotencyService.claimKey(idempotencyKey, fingerprint).orElse(null);
+        } catch (IdempotencyKeyInUseException e) {
+            response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+            return;
+        } catch (IdempotencyKeyMismatchException e) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+            return;
+        }
+        if (idempotentResponse != null) {
+            replay(idempotentResponse, response);
+            return;
+        }
+
+        final var cachingResponse = new ContentCachingResponseWrapper(response);
+        var completed = false;
+        try {
+            filterChain.doFilter(cachedBodyRequest, cachingResponse);
+            if (HttpStatus.valueOf(cachingResponse.getStatus()).is2xxSuccessful()) {
+                idempotencyService.completeKey(
+                        idempotencyKey,
+                        fingerprint,
+                        cachingResponse.getStatus(),
+                        cachingResponse.getHeader(HttpHeaders.LOCATION),
+                        cachingResponse.getContentType(),
+                        new String(cachingResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyService.releaseKey(idempotencyKey);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(final IdempotentResponse idempotentResponse,
+                               final HttpServletResponse response) throws IOException {
+        response.setStatus(idempotentResponse.status());
+        response.setHeader(IDEMPOTENT_REPLAYED_HEADER, Boolean.TRUE.toString());
+        if (idempotentResponse.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, idempotentResponse.location());
+        }
+        if (idempotentResponse.contentType() != null) {
+            response.setContentType(idempotentResponse.contentType());
+        }
+        if (idempotentResponse.body() != null) {
+            final var body = idempotentResponse.body().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static String fingerprint(final CachedBodyRequest request) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Holds the request body in memory, as it is read once for the fingerprint and once more by the handler.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(final HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            final var inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already in memory, so the listener is told at once that data is available and, once it
+                 * has read it all, that the body is done.
+                 */
+                @Override
+                public void setReadListener(final ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(final byte[] bytes, final int offset, final int length) {
+                    return inputStream.read(bytes, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
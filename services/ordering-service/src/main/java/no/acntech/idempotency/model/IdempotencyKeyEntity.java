@@ -0,0 +1,118 @@
+package no.acntech.idempotency.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
+
+/**
+ * An {@code Idempotency-Key} sent by a client, along with the response to the request that first used it. The
+ * response is empty while that request is still being processed.
+ */
+@Table(name = "IDEMPOTENCY_KEYS")
+@Entity
+public class IdempotencyKeyEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, updatable = false)
+    private String idempotencyKey;
+    @Column(nullable = false, updatable = false)
+    private String fingerprint;
+    private Integer status;
+    private String location;
+    private String contentType;
+    private String body;
+    @Column(nullable = false)
+    private ZonedDateTime created;
+    @Column(nullable = false)
+    private ZonedDateTime expires;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public ZonedDateTime getCreated() {
+        return created;
+    }
+
+    public ZonedDateTime getExpires() {
+        return expires;
+    }
+
+    public boolean isCompleted() {
+        return status != null;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private String idempotencyKey;
+        private String fingerprint;
+        private ZonedDateTime created;
+        private ZonedDateTime expires;
+
+        private Builder() {
+        }
+
+        public Builder idempotencyKey(String idempotencyKey) {
+            this.idempotencyKey = idempotencyKey;
+            return this;
+        }
+
+        public Builder fingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+            return this;
+        }
+
+        public Builder created(ZonedDateTime created) {
+            this.created = created;
+            return this;
+        }
+
+        public Builder expires(ZonedDateTime expires) {
+            this.expires = expires;
+            return this;
+        }
+
+        public IdempotencyKeyEntity build() {
+            final var target = new IdempotencyKeyEntity();
+            target.idempotencyKey = this.idempotencyKey;
+            target.fingerprint = this.fingerprint;
+            target.created = this.created;
+            target.expires = this.expires;
+            return target;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package no.acntech.idempotency.model;
+
+/**
+ * A completed response that is replayed to requests with the same {@code Idempotency-Key}.
+ */
+public record IdempotentResponse(String fingerprint, int status, String location, String contentType, String body) {
+}
@@ -0,0 +1,59 @@
+package no.acntech.idempotency.repository;
+
+import no.acntech.idempotency.model.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, Long> {
+
+    Optional<IdempotencyKeyEntity> findByIdempotencyKeyAndExpiresAfter(String idempotencyKey, ZonedDateTime now);
+
+    /**
+     * Takes over a key that is held by a request that never completed, or that has expired but is not yet purged.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKeyEntity k
+            SET k.fingerprint = :fingerprint, k.status = NULL, k.location = NULL, k.contentType = NULL, k.body = NULL,
+                k.created = :now, k.expires = :expires
+            WHERE k.idempotencyKey = :idempotencyKey
+            AND ((k.status IS NULL AND k.created < :lockedBefore) OR k.expires <= :now)
+            """)
+    int takeOver(@Param("idempotencyKey") String idempotencyKey,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("now") ZonedDateTime now,
+                 @Param("expires") ZonedDateTime expires,
+                 @Param("lockedBefore") ZonedDateTime lockedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKeyEntity k
+            SET k.status = :status, k.location = :location, k.contentType = :contentType, k.body = :body
+            WHERE k.idempotencyKey = :idempotencyKey
+            """)
+    int complete(@Param("idempotencyKey") String idempotencyKey,
+                 @Param("status") int status,
+                 @Param("location") String location,
+                 @Param("contentType") String contentType,
+                 @Param("body") String body);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.idempotencyKey = :idempotencyKey AND k.status IS NULL")
+    int release(@Param("idempotencyKey") String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.expires <= :now")
+    int deleteExpired(@Param("now") ZonedDateTime now);
+}
@@ -0,0 +1,158 @@
+package no.acntech.idempotency.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.validation.constraints.NotBlank;
+import no.acntech.common.config.IdempotencyProperties;
+import no.acntech.idempotency.exception.IdempotencyKeyInUseException;
+import no.acntech.idempotency.exception.IdempotencyKeyMismatchException;
+import no.acntech.idempotency.model.IdempotencyKeyEntity;
+import no.acntech.idempotency.model.IdempotentResponse;
+import no.acntech.idempotency.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+/**
+ * Keeps track of {@code Idempotency-Key}s and the responses to the requests that used them. Completed responses are
+ * kept in the database for the retention period, and the most recent ones in memory as well, so a replay is usually
+ * served without a query.
+ */
+@Profile("!reactive")
+@Validated
+@Service
+public class IdempotencyService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyService.class);
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final Cache<String, IdempotentResponse> responses;
+
+    public IdempotencyService(final IdempotencyKeyRepository idempotencyKeyRepository,
+                              final IdempotencyProperties idempotencyProperties,
+                              final MeterRegistry meterRegistry) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.idempotencyProperties = idempotencyProperties;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getCacheSize())
+                .expireAfterWrite(idempotencyProperties.getRetention())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+    }
+
+    /**
+     * Returns the response to replay for the key, or claims the key for the current request if it has none. A
+     * claimed key must be either completed or released once the request is done.
+     *
+     * @throws IdempotencyKeyInUseException    if another request holds the key
+     * @throws IdempotencyKeyMismatchException if the key was used for a request with a different fingerprint
+     */
+    public Optional<IdempotentResponse> claimKey(@NotBlank final String idempotencyKey,
+                                                 @NotBlank final String fingerprint) {
+        final var cachedResponse = responses.getIfPresent(idempotencyKey);
+        if (cachedResponse != null) {
+            return Optional.of(verify(idempotencyKey, fingerprint, cachedResponse));
+        }
+
+        final var now = ZonedDateTime.now();
+        final var existingEntity = idempotencyKeyRepository.findByIdempotencyKeyAndExpiresAfter(idempotencyKey, now);
+        if (existingEntity.isPresent()) {
+            return replayOrTakeOver(idempotencyKey, fingerprint, existingEntity.get(), now);
+        }
+
+        try {
+            idempotencyKeyRepository.saveAndFlush(IdempotencyKeyEntity.builder()
+                    .idempotencyKey(idempotencyKey)
+                    .fingerprint(fingerprint)
+                    .created(now)
+                    .expires(now.plus(idempotencyProperties.getRetention()))
+                    .build());
+            LOGGER.debug("Claimed idempotency-key {}", idempotencyKey);
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            // Another request claimed the key first, or it has expired and is waiting to be purged
+            return idempotencyKeyRepository.findByIdempotencyKeyAndExpiresAfter(idempotencyKey, now)
+                    .map(idempotencyKeyEntity -> replayOrTakeOver(idempotencyKey, fingerprint, idempotencyKeyEntity, now))
+                    .orElseGet(() -> takeOver(idempotencyKey, fingerprint, now));
+        }
+    }
+
+    public void completeKey(@NotBlank final String idempotencyKey,
+                            @NotBlank final String fingerprint,
+                            final int status,
+                            final String location,
+                            final String contentType,
+                            final String body) {
+        idempotencyKeyRepository.complete(idempotencyKey, status, location, contentType, body);
+        responses.put(idempotencyKey, new IdempotentResponse(fingerprint, status, location, contentType, body));
+        LOGGER.debug("Completed idempotency-key {} with status {}", idempotencyKey, status);
+    }
+
+    /**
+     * Gives up a claimed key without a response, so that the request may be retried with the same key.
+     */
+    public void releaseKey(@NotBlank final String idempotencyKey) {
+        idempotencyKeyRepository.release(idempotencyKey);
+        LOGGER.debug("Released idempotency-key {}", idempotencyKey);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT10M}")
+    public void purgeExpiredKeys() {
+        final var purged = idempotencyKeyRepository.deleteExpired(ZonedDateTime.now());
+        if (purged > 0) {
+            LOGGER.info("Purged {} expired idempotency-keys", purged);
+        }
+    }
+
+    private Optional<IdempotentResponse> replayOrTakeOver(final String idempotencyKey,
+                                                          final String fingerprint,
+                                                          final IdempotencyKeyEntity idempotencyKeyEntity,
+                                                          final ZonedDateTime now) {
+        if (!idempotencyKeyEntity.isCompleted()) {
+            return takeOver(idempotencyKey, fingerprint, now);
+        }
+        final var response = new IdempotentResponse(
+                idempotencyKeyEntity.getFingerprint(),
+                idempotencyKeyEntity.getStatus(),
+                idempotencyKeyEntity.getLocation(),
+                idempotencyKeyEntity.getContentType(),
+                idempotencyKeyEntity.getBody());
+        responses.put(idempotencyKey, response);
+        return Optional.of(verify(idempotencyKey, fingerprint, response));
+    }
+
+    private Optional<IdempotentResponse> takeOver(final String idempotencyKey,
+                                                  final String fingerprint,
+                                                  final ZonedDateTime now) {
+        final var takenOver = idempotencyKeyRepository.takeOver(
+                idempotencyKey,
+                fingerprint,
+                now,
+                now.plus(idempotencyProperties.getRetention()),
+                now.minus(idempotencyProperties.getLockTimeout()));
+        if (takenOver == 0) {
+            throw new IdempotencyKeyInUseException(idempotencyKey);
+        }
+        LOGGER.info("Took over stale idempotency-key {}", idempotencyKey);
+        return Optional.empty();
+    }
+
+    private static IdempotentResponse verify(final String idempotencyKey,
+                                             final String fingerprint,
+                                             final IdempotentResponse response) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,30 @@
+package no.acntech.order.converter;
+
+import no.acntech.order.model.OrderSummaryDto;
+import no.acntech.order.model.OrderSummaryEntity;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderSummaryEntityToOrderSummaryDtoConverter implements Converter<OrderSummaryEntity, OrderSummaryDto> {
+
+    @NonNull
+    @Override
+    public OrderSummaryDto convert(@NonNull final OrderSummaryEntity source) {
+        return OrderSummaryDto.builder()
+                .orderId(source.getOrderId())
+                .customerId(source.getCustomerId())
+                .name(source.getName())
+                .status(source.getStatus())
+                .itemCount(source.getItemCount())
+                .pendingItems(source.getPendingItems())
+                .reservedItems(source.getReservedItems())
+                .confirmedItems(source.getConfirmedItems())
+                .rejectedItems(source.getRejectedItems())
+                .failedItems(source.getFailedItems())
+                .created(source.getCreated())
+                .modified(source.getModified())
+                .build();
+    }
+}
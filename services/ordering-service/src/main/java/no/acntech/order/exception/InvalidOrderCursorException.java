@@ -0,0 +1,12 @@
+package no.acntech.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class InvalidOrderCursorException extends IllegalArgumentException {
+
+    public InvalidOrderCursorException(String cursor) {
+        super("Invalid order cursor " + cursor);
+    }
+}
@@ -0,0 +1,33 @@
+package no.acntech.order.model;
+
+import no.acntech.order.exception.InvalidOrderCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque paging cursor for {@link OrderQuery#getAfter()}, holding the ID of the last order on the previous page.
+ */
+public final class OrderCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private OrderCursor() {
+    }
+
+    public static String encode(final Long id) {
+        return ENCODER.encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static Long decode(final String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOrderCursorException(cursor);
+        }
+    }
+}
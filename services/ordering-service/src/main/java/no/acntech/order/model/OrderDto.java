@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public class OrderDto {
@@ -63,6 +64,12 @@ public class OrderDto {
                 .anyMatch(productId::equals);
     }
 
+    public Optional<OrderItemDto> findItemWithProductId(UUID productId) {
+        return items.stream()
+                .filter(item -> productId.equals(item.getProductId()))
+                .findFirst();
+    }
+
     @JsonIgnore
     public boolean areAllItemsConfirmed() {
         List<OrderItemDto> activeItems = items.stream()
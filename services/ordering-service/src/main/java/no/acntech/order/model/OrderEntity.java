@@ -1,5 +1,6 @@
 package no.acntech.order.model;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SortNatural;
 
 import jakarta.persistence.CascadeType;
@@ -14,6 +15,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -25,7 +27,8 @@ import java.util.UUID;
 public class OrderEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ORDERS_SEQ")
+    @SequenceGenerator(name = "ORDERS_SEQ", sequenceName = "ORDERS_SEQ", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private UUID orderId;
@@ -39,7 +42,8 @@ public class OrderEntity {
     @Column(nullable = false)
     private OrderStatus status;
     @SortNatural
-    @OneToMany(mappedBy = "parent", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @BatchSize(size = 100)
+    @OneToMany(mappedBy = "parent", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<OrderItemEntity> items = new ArrayList<>();
     @Column(nullable = false, updatable = false)
     private ZonedDateTime created;
@@ -105,6 +109,16 @@ public class OrderEntity {
         return !activeItems.isEmpty() && allActiveItemsConfirmed;
     }
 
+    public boolean areAllItemsConfirmed() {
+        List<OrderItemEntity> activeItems = items.stream()
+                .filter(activeItem -> !OrderItemStatus.DELETED.equals(activeItem.getStatus()))
+                .toList();
+        boolean allActiveItemsConfirmed = activeItems.stream()
+                .map(OrderItemEntity::getStatus)
+                .allMatch(OrderItemStatus.CONFIRMED::equals);
+        return !activeItems.isEmpty() && allActiveItemsConfirmed;
+    }
+
     @PrePersist
     private void prePersist() {
         orderId = UUID.randomUUID();
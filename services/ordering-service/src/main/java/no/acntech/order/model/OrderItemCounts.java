@@ -0,0 +1,33 @@
+package no.acntech.order.model;
+
+import java.util.Collection;
+
+/**
+ * Number of active items of an order, which are all items not deleted, in total and by status. Counted the same way for
+ * the order summaries of the servlet and the reactive stack.
+ */
+public record OrderItemCounts(int total, int pending, int reserved, int confirmed, int rejected, int failed) {
+
+    public static OrderItemCounts of(final Collection<OrderItemStatus> statuses) {
+        int total = 0;
+        int pending = 0;
+        int reserved = 0;
+        int confirmed = 0;
+        int rejected = 0;
+        int failed = 0;
+        for (OrderItemStatus status : statuses) {
+            switch (status) {
+                case PENDING -> pending++;
+                case RESERVED -> reserved++;
+                case CONFIRMED -> confirmed++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+                case DELETED -> {
+                    continue;
+                }
+            }
+            total++;
+        }
+        return new OrderItemCounts(total, pending, reserved, confirmed, rejected, failed);
+    }
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.ZonedDateTime;
 import java.util.UUID;
@@ -20,7 +21,8 @@ import java.util.UUID;
 public class OrderItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ORDER_ITEMS_SEQ")
+    @SequenceGenerator(name = "ORDER_ITEMS_SEQ", sequenceName = "ORDER_ITEMS_SEQ", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private UUID itemId;
@@ -57,6 +59,10 @@ public class OrderItemEntity {
         return reservationId;
     }
 
+    public void setReservationId(UUID reservationId) {
+        this.reservationId = reservationId;
+    }
+
     public Long getQuantity() {
         return quantity;
     }
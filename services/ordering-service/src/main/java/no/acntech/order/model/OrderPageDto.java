@@ -0,0 +1,49 @@
+package no.acntech.order.model;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+public class OrderPageDto {
+
+    @NotNull
+    private List<OrderSummaryDto> items;
+    private String nextCursor;
+
+    public List<OrderSummaryDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private List<OrderSummaryDto> items;
+        private String nextCursor;
+
+        private Builder() {
+        }
+
+        public Builder items(List<OrderSummaryDto> items) {
+            this.items = items;
+            return this;
+        }
+
+        public Builder nextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
+        public OrderPageDto build() {
+            final var target = new OrderPageDto();
+            target.items = this.items;
+            target.nextCursor = this.nextCursor;
+            return target;
+        }
+    }
+}
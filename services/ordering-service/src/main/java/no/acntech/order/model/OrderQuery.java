@@ -1,17 +1,47 @@
 package no.acntech.order.model;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.util.UUID;
 
 public class OrderQuery {
 
     private UUID customerId;
     private OrderStatus status;
+    @Min(1)
+    @Max(1000)
+    private Integer limit;
+    private String after;
 
     public UUID getCustomerId() {
         return customerId;
     }
 
+    public void setCustomerId(UUID customerId) {
+        this.customerId = customerId;
+    }
+
     public OrderStatus getStatus() {
         return status;
     }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
 }
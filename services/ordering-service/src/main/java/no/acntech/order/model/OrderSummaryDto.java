@@ -0,0 +1,183 @@
+package no.acntech.order.model;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Order as listed, with the number of active items in each status instead of the items themselves.
+ */
+public class OrderSummaryDto {
+
+    @NotNull
+    private UUID orderId;
+    @NotNull
+    private UUID customerId;
+    @NotNull
+    private String name;
+    @NotNull
+    private OrderStatus status;
+    @NotNull
+    private Integer itemCount;
+    @NotNull
+    private Integer pendingItems;
+    @NotNull
+    private Integer reservedItems;
+    @NotNull
+    private Integer confirmedItems;
+    @NotNull
+    private Integer rejectedItems;
+    @NotNull
+    private Integer failedItems;
+    @NotNull
+    private ZonedDateTime created;
+    private ZonedDateTime modified;
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public Integer getPendingItems() {
+        return pendingItems;
+    }
+
+    public Integer getReservedItems() {
+        return reservedItems;
+    }
+
+    public Integer getConfirmedItems() {
+        return confirmedItems;
+    }
+
+    public Integer getRejectedItems() {
+        return rejectedItems;
+    }
+
+    public Integer getFailedItems() {
+        return failedItems;
+    }
+
+    public ZonedDateTime getCreated() {
+        return created;
+    }
+
+    public ZonedDateTime getModified() {
+        return modified;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private UUID orderId;
+        private UUID customerId;
+        private String name;
+        private OrderStatus status;
+        private Integer itemCount;
+        private Integer pendingItems;
+        private Integer reservedItems;
+        private Integer confirmedItems;
+        private Integer rejectedItems;
+        private Integer failedItems;
+        private ZonedDateTime created;
+        private ZonedDateTime modified;
+
+        private Builder() {
+        }
+
+        public Builder orderId(UUID orderId) {
+            this.orderId = orderId;
+            return this;
+        }
+
+        public Builder customerId(UUID customerId) {
+            this.customerId = customerId;
+            return this;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder status(OrderStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder itemCount(Integer itemCount) {
+            this.itemCount = itemCount;
+            return this;
+        }
+
+        public Builder pendingItems(Integer pendingItems) {
+            this.pendingItems = pendingItems;
+            return this;
+        }
+
+        public Builder reservedItems(Integer reservedItems) {
+            this.reservedItems = reservedItems;
+            return this;
+        }
+
+        public Builder confirmedItems(Integer confirmedItems) {
+            this.confirmedItems = confirmedItems;
+            return this;
+        }
+
+        public Builder rejectedItems(Integer rejectedItems) {
+            this.rejectedItems = rejectedItems;
+            return this;
+        }
+
+        public Builder failedItems(Integer failedItems) {
+            this.failedItems = failedItems;
+            return this;
+        }
+
+        public Builder created(ZonedDateTime created) {
+            this.created = created;
+            return this;
+        }
+
+        public Builder modified(ZonedDateTime modified) {
+            this.modified = modified;
+            return this;
+        }
+
+        public OrderSummaryDto build() {
+            final var target = new OrderSummaryDto();
+            target.orderId = this.orderId;
+            target.customerId = this.customerId;
+            target.name = this.name;
+            target.status = this.status;
+            target.itemCount = this.itemCount;
+            target.pendingItems = this.pendingItems;
+            target.reservedItems = this.reservedItems;
+            target.confirmedItems = this.confirmedItems;
+            target.rejectedItems = this.rejectedItems;
+            target.failedItems = this.failedItems;
+            target.created = this.created;
+            target.modified = this.modified;
+            return target;
+        }
+    }
+}
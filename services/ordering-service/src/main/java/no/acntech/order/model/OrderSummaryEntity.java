@@ -0,0 +1,151 @@
+package no.acntech.order.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Read model of an order for listings, kept up to date by {@link no.acntech.order.service.OrderService} and
+ * {@link no.acntech.order.reactive.service.ReactiveOrderService} whenever they change the order or its items. Shares
+ * its ID with the order, so that listings page by the same cursor. Item counts are of active items, which are all items
+ * not deleted.
+ */
+@Table(name = "ORDER_SUMMARIES")
+@Entity
+public class OrderSummaryEntity {
+
+    @Id
+    private Long id;
+    @Column(nullable = false, updatable = false)
+    private UUID orderId;
+    @Column(nullable = false, updatable = false)
+    private UUID customerId;
+    @Column(nullable = false)
+    private String name;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+    @Column(nullable = false)
+    private Integer itemCount;
+    @Column(nullable = false)
+    private Integer pendingItems;
+    @Column(nullable = false)
+    private Integer reservedItems;
+    @Column(nullable = false)
+    private Integer confirmedItems;
+    @Column(nullable = false)
+    private Integer rejectedItems;
+    @Column(nullable = false)
+    private Integer failedItems;
+    @Column(nullable = false, updatable = false)
+    private ZonedDateTime created;
+    @Column
+    private ZonedDateTime modified;
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public Integer getPendingItems() {
+        return pendingItems;
+    }
+
+    public Integer getReservedItems() {
+        return reservedItems;
+    }
+
+    public Integer getConfirmedItems() {
+        return confirmedItems;
+    }
+
+    public Integer getRejectedItems() {
+        return rejectedItems;
+    }
+
+    public Integer getFailedItems() {
+        return failedItems;
+    }
+
+    public ZonedDateTime getCreated() {
+        return created;
+    }
+
+    public ZonedDateTime getModified() {
+        return modified;
+    }
+
+    /**
+     * Brings the summary in line with the current state of the order and its items.
+     */
+    public void summarize(OrderEntity orderEntity) {
+        name = orderEntity.getName();
+        status = orderEntity.getStatus();
+        final var counts = OrderItemCounts.of(orderEntity.getItems().stream()
+                .map(OrderItemEntity::getStatus)
+                .toList());
+        itemCount = counts.total();
+        pendingItems = counts.pending();
+        reservedItems = counts.reserved();
+        confirmedItems = counts.confirmed();
+        rejectedItems = counts.rejected();
+        failedItems = counts.failed();
+    }
+
+    @PreUpdate
+    private void preUpdate() {
+        modified = ZonedDateTime.now();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private OrderEntity orderEntity;
+
+        private Builder() {
+        }
+
+        public Builder order(OrderEntity orderEntity) {
+            this.orderEntity = orderEntity;
+            return this;
+        }
+
+        public OrderSummaryEntity build() {
+            final var target = new OrderSummaryEntity();
+            target.id = this.orderEntity.getId();
+            target.orderId = this.orderEntity.getOrderId();
+            target.customerId = this.orderEntity.getCustomerId();
+            target.created = this.orderEntity.getCreated();
+            target.summarize(this.orderEntity);
+            return target;
+        }
+    }
+}
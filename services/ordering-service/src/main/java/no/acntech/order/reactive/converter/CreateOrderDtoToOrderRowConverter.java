@@ -0,0 +1,21 @@
+package no.acntech.order.reactive.converter;
+
+import no.acntech.order.model.CreateOrderDto;
+import no.acntech.order.reactive.model.OrderRow;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CreateOrderDtoToOrderRowConverter implements Converter<CreateOrderDto, OrderRow> {
+
+    @NonNull
+    @Override
+    public OrderRow convert(@NonNull final CreateOrderDto source) {
+        return OrderRow.builder()
+                .customerId(source.getCustomerId())
+                .name(source.getName())
+                .description(source.getDescription())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package no.acntech.order.reactive.converter;
+
+import no.acntech.order.model.CreateOrderItemDto;
+import no.acntech.order.reactive.model.OrderItemRow;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CreateOrderItemDtoToOrderItemRowConverter implements Converter<CreateOrderItemDto, OrderItemRow> {
+
+    @NonNull
+    @Override
+    public OrderItemRow convert(@NonNull final CreateOrderItemDto source) {
+        return OrderItemRow.builder()
+                .reservationId(source.getReservationId())
+                .productId(source.getProductId())
+                .quantity(source.getQuantity())
+                .status(source.getStatus())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package no.acntech.order.reactive.converter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Reads {@code TIMESTAMP} columns in the system time zone, the same way as the JPA
+ * {@link no.acntech.common.converter.ZonedDateTimeAttributeConverter} does.
+ */
+final class LocalDateTimes {
+
+    private LocalDateTimes() {
+    }
+
+    static ZonedDateTime toZonedDateTime(final LocalDateTime localDateTime) {
+        return localDateTime == null ? null : localDateTime.atZone(ZoneId.systemDefault());
+    }
+}
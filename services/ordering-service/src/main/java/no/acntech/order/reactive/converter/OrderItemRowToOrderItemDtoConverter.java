@@ -0,0 +1,26 @@
+package no.acntech.order.reactive.converter;
+
+import no.acntech.order.model.OrderItemDto;
+import no.acntech.order.reactive.model.OrderItemRow;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderItemRowToOrderItemDtoConverter implements Converter<OrderItemRow, OrderItemDto> {
+
+    @NonNull
+    @Override
+    public OrderItemDto convert(@NonNull final OrderItemRow source) {
+        return OrderItemDto.builder()
+                .itemId(source.getItemId())
+                .orderId(source.getParent().getOrderId())
+                .productId(source.getProductId())
+                .reservationId(source.getReservationId())
+                .quantity(source.getQuantity())
+                .status(source.getStatus())
+                .created(LocalDateTimes.toZonedDateTime(source.getCreated()))
+                .modified(LocalDateTimes.toZonedDateTime(source.getModified()))
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package no.acntech.order.reactive.converter;
+
+import no.acntech.order.model.OrderDto;
+import no.acntech.order.model.OrderItemDto;
+import no.acntech.order.reactive.model.OrderRow;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class OrderRowToOrderDtoConverter implements Converter<OrderRow, OrderDto> {
+
+    private final OrderItemRowToOrderItemDtoConverter orderItemRowToOrderItemDtoConverter;
+
+    public OrderRowToOrderDtoConverter(final OrderItemRowToOrderItemDtoConverter orderItemRowToOrderItemDtoConverter) {
+        this.orderItemRowToOrderItemDtoConverter = orderItemRowToOrderItemDtoConverter;
+    }
+
+    @NonNull
+    @Override
+    public OrderDto convert(@NonNull final OrderRow source) {
+        return OrderDto.builder()
+                .orderId(source.getOrderId())
+                .customerId(source.getCustomerId())
+                .name(source.getName())
+                .description(source.getDescription())
+                .status(source.getStatus())
+                .items(convertItems(source))
+                .created(LocalDateTimes.toZonedDateTime(source.getCreated()))
+                .modified(LocalDateTimes.toZonedDateTime(source.getModified()))
+                .build();
+    }
+
+    private List<OrderItemDto> convertItems(final OrderRow source) {
+        return source.getItems().stream()
+                .map(orderItemRowToOrderItemDtoConverter::convert)
+                .collect(Collectors.toList());
+    }
+}
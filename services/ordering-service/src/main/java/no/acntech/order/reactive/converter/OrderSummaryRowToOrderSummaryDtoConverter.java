@@ -0,0 +1,30 @@
+package no.acntech.order.reactive.converter;
+
+import no.acntech.order.model.OrderSummaryDto;
+import no.acntech.order.reactive.model.OrderSummaryRow;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderSummaryRowToOrderSummaryDtoConverter implements Converter<OrderSummaryRow, OrderSummaryDto> {
+
+    @NonNull
+    @Override
+    public OrderSummaryDto convert(@NonNull final OrderSummaryRow source) {
+        return OrderSummaryDto.builder()
+                .orderId(source.getOrderId())
+                .customerId(source.getCustomerId())
+                .name(source.getName())
+                .status(source.getStatus())
+                .itemCount(source.getItemCount())
+                .pendingItems(source.getPendingItems())
+                .reservedItems(source.getReservedItems())
+                .confirmedItems(source.getConfirmedItems())
+                .rejectedItems(source.getRejectedItems())
+                .failedItems(source.getFailedItems())
+                .created(LocalDateTimes.toZonedDateTime(source.getCreated()))
+                .modified(LocalDateTimes.toZonedDateTime(source.getModified()))
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package no.acntech.order.reactive.model;
+
+import no.acntech.order.model.OrderItemStatus;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code ORDER_ITEMS} table. The parent order is referenced by its database ID.
+ */
+@Table("ORDER_ITEMS")
+public class OrderItemRow {
+
+    @Id
+    private Long id;
+    @Column("ORDER_ID")
+    private Long parentId;
+    private UUID itemId;
+    private UUID productId;
+    private UUID reservationId;
+    private Long quantity;
+    private OrderItemStatus status;
+    @CreatedDate
+    private LocalDateTime created;
+    @LastModifiedDate
+    private LocalDateTime modified;
+    @Transient
+    private OrderRow parent;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public UUID getItemId() {
+        return itemId;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public UUID getReservationId() {
+        return reservationId;
+    }
+
+    public Long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+
+    public OrderItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderItemStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    public LocalDateTime getModified() {
+        return modified;
+    }
+
+    public OrderRow getParent() {
+        return parent;
+    }
+
+    public void setParent(OrderRow parent) {
+        this.parent = parent;
+        this.parentId = parent.getId();
+    }
+
+    public void statusConfirmed() {
+        status = OrderItemStatus.CONFIRMED;
+    }
+
+    public void statusCanceled() {
+        status = OrderItemStatus.DELETED;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private UUID productId;
+        private UUID reservationId;
+        private Long quantity;
+        private OrderItemStatus status;
+
+        private Builder() {
+        }
+
+        public Builder productId(UUID productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public Builder reservationId(UUID reservationId) {
+            this.reservationId = reservationId;
+            return this;
+        }
+
+        public Builder quantity(Long quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        public Builder status(OrderItemStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public OrderItemRow build() {
+            final var target = new OrderItemRow();
+            target.itemId = UUID.randomUUID();
+            target.productId = this.productId;
+            target.reservationId = this.reservationId;
+            target.quantity = this.quantity;
+            target.status = this.status == null ? OrderItemStatus.PENDING : this.status;
+            return target;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package no.acntech.order.reactive.model;
+
+import no.acntech.order.model.OrderItemStatus;
+import no.acntech.order.model.OrderStatus;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code ORDERS} table. Items are not mapped by R2DBC and are attached by the service.
+ */
+@Table("ORDERS")
+public class OrderRow {
+
+    @Id
+    private Long id;
+    private UUID orderId;
+    private UUID customerId;
+    private String name;
+    private String description;
+    private OrderStatus status;
+    @Transient
+    private List<OrderItemRow> items = new ArrayList<>();
+    @CreatedDate
+    private LocalDateTime created;
+    @LastModifiedDate
+    private LocalDateTime modified;
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public List<OrderItemRow> getItems() {
+        return items;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    public LocalDateTime getModified() {
+        return modified;
+    }
+
+    public void addItem(OrderItemRow orderItemRow) {
+        orderItemRow.setParent(this);
+        items.add(orderItemRow);
+    }
+
+    public void statusConfirmed() {
+        status = OrderStatus.CLOSED;
+    }
+
+    public void statusCanceled() {
+        status = OrderStatus.CANCELED;
+    }
+
+    public boolean hasItemWithProductId(UUID productId) {
+        return items.stream()
+                .anyMatch(item -> item.getProductId().equals(productId));
+    }
+
+    public boolean areAllItemsReserved() {
+        List<OrderItemRow> activeItems = items.stream()
+                .filter(activeItem -> !OrderItemStatus.DELETED.equals(activeItem.getStatus()))
+                .toList();
+        boolean allActiveItemsConfirmed = activeItems.stream()
+                .map(OrderItemRow::getStatus)
+                .allMatch(OrderItemStatus.RESERVED::equals);
+        return !activeItems.isEmpty() && allActiveItemsConfirmed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private UUID customerId;
+        private String name;
+        private String description;
+
+        private Builder() {
+        }
+
+        public Builder customerId(UUID customerId) {
+            this.customerId = customerId;
+            return this;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public OrderRow build() {
+            final var target = new OrderRow();
+            target.orderId = UUID.randomUUID();
+            target.customerId = this.customerId;
+            target.name = this.name;
+            target.description = this.description;
+            target.status = OrderStatus.OPEN;
+            return target;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package no.acntech.order.reactive.model;
+
+import no.acntech.order.model.OrderItemCounts;
+import no.acntech.order.model.OrderStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code ORDER_SUMMARIES} table, summarized the same way as
+ * {@link no.acntech.order.model.OrderSummaryEntity}. The ID is that of the order rather than generated, so whether the
+ * row is new is tracked here for R2DBC to tell an insert from an update.
+ */
+@Table("ORDER_SUMMARIES")
+public class OrderSummaryRow implements Persistable<Long> {
+
+    @Id
+    private Long id;
+    private UUID orderId;
+    private UUID customerId;
+    private String name;
+    private OrderStatus status;
+    private Integer itemCount;
+    private Integer pendingItems;
+    private Integer reservedItems;
+    private Integer confirmedItems;
+    private Integer rejectedItems;
+    private Integer failedItems;
+    private LocalDateTime created;
+    @LastModifiedDate
+    private LocalDateTime modified;
+    @Transient
+    private boolean newRow;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public Integer getPendingItems() {
+        return pendingItems;
+    }
+
+    public Integer getReservedItems() {
+        return reservedItems;
+    }
+
+    public Integer getConfirmedItems() {
+        return confirmedItems;
+    }
+
+    public Integer getRejectedItems() {
+        return rejectedItems;
+    }
+
+    public Integer getFailedItems() {
+        return failedItems;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    public LocalDateTime getModified() {
+        return modified;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+
+    /**
+     * Brings the summary in line with the current state of the order and its attached items.
+     */
+    public void summarize(OrderRow orderRow) {
+        name = orderRow.getName();
+        status = orderRow.getStatus();
+        final var counts = OrderItemCounts.of(orderRow.getItems().stream()
+                .map(OrderItemRow::getStatus)
+                .toList());
+        itemCount = counts.total();
+        pendingItems = counts.pending();
+        reservedItems = counts.reserved();
+        confirmedItems = counts.confirmed();
+        rejectedItems = counts.rejected();
+        failedItems = counts.failed();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private OrderRow orderRow;
+
+        private Builder() {
+        }
+
+        public Builder order(OrderRow orderRow) {
+            this.orderRow = orderRow;
+            return this;
+        }
+
+        public OrderSummaryRow build() {
+            final var target = new OrderSummaryRow();
+            target.id = this.orderRow.getId();
+            target.orderId = this.orderRow.getOrderId();
+            target.customerId = this.orderRow.getCustomerId();
+            target.created = this.orderRow.getCreated();
+            target.newRow = true;
+            target.summarize(this.orderRow);
+            return target;
+        }
+    }
+}
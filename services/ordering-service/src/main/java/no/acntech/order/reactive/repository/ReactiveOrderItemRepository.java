@@ -0,0 +1,24 @@
+package no.acntech.order.reactive.repository;
+
+import no.acntech.order.reactive.model.OrderItemRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface ReactiveOrderItemRepository extends R2dbcRepository<OrderItemRow, Long> {
+
+    Mono<OrderItemRow> findByItemId(UUID itemId);
+
+    @Query("SELECT ORDER_ID FROM ORDER_ITEMS WHERE ITEM_ID = :itemId")
+    Mono<Long> findParentIdByItemId(@Param("itemId") UUID itemId);
+
+    Flux<OrderItemRow> findAllByParentIdIn(Collection<Long> parentIds, Sort sort);
+}
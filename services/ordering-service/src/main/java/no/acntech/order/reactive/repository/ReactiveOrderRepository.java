@@ -0,0 +1,46 @@
+package no.acntech.order.reactive.repository;
+
+import no.acntech.order.model.OrderStatus;
+import no.acntech.order.reactive.model.OrderRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveOrderRepository extends R2dbcRepository<OrderRow, Long> {
+
+    Mono<OrderRow> findByOrderId(UUID orderId);
+
+    /**
+     * Reads an order and locks it until the transaction ends, like
+     * {@link no.acntech.order.repository.OrderRepository#findForUpdateByOrderId(UUID)}.
+     */
+    @Query("SELECT * FROM ORDERS WHERE ORDER_ID = :orderId FOR UPDATE")
+    Mono<OrderRow> findForUpdateByOrderId(@Param("orderId") UUID orderId);
+
+    @Query("SELECT * FROM ORDERS WHERE ID = :id FOR UPDATE")
+    Mono<OrderRow> findForUpdateById(@Param("id") Long id);
+
+    Flux<OrderRow> findAllByIdGreaterThan(Long id, Limit limit, Sort sort);
+
+    Flux<OrderRow> findAllByCustomerIdAndIdGreaterThan(UUID customerId, Long id, Limit limit, Sort sort);
+
+    Flux<OrderRow> findAllByCustomerIdAndStatusAndIdGreaterThan(UUID customerId, OrderStatus status, Long id, Limit limit, Sort sort);
+
+    Flux<OrderRow> findAllByStatusAndIdGreaterThan(OrderStatus status, Long id, Limit limit, Sort sort);
+
+    Flux<OrderRow> streamAllByIdGreaterThan(Long id, Sort sort);
+
+    Flux<OrderRow> streamAllByCustomerIdAndIdGreaterThan(UUID customerId, Long id, Sort sort);
+
+    Flux<OrderRow> streamAllByCustomerIdAndStatusAndIdGreaterThan(UUID customerId, OrderStatus status, Long id, Sort sort);
+
+    Flux<OrderRow> streamAllByStatusAndIdGreaterThan(OrderStatus status, Long id, Sort sort);
+}
@@ -0,0 +1,23 @@
+package no.acntech.order.reactive.repository;
+
+import no.acntech.order.model.OrderStatus;
+import no.acntech.order.reactive.model.OrderSummaryRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveOrderSummaryRepository extends R2dbcRepository<OrderSummaryRow, Long> {
+
+    Flux<OrderSummaryRow> findAllByIdGreaterThan(Long id, Limit limit, Sort sort);
+
+    Flux<OrderSummaryRow> findAllByCustomerIdAndIdGreaterThan(UUID customerId, Long id, Limit limit, Sort sort);
+
+    Flux<OrderSummaryRow> findAllByCustomerIdAndStatusAndIdGreaterThan(UUID customerId, OrderStatus status, Long id, Limit limit, Sort sort);
+
+    Flux<OrderSummaryRow> findAllByStatusAndIdGreaterThan(OrderStatus status, Long id, Limit limit, Sort sort);
+}
@@ -0,0 +1,49 @@
+package no.acntech.order.reactive.resource;
+
+import no.acntech.order.model.OrderDto;
+import no.acntech.order.model.OrderItemDto;
+import no.acntech.order.model.UpdateOrderItemDto;
+import no.acntech.order.reactive.service.ReactiveOrderOrchestrationService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Profile("reactive")
+@RequestMapping(path = "/api/items")
+@RestController
+public class ReactiveOrderItemsResource {
+
+    private final ReactiveOrderOrchestrationService orderOrchestrationService;
+
+    public ReactiveOrderItemsResource(final ReactiveOrderOrchestrationService orderOrchestrationService) {
+        this.orderOrchestrationService = orderOrchestrationService;
+    }
+
+    @GetMapping(path = "{id}")
+    public Mono<ResponseEntity<OrderItemDto>> get(@PathVariable("id") final UUID itemId) {
+        return orderOrchestrationService.getOrderItem(itemId)
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping(path = "{id}")
+    public Mono<ResponseEntity<OrderDto>> put(@PathVariable("id") final UUID itemId,
+                                              @RequestBody final UpdateOrderItemDto updateOrderItemDto) {
+        return orderOrchestrationService.updateOrderItem(itemId, updateOrderItemDto)
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping(path = "{id}")
+    public Mono<ResponseEntity<OrderDto>> delete(@PathVariable("id") final UUID itemId) {
+        return orderOrchestrationService.deleteOrderItem(itemId)
+                .map(ResponseEntity::ok);
+    }
+}
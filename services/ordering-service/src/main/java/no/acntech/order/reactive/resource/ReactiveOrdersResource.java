@@ -0,0 +1,90 @@
+package no.acntech.order.reactive.resource;
+
+import no.acntech.order.model.CreateOrderDto;
+import no.acntech.order.model.CreateOrderItemDto;
+import no.acntech.order.model.OrderDto;
+import no.acntech.order.model.OrderPageDto;
+import no.acntech.order.model.OrderQuery;
+import no.acntech.order.reactive.service.ReactiveOrderOrchestrationService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@SuppressWarnings("Duplicates")
+@Profile("reactive")
+@RequestMapping(path = "/api/orders")
+@RestController
+public class ReactiveOrdersResource {
+
+    private final ReactiveOrderOrchestrationService orderOrchestrationService;
+
+    public ReactiveOrdersResource(final ReactiveOrderOrchestrationService orderOrchestrationService) {
+        this.orderOrchestrationService = orderOrchestrationService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<OrderPageDto>> find(final OrderQuery orderQuery) {
+        return orderOrchestrationService.findOrders(orderQuery)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderDto> stream(final OrderQuery orderQuery) {
+        return orderOrchestrationService.streamOrders(orderQuery);
+    }
+
+    @GetMapping(path = "{id}")
+    public Mono<ResponseEntity<OrderDto>> get(@PathVariable("id") final UUID orderId) {
+        return orderOrchestrationService.getOrder(orderId)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<OrderDto>> create(@RequestBody final CreateOrderDto createOrder,
+                                                 final ServerHttpRequest request) {
+        return orderOrchestrationService.createOrder(createOrder)
+                .map(orderDto -> {
+                    final var location = UriComponentsBuilder
+                            .fromUri(request.getURI())
+                            .pathSegment(orderDto.getOrderId().toString())
+                            .build()
+                            .toUri();
+                    return ResponseEntity
+                            .created(location)
+                            .body(orderDto);
+                });
+    }
+
+    @PutMapping(path = "{id}")
+    public Mono<ResponseEntity<OrderDto>> put(@PathVariable("id") final UUID orderId) {
+        return orderOrchestrationService.updateOrder(orderId)
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping(path = "{id}")
+    public Mono<ResponseEntity<OrderDto>> delete(@PathVariable("id") final UUID orderId) {
+        return orderOrchestrationService.deleteOrder(orderId)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping(path = "{id}/items")
+    public Mono<ResponseEntity<OrderDto>> postItem(@PathVariable("id") final UUID orderId,
+                                                   @RequestBody final CreateOrderItemDto createItem) {
+        return orderOrchestrationService.createOrderItem(orderId, createItem)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,162 @@
+package no.acntech.order.reactive.service;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import no.acntech.order.exception.OrderItemAlreadyExistsException;
+import no.acntech.order.model.CreateOrderDto;
+import no.acntech.order.model.CreateOrderItemDto;
+import no.acntech.order.model.OrderDto;
+import no.acntech.order.model.OrderItemDto;
+import no.acntech.order.model.OrderItemStatus;
+import no.acntech.order.model.OrderPageDto;
+import no.acntech.order.model.OrderQuery;
+import no.acntech.order.model.UpdateOrderItemDto;
+import no.acntech.reservation.consumer.ReservationConsumer;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.UpdateReservationDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Non-blocking variant of {@link no.acntech.order.service.OrderOrchestrationService}, used with the {@code reactive}
+ * profile. Calls to warehouse-service are not wrapped in a database transaction, so no R2DBC connection is held while
+ * waiting for them; each step against the database is a transaction of its own.
+ */
+@SuppressWarnings("Duplicates")
+@Profile("reactive")
+@Validated
+@Service
+public class ReactiveOrderOrchestrationService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveOrderOrchestrationService.class);
+    private final ConversionService conversionService;
+    private final ReactiveOrderService orderService;
+    private final ReservationConsumer reservationConsumer;
+    private final int maxConcurrency;
+
+    public ReactiveOrderOrchestrationService(final ConversionService conversionService,
+                                             final ReactiveOrderService orderService,
+                                             final ReservationConsumer reservationConsumer,
+                                             @Value("${app.service.warehouse.max-concurrency:8}") final int maxConcurrency) {
+        this.conversionService = conversionService;
+        this.orderService = orderService;
+        this.reservationConsumer = reservationConsumer;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public Mono<OrderDto> getOrder(@NotNull final UUID orderId) {
+        LOGGER.debug("Getting order for ID {}", orderId);
+        return orderService.getOrder(orderId);
+    }
+
+    public Mono<OrderPageDto> findOrders(@NotNull @Valid final OrderQuery orderQuery) {
+        LOGGER.debug("Finding orders");
+        return orderService.findOrders(orderQuery);
+    }
+
+    public Flux<OrderDto> streamOrders(@NotNull @Valid final OrderQuery orderQuery) {
+        LOGGER.debug("Streaming orders");
+        return orderService.streamOrders(orderQuery);
+    }
+
+    public Mono<OrderDto> createOrder(@Valid final CreateOrderDto createOrder) {
+        LOGGER.debug("Create order");
+        return orderService.createOrder(createOrder);
+    }
+
+    public Mono<OrderDto> updateOrder(@NotNull final UUID orderId) {
+        LOGGER.debug("Update order for ID {}", orderId);
+        final var updateReservationDto = UpdateReservationDto.builder()
+                .statusConfirmed()
+                .build();
+        return orderService.updateOrder(orderId)
+                .flatMap(orderDto -> Flux.fromIterable(orderDto.getItems())
+                        .map(OrderItemDto::getReservationId)
+                        .filter(Objects::nonNull)
+                        .flatMap(reservationId -> {
+                            LOGGER.debug("Updating reservation status to {} for reservation-id {}", updateReservationDto.getStatus().name(), reservationId);
+                            return reservationConsumer.update(reservationId, updateReservationDto);
+                        }, maxConcurrency)
+                        .then(Mono.just(orderDto)));
+    }
+
+    public Mono<OrderDto> deleteOrder(@NotNull final UUID orderId) {
+        LOGGER.debug("Delete order for ID {}", orderId);
+        return orderService.deleteOrder(orderId)
+                .flatMap(orderDto -> Flux.fromIterable(orderDto.getItems())
+                        .map(OrderItemDto::getReservationId)
+                        .filter(Objects::nonNull)
+                        .flatMap(reservationConsumer::delete, maxConcurrency)
+                        .then(Mono.just(orderDto)));
+    }
+
+    public Mono<OrderItemDto> getOrderItem(@NotNull final UUID itemId) {
+        LOGGER.debug("Getting order item for ID {}", itemId);
+        return orderService.getOrderItem(itemId);
+    }
+
+    public Mono<OrderDto> createOrderItem(@NotNull final UUID orderId,
+                                          @NotNull @Valid final CreateOrderItemDto createOrderItemDto) {
+        LOGGER.debug("Create order item for order with ID {}", orderId);
+        return orderService.getOrder(orderId)
+                .flatMap(orderDto -> {
+                    if (orderDto.hasItemWithProductId(createOrderItemDto.getProductId())) {
+                        return Mono.error(new OrderItemAlreadyExistsException(orderId, createOrderItemDto.getProductId()));
+                    }
+                    final var createReservationDto = CreateReservationDto.builder()
+                            .orderId(orderId)
+                            .productId(createOrderItemDto.getProductId())
+                            .quantity(createOrderItemDto.getQuantity())
+                            .build();
+                    return reservationConsumer.create(createReservationDto);
+                })
+                .flatMap(reservationDto -> {
+                    createOrderItemDto.setReservationId(reservationDto.getReservationId());
+                    createOrderItemDto.setStatus(OrderItemStatus.valueOf(reservationDto.getStatus().name()));
+                    return orderService.createOrderItem(orderId, createOrderItemDto);
+                });
+    }
+
+    public Mono<OrderDto> updateOrderItem(@NotNull final UUID itemId,
+                                          @NotNull @Valid final UpdateOrderItemDto updateOrderItemDto) {
+        LOGGER.debug("Update order item for ID {}", itemId);
+        final var updateReservationDto = conversionService.convert(updateOrderItemDto, UpdateReservationDto.class);
+        Assert.notNull(updateReservationDto, "Failed to convert UpdateOrderItemDto to UpdateReservationDto");
+        return orderService.getOrderItem(itemId)
+                .flatMap(orderItemDto -> reservationConsumer.update(orderItemDto.getReservationId(), updateReservationDto))
+                .flatMap(reservationDto -> orderService.updateOrderItem(itemId, convert(reservationDto)))
+                .flatMap(orderDto -> {
+                    if (orderDto.areAllItemsConfirmed()) {
+                        return orderService.updateOrder(orderDto.getOrderId());
+                    } else {
+                        return Mono.just(orderDto);
+                    }
+                });
+    }
+
+    public Mono<OrderDto> deleteOrderItem(@NotNull final UUID itemId) {
+        LOGGER.debug("Delete order item for ID {}", itemId);
+        return orderService.getOrderItem(itemId)
+                .flatMap(orderItemDto -> reservationConsumer.delete(orderItemDto.getReservationId()))
+                .doOnNext(reservationDto -> LOGGER.debug("Deleted order item for item-id {}", itemId))
+                .flatMap(reservationDto -> orderService.updateOrderItem(itemId, convert(reservationDto)));
+    }
+
+    private UpdateOrderItemDto convert(final ReservationDto reservationDto) {
+        final var updateOrderItemDto = conversionService.convert(reservationDto, UpdateOrderItemDto.class);
+        Assert.notNull(updateOrderItemDto, "Failed to convert ReservationDto to UpdateOrderItemDto");
+        return updateOrderItemDto;
+    }
+}
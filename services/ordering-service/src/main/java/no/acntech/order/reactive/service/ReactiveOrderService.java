@@ -0,0 +1,301 @@
+package no.acntech.order.reactive.service;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import no.acntech.order.exception.NotAllOrderItemsHaveStatusException;
+import no.acntech.order.exception.OrderItemNotFoundException;
+import no.acntech.order.exception.OrderNotFoundException;
+import no.acntech.order.model.CreateOrderDto;
+import no.acntech.order.model.CreateOrderItemDto;
+import no.acntech.order.model.OrderCursor;
+import no.acntech.order.model.OrderDto;
+import no.acntech.order.model.OrderItemDto;
+import no.acntech.order.model.OrderItemStatus;
+import no.acntech.order.model.OrderPageDto;
+import no.acntech.order.model.OrderQuery;
+import no.acntech.order.model.OrderSummaryDto;
+import no.acntech.order.model.UpdateOrderItemDto;
+import no.acntech.order.reactive.model.OrderItemRow;
+import no.acntech.order.reactive.model.OrderRow;
+import no.acntech.order.reactive.model.OrderSummaryRow;
+import no.acntech.order.reactive.repository.ReactiveOrderItemRepository;
+import no.acntech.order.reactive.repository.ReactiveOrderRepository;
+import no.acntech.order.reactive.repository.ReactiveOrderSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking variant of {@link no.acntech.order.service.OrderService} on R2DBC, used with the {@code reactive}
+ * profile. Items are not mapped by R2DBC, so they are read with one extra query per order or per batch of orders. Order
+ * summaries are kept up to date by every write, the same way as on the servlet stack.
+ */
+@SuppressWarnings("Duplicates")
+@Profile("reactive")
+@Validated
+@Service
+public class ReactiveOrderService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveOrderService.class);
+    private static final Sort SORT_BY_ID = Sort.by("id");
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int STREAM_BATCH_SIZE = 100;
+    private final ConversionService conversionService;
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveOrderItemRepository itemRepository;
+    private final ReactiveOrderSummaryRepository summaryRepository;
+
+    public ReactiveOrderService(final ConversionService conversionService,
+                                final ReactiveOrderRepository orderRepository,
+                                final ReactiveOrderItemRepository orderItemRepository,
+                                final ReactiveOrderSummaryRepository orderSummaryRepository) {
+        this.conversionService = conversionService;
+        this.orderRepository = orderRepository;
+        this.itemRepository = orderItemRepository;
+        this.summaryRepository = orderSummaryRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<OrderDto> getOrder(@NotNull final UUID orderId) {
+        return findOrder(orderId)
+                .map(this::convert);
+    }
+
+    /**
+     * Finds one page of orders ordered by ID, the same way as
+     * {@link no.acntech.order.service.OrderService#findOrders(OrderQuery)}, from the order summaries.
+     */
+    @Transactional(readOnly = true)
+    public Mono<OrderPageDto> findOrders(@NotNull @Valid final OrderQuery orderQuery) {
+        final var after = OrderCursor.decode(orderQuery.getAfter());
+        final var limit = orderQuery.getLimit() == null ? DEFAULT_LIMIT : orderQuery.getLimit();
+        // Read one more than asked for to know if there is a next page
+        return findOrders(orderQuery, after, Limit.of(limit + 1))
+                .collectList()
+                .map(summaryRows -> {
+                    final var pageRows = summaryRows.size() > limit ? summaryRows.subList(0, limit) : summaryRows;
+                    final var nextCursor = summaryRows.size() > limit ? OrderCursor.encode(pageRows.get(limit - 1).getId()) : null;
+                    return OrderPageDto.builder()
+                            .items(pageRows.stream()
+                                    .map(this::convert)
+                                    .collect(Collectors.toList()))
+                            .nextCursor(nextCursor)
+                            .build();
+                });
+    }
+
+    /**
+     * Emits every order matching the query, starting after the cursor, as the subscriber requests them. Items are
+     * read for batches of orders. This is deliberately not one transaction, as an R2DBC connection cannot run the
+     * item queries while it is still streaming the orders.
+     */
+    public Flux<OrderDto> streamOrders(@NotNull @Valid final OrderQuery orderQuery) {
+        final var after = OrderCursor.decode(orderQuery.getAfter());
+        return streamOrders(orderQuery, after)
+                .buffer(STREAM_BATCH_SIZE)
+                .concatMap(this::withItems)
+                .flatMapIterable(Function.identity())
+                .map(this::convert);
+    }
+
+    @Transactional
+    public Mono<OrderDto> createOrder(@NotNull @Valid final CreateOrderDto createOrder) {
+        final var orderRow = conversionService.convert(createOrder, OrderRow.class);
+        Assert.notNull(orderRow, "Failed to convert CreateOrderDto to OrderRow");
+        return orderRepository.save(orderRow)
+                .flatMap(createdOrderRow -> summaryRepository.save(OrderSummaryRow.builder()
+                                .order(createdOrderRow)
+                                .build())
+                        .thenReturn(createdOrderRow))
+                .doOnNext(createdOrderRow -> LOGGER.debug("Created order with order-id {}", createdOrderRow.getOrderId()))
+                .map(this::convert);
+    }
+
+    @Transactional
+    public Mono<OrderDto> updateOrder(@NotNull final UUID orderId) {
+        return findAndLockOrder(orderId)
+                .flatMap(orderRow -> {
+                    if (orderRow.areAllItemsReserved()) {
+                        orderRow.getItems().forEach(OrderItemRow::statusConfirmed);
+                        orderRow.statusConfirmed();
+                        return save(orderRow);
+                    } else {
+                        return Mono.error(new NotAllOrderItemsHaveStatusException(orderId, OrderItemStatus.RESERVED));
+                    }
+                })
+                .doOnNext(updatedOrderRow -> LOGGER.debug("Updated order with order-id {}", orderId))
+                .map(this::convert);
+    }
+
+    @Transactional
+    public Mono<OrderDto> deleteOrder(@NotNull final UUID orderId) {
+        return findAndLockOrder(orderId)
+                .flatMap(orderRow -> {
+                    orderRow.statusCanceled();
+                    orderRow.getItems().forEach(OrderItemRow::statusCanceled);
+                    return save(orderRow);
+                })
+                .doOnNext(deletedOrderRow -> LOGGER.debug("Deleted order with order-id {}", orderId))
+                .map(this::convert);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<OrderItemDto> getOrderItem(@NotNull final UUID itemId) {
+        return findOrderItem(itemId)
+                .flatMap(orderItemRow -> orderRepository.findById(orderItemRow.getParentId())
+                        .doOnNext(orderRow -> orderRow.addItem(orderItemRow))
+                        .thenReturn(orderItemRow))
+                .map(this::convert);
+    }
+
+    @Transactional
+    public Mono<OrderDto> createOrderItem(@NotNull final UUID orderId,
+                                          @NotNull @Valid final CreateOrderItemDto createOrderItemDto) {
+        final var orderItemRow = conversionService.convert(createOrderItemDto, OrderItemRow.class);
+        Assert.notNull(orderItemRow, "Failed to convert CreateOrderItemDto to OrderItemRow");
+        return findAndLockOrder(orderId)
+                .flatMap(orderRow -> {
+                    orderRow.addItem(orderItemRow);
+                    return itemRepository.save(orderItemRow)
+                            .then(summarize(orderRow));
+                })
+                .doOnNext(orderRow -> LOGGER.debug("Created order item with product-id {} for order-id {}", createOrderItemDto.getProductId(), orderId))
+                .map(this::convert);
+    }
+
+    @Transactional
+    public Mono<OrderDto> updateOrderItem(@NotNull final UUID itemId,
+                                          @NotNull @Valid final UpdateOrderItemDto updateOrderItemDto) {
+        return itemRepository.findParentIdByItemId(itemId)
+                .switchIfEmpty(Mono.error(() -> new OrderItemNotFoundException(itemId)))
+                .flatMap(orderRepository::findForUpdateById)
+                .flatMap(orderRow -> findOrderItem(itemId)
+                        .flatMap(orderItemRow -> {
+                            orderItemRow.setQuantity(updateOrderItemDto.getQuantity());
+                            orderItemRow.setStatus(updateOrderItemDto.getStatus());
+                            LOGGER.debug("Updating order item status to {} for order-item-id {}", updateOrderItemDto.getStatus(), itemId);
+                            return itemRepository.save(orderItemRow);
+                        })
+                        .then(Mono.defer(() -> withItems(orderRow))))
+                .flatMap(this::summarize)
+                .map(this::convert);
+    }
+
+    private Mono<OrderRow> findOrder(final UUID orderId) {
+        return orderRepository.findByOrderId(orderId)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(orderId)))
+                .flatMap(this::withItems);
+    }
+
+    /**
+     * Finds an order for a change to it or its items, and locks it until the transaction ends, like
+     * {@link no.acntech.order.service.OrderService} does. Changes to one order thereby follow each other, and each
+     * summarizes the items as the change before left them. Items are read once the lock is held.
+     */
+    private Mono<OrderRow> findAndLockOrder(final UUID orderId) {
+        return orderRepository.findForUpdateByOrderId(orderId)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(orderId)))
+                .flatMap(this::withItems);
+    }
+
+    private Mono<OrderItemRow> findOrderItem(final UUID itemId) {
+        return itemRepository.findByItemId(itemId)
+                .switchIfEmpty(Mono.error(() -> new OrderItemNotFoundException(itemId)));
+    }
+
+    private Mono<OrderRow> withItems(final OrderRow orderRow) {
+        return withItems(List.of(orderRow))
+                .thenReturn(orderRow);
+    }
+
+    /**
+     * Attaches the items of all the given orders, read with a single query.
+     */
+    private Mono<List<OrderRow>> withItems(final List<OrderRow> orderRows) {
+        if (orderRows.isEmpty()) {
+            return Mono.just(orderRows);
+        }
+        final var orderRowsById = orderRows.stream()
+                .collect(Collectors.toMap(OrderRow::getId, Function.identity()));
+        return itemRepository.findAllByParentIdIn(orderRowsById.keySet(), SORT_BY_ID)
+                .doOnNext(orderItemRow -> orderRowsById.get(orderItemRow.getParentId()).addItem(orderItemRow))
+                .then(Mono.just(orderRows));
+    }
+
+    private Mono<OrderRow> save(final OrderRow orderRow) {
+        return itemRepository.saveAll(orderRow.getItems())
+                .then(orderRepository.save(orderRow))
+                .flatMap(this::summarize);
+    }
+
+    /**
+     * Updates the summary of the order after a change to the order or its items, within the same transaction and under
+     * the lock on the order. The order must have its items attached. A missing summary is created, like {@link no.acntech.order.service.OrderService}
+     * does.
+     */
+    private Mono<OrderRow> summarize(final OrderRow orderRow) {
+        return summaryRepository.findById(orderRow.getId())
+                .doOnNext(summaryRow -> summaryRow.summarize(orderRow))
+                .switchIfEmpty(Mono.fromSupplier(() -> OrderSummaryRow.builder()
+                        .order(orderRow)
+                        .build()))
+                .flatMap(summaryRepository::save)
+                .thenReturn(orderRow);
+    }
+
+    private Flux<OrderSummaryRow> findOrders(final OrderQuery orderQuery, final Long after, final Limit limit) {
+        if (orderQuery.getCustomerId() != null && orderQuery.getStatus() != null) {
+            return summaryRepository.findAllByCustomerIdAndStatusAndIdGreaterThan(orderQuery.getCustomerId(), orderQuery.getStatus(), after, limit, SORT_BY_ID);
+        } else if (orderQuery.getCustomerId() != null) {
+            return summaryRepository.findAllByCustomerIdAndIdGreaterThan(orderQuery.getCustomerId(), after, limit, SORT_BY_ID);
+        } else if (orderQuery.getStatus() != null) {
+            return summaryRepository.findAllByStatusAndIdGreaterThan(orderQuery.getStatus(), after, limit, SORT_BY_ID);
+        } else {
+            return summaryRepository.findAllByIdGreaterThan(after, limit, SORT_BY_ID);
+        }
+    }
+
+    private Flux<OrderRow> streamOrders(final OrderQuery orderQuery, final Long after) {
+        if (orderQuery.getCustomerId() != null && orderQuery.getStatus() != null) {
+            return orderRepository.streamAllByCustomerIdAndStatusAndIdGreaterThan(orderQuery.getCustomerId(), orderQuery.getStatus(), after, SORT_BY_ID);
+        } else if (orderQuery.getCustomerId() != null) {
+            return orderRepository.streamAllByCustomerIdAndIdGreaterThan(orderQuery.getCustomerId(), after, SORT_BY_ID);
+        } else if (orderQuery.getStatus() != null) {
+            return orderRepository.streamAllByStatusAndIdGreaterThan(orderQuery.getStatus(), after, SORT_BY_ID);
+        } else {
+            return orderRepository.streamAllByIdGreaterThan(after, SORT_BY_ID);
+        }
+    }
+
+    private OrderDto convert(final OrderRow order) {
+        final var orderDto = conversionService.convert(order, OrderDto.class);
+        Assert.notNull(orderDto, "Failed to convert OrderRow to OrderDto");
+        return orderDto;
+    }
+
+    private OrderSummaryDto convert(final OrderSummaryRow orderSummary) {
+        final var orderSummaryDto = conversionService.convert(orderSummary, OrderSummaryDto.class);
+        Assert.notNull(orderSummaryDto, "Failed to convert OrderSummaryRow to OrderSummaryDto");
+        return orderSummaryDto;
+    }
+
+    private OrderItemDto convert(final OrderItemRow orderItem) {
+        final var orderItemDto = conversionService.convert(orderItem, OrderItemDto.class);
+        Assert.notNull(orderItemDto, "Failed to convert OrderItemRow to OrderItemDto");
+        return orderItemDto;
+    }
+}
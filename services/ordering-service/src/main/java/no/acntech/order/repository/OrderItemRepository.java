@@ -1,9 +1,15 @@
 package no.acntech.order.repository;
 
 import no.acntech.order.model.OrderItemEntity;
+import no.acntech.order.model.OrderItemStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +19,13 @@ public interface OrderItemRepository extends JpaRepository<OrderItemEntity, Long
     Optional<OrderItemEntity> findByItemId(UUID itemId);
 
     Optional<OrderItemEntity> findByReservationId(UUID reservationId);
+
+    @Query("SELECT i.parent.id FROM OrderItemEntity i WHERE i.itemId = :itemId")
+    Optional<Long> findParentIdByItemId(@Param("itemId") UUID itemId);
+
+    @EntityGraph(attributePaths = "parent")
+    List<OrderItemEntity> findAllByItemIdIn(Collection<UUID> itemIds);
+
+    @Query("SELECT DISTINCT i.parent.orderId FROM OrderItemEntity i WHERE i.status IN :statuses AND i.reservationId IS NOT NULL")
+    List<UUID> findReservedOrderIdsByStatusIn(@Param("statuses") Collection<OrderItemStatus> statuses);
 }
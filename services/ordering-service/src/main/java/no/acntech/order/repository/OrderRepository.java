@@ -1,23 +1,64 @@
 package no.acntech.order.repository;
 
+import jakarta.persistence.QueryHint;
+import no.acntech.common.model.EntityVersion;
 import no.acntech.order.model.OrderEntity;
 import no.acntech.order.model.OrderStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
 
+    String STREAM_FETCH_SIZE = "500";
+
+    @EntityGraph(attributePaths = "items")
     Optional<OrderEntity> findByOrderId(UUID orderId);
 
-    List<OrderEntity> findAllByCustomerId(UUID customerId, Sort sort);
+    /**
+     * Reads an order and locks it until the transaction ends. Its items are left to be read once the lock is held. A
+     * plain {@code FOR UPDATE} is written out, as it is understood by both H2 and PostgreSQL.
+     */
+    @Query(value = "SELECT * FROM ORDERS WHERE ORDER_ID = :orderId FOR UPDATE", nativeQuery = true)
+    Optional<OrderEntity> findForUpdateByOrderId(@Param("orderId") UUID orderId);
+
+    @Query(value = "SELECT * FROM ORDERS WHERE ID = :id FOR UPDATE", nativeQuery = true)
+    Optional<OrderEntity> findForUpdateById(@Param("id") Long id);
+
+    /**
+     * Reads the version of an order and its items, without loading either.
+     */
+    @Query("""
+            SELECT new no.acntech.common.model.EntityVersion(coalesce(o.modified, o.created), max(coalesce(i.modified, i.created)), count(i))
+            FROM OrderEntity o LEFT JOIN o.items i
+            WHERE o.orderId = :orderId
+            GROUP BY o.id, o.modified, o.created
+            """)
+    Optional<EntityVersion> findVersionByOrderId(UUID orderId);
+
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<OrderEntity> streamAllByIdGreaterThan(Long id, Sort sort);
+
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<OrderEntity> streamAllByCustomerIdAndIdGreaterThan(UUID customerId, Long id, Sort sort);
 
-    List<OrderEntity> findAllByCustomerIdAndStatus(UUID customerId, OrderStatus status, Sort sort);
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<OrderEntity> streamAllByCustomerIdAndStatusAndIdGreaterThan(UUID customerId, OrderStatus status, Long id, Sort sort);
 
-    List<OrderEntity> findAllByStatus(OrderStatus status, Sort sort);
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<OrderEntity> streamAllByStatusAndIdGreaterThan(OrderStatus status, Long id, Sort sort);
 }
@@ -0,0 +1,23 @@
+package no.acntech.order.repository;
+
+import no.acntech.order.model.OrderStatus;
+import no.acntech.order.model.OrderSummaryEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummaryEntity, Long> {
+
+    List<OrderSummaryEntity> findAllByIdGreaterThan(Long id, Limit limit, Sort sort);
+
+    List<OrderSummaryEntity> findAllByCustomerIdAndIdGreaterThan(UUID customerId, Long id, Limit limit, Sort sort);
+
+    List<OrderSummaryEntity> findAllByCustomerIdAndStatusAndIdGreaterThan(UUID customerId, OrderStatus status, Long id, Limit limit, Sort sort);
+
+    List<OrderSummaryEntity> findAllByStatusAndIdGreaterThan(OrderStatus status, Long id, Limit limit, Sort sort);
+}
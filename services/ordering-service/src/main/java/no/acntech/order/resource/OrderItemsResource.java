@@ -4,6 +4,7 @@ import no.acntech.order.model.OrderDto;
 import no.acntech.order.model.OrderItemDto;
 import no.acntech.order.model.UpdateOrderItemDto;
 import no.acntech.order.service.OrderOrchestrationService;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.UUID;
 
+@Profile("!reactive")
 @RequestMapping(path = "/api/items")
 @RestController
 public class OrderItemsResource {
@@ -35,12 +37,12 @@ public class OrderItemsResource {
     public ResponseEntity<OrderDto> put(@PathVariable("id") final UUID itemId,
                                         @RequestBody final UpdateOrderItemDto updateOrderItemDto) {
         final var orderDto = orderOrchestrationService.updateOrderItem(itemId, updateOrderItemDto);
-        return ResponseEntity.ok(orderDto);
+        return ResponseEntity.accepted().body(orderDto);
     }
 
     @DeleteMapping(path = "{id}")
     public ResponseEntity<OrderDto> delete(@PathVariable("id") final UUID itemId) {
         final var orderDto = orderOrchestrationService.deleteOrderItem(itemId);
-        return ResponseEntity.ok(orderDto);
+        return ResponseEntity.accepted().body(orderDto);
     }
 }
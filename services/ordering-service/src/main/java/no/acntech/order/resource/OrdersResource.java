@@ -1,10 +1,16 @@
 package no.acntech.order.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import no.acntech.order.model.CreateOrderDto;
 import no.acntech.order.model.CreateOrderItemDto;
 import no.acntech.order.model.OrderDto;
+import no.acntech.order.model.OrderPageDto;
 import no.acntech.order.model.OrderQuery;
 import no.acntech.order.service.OrderOrchestrationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,30 +20,72 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.UUID;
 
 @SuppressWarnings("Duplicates")
+@Profile("!reactive")
 @RequestMapping(path = "/api/orders")
 @RestController
 public class OrdersResource {
 
     private final OrderOrchestrationService orderOrchestrationService;
+    private final ObjectMapper objectMapper;
+    private final Duration streamTimeout;
 
-    public OrdersResource(final OrderOrchestrationService orderOrchestrationService) {
+    public OrdersResource(final OrderOrchestrationService orderOrchestrationService,
+                          final ObjectMapper objectMapper,
+                          @Value("${app.order.stream.timeout:PT30M}") final Duration streamTimeout) {
         this.orderOrchestrationService = orderOrchestrationService;
+        this.objectMapper = objectMapper;
+        this.streamTimeout = streamTimeout;
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderDto>> find(final OrderQuery orderQuery) {
-        final var orderDtos = orderOrchestrationService.findOrders(orderQuery);
-        return ResponseEntity.ok(orderDtos);
+    public ResponseEntity<OrderPageDto> find(final OrderQuery orderQuery) {
+        final var orderPageDto = orderOrchestrationService.findOrders(orderQuery);
+        return ResponseEntity.ok(orderPageDto);
     }
 
+    /**
+     * Writes every matching order as one line of JSON. An export can run for a long time, so it gets a timeout of its
+     * own instead of a long async timeout for all requests.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> stream(final OrderQuery orderQuery,
+                                     final HttpServletResponse response) {
+        return new WebAsyncTask<>(streamTimeout.toMillis(), () -> {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            final var outputStream = response.getOutputStream();
+            orderOrchestrationService.streamOrders(orderQuery, orderDto -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(orderDto));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+            return null;
+        });
+    }
+
+    /**
+     * Answers {@code 304 Not Modified} from the order version alone when the client already has the current order.
+     */
     @GetMapping(path = "{id}")
-    public ResponseEntity<OrderDto> get(@PathVariable("id") final UUID orderId) {
+    public ResponseEntity<OrderDto> get(@PathVariable("id") final UUID orderId,
+                                        final WebRequest webRequest) {
+        final var entityVersion = orderOrchestrationService.getOrderVersion(orderId);
+        if (webRequest.checkNotModified(entityVersion.getETag(), entityVersion.getLastModifiedMillis())) {
+            return null;
+        }
         final var orderDto = orderOrchestrationService.getOrder(orderId);
         return ResponseEntity.ok(orderDto);
     }
@@ -71,6 +119,16 @@ public class OrdersResource {
     public ResponseEntity<OrderDto> postItem(@PathVariable("id") final UUID orderId,
                                              @RequestBody final CreateOrderItemDto createItem) {
         final var orderDto = orderOrchestrationService.createOrderItem(orderId, createItem);
-        return ResponseEntity.ok(orderDto);
+        final var location = orderDto.findItemWithProductId(createItem.getProductId())
+                .map(orderItemDto -> ServletUriComponentsBuilder
+                        .fromCurrentContextPath()
+                        .path("/api/items/{id}")
+                        .buildAndExpand(orderItemDto.getItemId())
+                        .toUri())
+                .orElseThrow();
+        return ResponseEntity
+                .accepted()
+                .location(location)
+                .body(orderDto);
     }
 }
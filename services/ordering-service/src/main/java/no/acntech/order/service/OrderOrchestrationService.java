@@ -2,43 +2,51 @@ package no.acntech.order.service;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import no.acntech.common.model.EntityVersion;
 import no.acntech.order.exception.OrderItemAlreadyExistsException;
 import no.acntech.order.model.CreateOrderDto;
 import no.acntech.order.model.CreateOrderItemDto;
 import no.acntech.order.model.OrderDto;
 import no.acntech.order.model.OrderItemDto;
 import no.acntech.order.model.OrderItemStatus;
+import no.acntech.order.model.OrderPageDto;
 import no.acntech.order.model.OrderQuery;
 import no.acntech.order.model.UpdateOrderItemDto;
-import no.acntech.reservation.consumer.ReservationRestConsumer;
 import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationDto;
 import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.service.ReservationOutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+@Profile("!reactive")
 @Validated
 @Service
 public class OrderOrchestrationService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderOrchestrationService.class);
+    private static final Set<OrderItemStatus> INACTIVE_ITEM_STATUSES = EnumSet.of(OrderItemStatus.DELETED, OrderItemStatus.FAILED);
     private final ConversionService conversionService;
     private final OrderService orderService;
-    private final ReservationRestConsumer reservationRestConsumer;
+    private final ReservationOutboxService reservationOutboxService;
 
     public OrderOrchestrationService(final ConversionService conversionService,
                                      final OrderService orderService,
-                                     final ReservationRestConsumer reservationRestConsumer) {
+                                     final ReservationOutboxService reservationOutboxService) {
         this.conversionService = conversionService;
         this.orderService = orderService;
-        this.reservationRestConsumer = reservationRestConsumer;
+        this.reservationOutboxService = reservationOutboxService;
     }
 
     public OrderDto getOrder(@NotNull final UUID orderId) {
@@ -46,39 +54,61 @@ public class OrderOrchestrationService {
         return orderService.getOrder(orderId);
     }
 
-    public List<OrderDto> findOrders(@NotNull @Valid final OrderQuery orderQuery) {
+    public EntityVersion getOrderVersion(@NotNull final UUID orderId) {
+        return orderService.getOrderVersion(orderId);
+    }
+
+    public OrderPageDto findOrders(@NotNull @Valid final OrderQuery orderQuery) {
         LOGGER.debug("Finding orders");
         return orderService.findOrders(orderQuery);
     }
 
+    public void streamOrders(@NotNull @Valid final OrderQuery orderQuery,
+                             @NotNull final Consumer<OrderDto> consumer) {
+        LOGGER.debug("Streaming orders");
+        orderService.streamOrders(orderQuery, consumer);
+    }
+
     @Transactional
     public OrderDto createOrder(@Valid final CreateOrderDto createOrder) {
         LOGGER.debug("Create order");
         return orderService.createOrder(createOrder);
     }
 
+    /**
+     * Closes the order, and queues the confirmation of its reservations.
+     */
     @Transactional
     public OrderDto updateOrder(@NotNull final UUID orderId) {
         LOGGER.debug("Update order for ID {}", orderId);
         final var orderDto = orderService.updateOrder(orderId);
+        final var updateReservationDto = UpdateReservationDto.builder()
+                .statusConfirmed()
+                .build();
         orderDto.getItems()
-                .forEach(item -> {
-                    final var updateReservationDto = UpdateReservationDto.builder()
-                            .statusConfirmed()
-                            .build();
-                    LOGGER.debug("Updating reservation status to {} for reservation-id {}", updateReservationDto.getStatus().name(), item.getReservationId());
-                    reservationRestConsumer.update(item.getReservationId(), updateReservationDto);
+                .stream()
+                .filter(orderItemDto -> orderItemDto.getReservationId() != null)
+                .forEach(orderItemDto -> {
+                    LOGGER.debug("Queueing reservation status update to {} for item-id {}", updateReservationDto.getStatus().name(), orderItemDto.getItemId());
+                    reservationOutboxService.updateReservation(orderItemDto.getItemId(), updateReservationDto);
                 });
         return orderDto;
     }
 
+    /**
+     * Cancels the order, and queues the deletion of the reservations of the items that were still active.
+     */
     @Transactional
     public OrderDto deleteOrder(@NotNull final UUID orderId) {
         LOGGER.debug("Delete order for ID {}", orderId);
+        final var activeItemIds = orderService.getOrder(orderId)
+                .getItems()
+                .stream()
+                .filter(orderItemDto -> !INACTIVE_ITEM_STATUSES.contains(orderItemDto.getStatus()))
+                .map(OrderItemDto::getItemId)
+                .toList();
         final var orderDto = orderService.deleteOrder(orderId);
-        orderDto.getItems().stream()
-                .map(OrderItemDto::getReservationId)
-                .forEach(reservationRestConsumer::delete);
+        activeItemIds.forEach(reservationOutboxService::deleteReservation);
         return orderDto;
     }
 
@@ -87,6 +117,10 @@ public class OrderOrchestrationService {
         return orderService.getOrderItem(itemId);
     }
 
+    /**
+     * Adds a pending item to the order, and queues the reservation for it. The item is updated once warehouse-service
+     * has replied.
+     */
     @Transactional
     public OrderDto createOrderItem(@NotNull final UUID orderId,
                                     @NotNull @Valid final CreateOrderItemDto createOrderItemDto) {
@@ -95,43 +129,66 @@ public class OrderOrchestrationService {
         if (orderDto.hasItemWithProductId(createOrderItemDto.getProductId())) {
             throw new OrderItemAlreadyExistsException(orderId, createOrderItemDto.getProductId());
         }
+        createOrderItemDto.setStatus(OrderItemStatus.PENDING);
+        final var createdOrderDto = orderService.createOrderItem(orderId, createOrderItemDto);
+        final var orderItemDto = createdOrderDto.findItemWithProductId(createOrderItemDto.getProductId())
+                .orElseThrow(() -> new IllegalStateException("Created order item not found"));
         final var createReservationDto = CreateReservationDto.builder()
                 .orderId(orderId)
                 .productId(createOrderItemDto.getProductId())
                 .quantity(createOrderItemDto.getQuantity())
                 .build();
-        final var reservationDto = reservationRestConsumer.create(createReservationDto);
-        createOrderItemDto.setReservationId(reservationDto.getReservationId());
-        createOrderItemDto.setStatus(OrderItemStatus.valueOf(reservationDto.getStatus().name()));
-        return orderService.createOrderItem(orderId, createOrderItemDto);
+        reservationOutboxService.createReservation(orderItemDto.getItemId(), createReservationDto);
+        return createdOrderDto;
     }
 
+    /**
+     * Marks the item as pending, and queues the matching update of its reservation. The item gets the quantity and
+     * status of the reservation once warehouse-service has replied.
+     */
     @Transactional
     public OrderDto updateOrderItem(@NotNull final UUID itemId,
                                     @NotNull @Valid final UpdateOrderItemDto updateOrderItemDto) {
         LOGGER.debug("Update order item for ID {}", itemId);
-        final var orderItemDto = orderService.getOrderItem(itemId);
         final var updateReservationDto = conversionService.convert(updateOrderItemDto, UpdateReservationDto.class);
         Assert.notNull(updateReservationDto, "Failed to convert UpdateOrderItemDto to UpdateReservationDto");
-        final var reservationDto = reservationRestConsumer.update(orderItemDto.getReservationId(), updateReservationDto);
-        final var reservedUpdateOrderItemDto = conversionService.convert(reservationDto, UpdateOrderItemDto.class);
-        Assert.notNull(reservedUpdateOrderItemDto, "Failed to convert ReservationDto to UpdateOrderItemDto");
-        final var orderDto = orderService.updateOrderItem(itemId, reservedUpdateOrderItemDto);
-        if (orderDto.areAllItemsConfirmed()) {
-            return orderService.updateOrder(orderDto.getOrderId());
-        } else {
-            return orderDto;
-        }
+        final var orderDto = markOrderItemPending(itemId);
+        reservationOutboxService.updateReservation(itemId, updateReservationDto);
+        return orderDto;
     }
 
+    /**
+     * Marks the item as pending, and queues the deletion of its reservation. The item is deleted once
+     * warehouse-service has replied.
+     */
     @Transactional
     public OrderDto deleteOrderItem(@NotNull final UUID itemId) {
         LOGGER.debug("Delete order item for ID {}", itemId);
+        final var orderDto = markOrderItemPending(itemId);
+        reservationOutboxService.deleteReservation(itemId);
+        return orderDto;
+    }
+
+    /**
+     * Applies a reservation change streamed from warehouse-service to the item that holds the reservation. An item
+     * with reservation commands still in the outbox is left alone, as the replies to those will settle it.
+     */
+    @Transactional
+    public void applyReservationChange(@NotNull final ReservationDto reservationDto) {
+        orderService.findItemIdByReservationId(reservationDto.getReservationId())
+                .filter(itemId -> !reservationOutboxService.hasCommands(itemId))
+                .ifPresent(itemId -> {
+                    LOGGER.debug("Applying reservation change for item-id {}", itemId);
+                    orderService.reserveOrderItem(itemId, reservationDto);
+                });
+    }
+
+    private OrderDto markOrderItemPending(final UUID itemId) {
         final var orderItemDto = orderService.getOrderItem(itemId);
-        final var reservationDto = reservationRestConsumer.delete(orderItemDto.getReservationId());
-        LOGGER.debug("Deleted order item for item-id {}", itemId);
-        final var updateOrderItemDto = conversionService.convert(reservationDto, UpdateOrderItemDto.class);
-        Assert.notNull(updateOrderItemDto, "Failed to convert ReservationDto to UpdateOrderItemDto");
-        return orderService.updateOrderItem(itemId, updateOrderItemDto);
+        final var pendingOrderItemDto = UpdateOrderItemDto.builder()
+                .quantity(orderItemDto.getQuantity())
+                .status(OrderItemStatus.PENDING)
+                .build();
+        return orderService.updateOrderItem(itemId, pendingOrderItemDto);
     }
 }
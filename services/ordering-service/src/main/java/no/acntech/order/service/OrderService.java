@@ -1,80 +1,128 @@
 package no.acntech.order.service;
 
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import no.acntech.common.model.EntityVersion;
 import no.acntech.order.exception.NotAllOrderItemsHaveStatusException;
 import no.acntech.order.exception.OrderItemNotFoundException;
 import no.acntech.order.exception.OrderNotFoundException;
 import no.acntech.order.model.CreateOrderDto;
 import no.acntech.order.model.CreateOrderItemDto;
+import no.acntech.order.model.OrderCursor;
 import no.acntech.order.model.OrderDto;
 import no.acntech.order.model.OrderEntity;
 import no.acntech.order.model.OrderItemDto;
 import no.acntech.order.model.OrderItemEntity;
 import no.acntech.order.model.OrderItemStatus;
+import no.acntech.order.model.OrderPageDto;
 import no.acntech.order.model.OrderQuery;
+import no.acntech.order.model.OrderStatus;
+import no.acntech.order.model.OrderSummaryDto;
+import no.acntech.order.model.OrderSummaryEntity;
 import no.acntech.order.model.UpdateOrderItemDto;
 import no.acntech.order.repository.OrderItemRepository;
 import no.acntech.order.repository.OrderRepository;
+import no.acntech.order.repository.OrderSummaryRepository;
+import no.acntech.reservation.model.ReservationDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @SuppressWarnings("Duplicates")
+@Profile("!reactive")
 @Validated
 @Service
 public class OrderService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderService.class);
     private static final Sort SORT_BY_ID = Sort.by("id");
+    private static final int DEFAULT_LIMIT = 100;
     private final ConversionService conversionService;
     private final OrderRepository orderRepository;
     private final OrderItemRepository itemRepository;
+    private final OrderSummaryRepository summaryRepository;
+    private final EntityManager entityManager;
 
     public OrderService(final ConversionService conversionService,
                         final OrderRepository orderRepository,
-                        final OrderItemRepository orderItemRepository) {
+                        final OrderItemRepository orderItemRepository,
+                        final OrderSummaryRepository orderSummaryRepository,
+                        final EntityManager entityManager) {
         this.conversionService = conversionService;
         this.orderRepository = orderRepository;
         this.itemRepository = orderItemRepository;
+        this.summaryRepository = orderSummaryRepository;
+        this.entityManager = entityManager;
     }
 
+    @Transactional(readOnly = true)
     public OrderDto getOrder(@NotNull final UUID orderId) {
         return orderRepository.findByOrderId(orderId)
                 .map(this::convert)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
     }
 
-    public List<OrderDto> findOrders(@NotNull @Valid final OrderQuery orderQuery) {
-        if (orderQuery.getCustomerId() != null && orderQuery.getStatus() != null) {
-            return orderRepository.findAllByCustomerIdAndStatus(orderQuery.getCustomerId(), orderQuery.getStatus(), SORT_BY_ID)
-                    .stream()
-                    .map(this::convert)
-                    .collect(Collectors.toList());
-        } else if (orderQuery.getCustomerId() != null) {
-            return orderRepository.findAllByCustomerId(orderQuery.getCustomerId(), SORT_BY_ID)
-                    .stream()
-                    .map(this::convert)
-                    .collect(Collectors.toList());
-        } else if (orderQuery.getStatus() != null) {
-            return orderRepository.findAllByStatus(orderQuery.getStatus(), SORT_BY_ID)
-                    .stream()
-                    .map(this::convert)
-                    .collect(Collectors.toList());
-        } else {
-            return orderRepository.findAll(SORT_BY_ID)
-                    .stream()
-                    .map(this::convert)
-                    .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public EntityVersion getOrderVersion(@NotNull final UUID orderId) {
+        return orderRepository.findVersionByOrderId(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+    }
+
+    /**
+     * Finds one page of orders ordered by ID. The page starts after the order identified by the cursor in
+     * {@link OrderQuery#getAfter()}, and holds at most {@link OrderQuery#getLimit()} orders. The next cursor is only
+     * set when there are more orders to read. Orders are read from their summaries, so a page is one index range scan
+     * of a single table, without touching the orders or their items.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageDto findOrders(@NotNull @Valid final OrderQuery orderQuery) {
+        final var after = OrderCursor.decode(orderQuery.getAfter());
+        final var limit = orderQuery.getLimit() == null ? DEFAULT_LIMIT : orderQuery.getLimit();
+        // Read one more than asked for to know if there is a next page
+        final var summaryEntities = findOrders(orderQuery, after, Limit.of(limit + 1));
+        final var pageEntities = summaryEntities.size() > limit ? summaryEntities.subList(0, limit) : summaryEntities;
+        final var summaryDtos = pageEntities.stream()
+                .map(this::convert)
+                .collect(Collectors.toList());
+        final var nextCursor = summaryEntities.size() > limit ? OrderCursor.encode(pageEntities.get(limit - 1).getId()) : null;
+        return OrderPageDto.builder()
+                .items(summaryDtos)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Passes every order matching the query, starting after the cursor, to the consumer. Orders are read from a
+     * database cursor with a bounded fetch size and are detached once converted, so memory use does not grow with the
+     * number of orders. The consumer is called within the read transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamOrders(@NotNull @Valid final OrderQuery orderQuery,
+                             @NotNull final Consumer<OrderDto> consumer) {
+        final var after = OrderCursor.decode(orderQuery.getAfter());
+        try (final var orderEntities = streamOrders(orderQuery, after)) {
+            orderEntities.forEach(orderEntity -> {
+                final var orderDto = convert(orderEntity);
+                entityManager.detach(orderEntity);
+                consumer.accept(orderDto);
+            });
         }
     }
 
@@ -83,18 +131,21 @@ public class OrderService {
         final var orderEntity = conversionService.convert(createOrder, OrderEntity.class);
         Assert.notNull(orderEntity, "Failed to convert CreateOrderDto to OrderEntity");
         final var createdOrderEntity = orderRepository.save(orderEntity);
+        entityManager.persist(OrderSummaryEntity.builder()
+                .order(createdOrderEntity)
+                .build());
         LOGGER.debug("Created order with order-id {}", createdOrderEntity.getOrderId());
         return convert(createdOrderEntity);
     }
 
     @Transactional
     public OrderDto updateOrder(@NotNull final UUID orderId) {
-        final var orderEntity = orderRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        final var orderEntity = findAndLockOrder(orderId);
         if (orderEntity.areAllItemsReserved()) {
             orderEntity.getItems().forEach(OrderItemEntity::statusConfirmed);
             orderEntity.statusConfirmed();
             final var updatedOrderEntity = orderRepository.save(orderEntity);
+            summarize(updatedOrderEntity);
             LOGGER.debug("Updated order with order-id {}", orderId);
             return convert(updatedOrderEntity);
         } else {
@@ -104,15 +155,16 @@ public class OrderService {
 
     @Transactional
     public OrderDto deleteOrder(@NotNull final UUID orderId) {
-        final var orderEntity = orderRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        final var orderEntity = findAndLockOrder(orderId);
         orderEntity.statusCanceled();
         orderEntity.getItems().forEach(OrderItemEntity::statusCanceled);
         final var deletedOrderEntity = orderRepository.save(orderEntity);
+        summarize(deletedOrderEntity);
         LOGGER.debug("Deleted order with order-id {}", orderId);
         return convert(deletedOrderEntity);
     }
 
+    @Transactional(readOnly = true)
     public OrderItemDto getOrderItem(@NotNull final UUID itemId) {
         return itemRepository.findByItemId(itemId)
                 .map(this::convert)
@@ -122,13 +174,13 @@ public class OrderService {
     @Transactional
     public OrderDto createOrderItem(@NotNull final UUID orderId,
                                     @NotNull @Valid final CreateOrderItemDto createOrderItemDto) {
-        final var orderEntity = orderRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        final var orderEntity = findAndLockOrder(orderId);
 
         final var orderItemEntity = conversionService.convert(createOrderItemDto, OrderItemEntity.class);
         Assert.notNull(orderItemEntity, "Failed to convert CreateOrderItemDto to OrderItemEntity");
         orderEntity.addItem(orderItemEntity);
         final var updatedOrderEntity = orderRepository.save(orderEntity);
+        summarize(updatedOrderEntity);
 
         LOGGER.debug("Created order item with product-id {} for order-id {}", orderId, createOrderItemDto.getProductId());
         return convert(updatedOrderEntity);
@@ -137,22 +189,155 @@ public class OrderService {
     @Transactional
     public OrderDto updateOrderItem(@NotNull final UUID itemId,
                                     @NotNull @Valid final UpdateOrderItemDto updateOrderItemDto) {
-        final var orderItemEntity = itemRepository.findByItemId(itemId)
-                .orElseThrow(() -> new OrderItemNotFoundException(itemId));
+        final var orderItemEntity = findAndLockOrderItem(itemId);
 
-        final var orderId = orderItemEntity.getParent().getOrderId();
+        orderItemEntity.setQuantity(updateOrderItemDto.getQuantity());
+        orderItemEntity.setStatus(updateOrderItemDto.getStatus());
+
+        LOGGER.debug("Updating order item status to {} for order-item-id {}", updateOrderItemDto.getStatus(), itemId);
 
+        final var savedOrderItemEntity = itemRepository.save(orderItemEntity);
+        summarize(savedOrderItemEntity.getParent());
+
+        return convert(savedOrderItemEntity.getParent());
+    }
+
+    /**
+     * Applies a reservation received from warehouse-service to the order item it was made for. The order is closed
+     * once all its active items are confirmed.
+     */
+    @Transactional
+    public OrderDto reserveOrderItem(@NotNull final UUID itemId,
+                                     @NotNull final ReservationDto reservationDto) {
+        final var orderItemEntity = findAndLockOrderItem(itemId);
+        final var updateOrderItemDto = conversionService.convert(reservationDto, UpdateOrderItemDto.class);
+        Assert.notNull(updateOrderItemDto, "Failed to convert ReservationDto to UpdateOrderItemDto");
+
+        orderItemEntity.setReservationId(reservationDto.getReservationId());
         orderItemEntity.setQuantity(updateOrderItemDto.getQuantity());
         orderItemEntity.setStatus(updateOrderItemDto.getStatus());
+        final var orderEntity = orderItemEntity.getParent();
+        if (OrderStatus.OPEN.equals(orderEntity.getStatus()) && orderEntity.areAllItemsConfirmed()) {
+            orderEntity.statusConfirmed();
+        }
 
         LOGGER.debug("Updating order item status to {} for order-item-id {}", updateOrderItemDto.getStatus(), itemId);
 
-        itemRepository.save(orderItemEntity);
+        final var savedOrderItemEntity = itemRepository.save(orderItemEntity);
+        summarize(savedOrderItemEntity.getParent());
+
+        return convert(savedOrderItemEntity.getParent());
+    }
 
-        final var orderEntity = orderRepository.findByOrderId(orderId)
+    @Transactional
+    public OrderDto failOrderItem(@NotNull final UUID itemId) {
+        final var orderItemEntity = findAndLockOrderItem(itemId);
+
+        orderItemEntity.setStatus(OrderItemStatus.FAILED);
+
+        LOGGER.debug("Updating order item status to {} for order-item-id {}", OrderItemStatus.FAILED, itemId);
+
+        final var savedOrderItemEntity = itemRepository.save(orderItemEntity);
+        summarize(savedOrderItemEntity.getParent());
+
+        return convert(savedOrderItemEntity.getParent());
+    }
+
+    @Transactional
+    public OrderDto deleteOrderItem(@NotNull final UUID itemId) {
+        final var orderItemEntity = findAndLockOrderItem(itemId);
+
+        orderItemEntity.setStatus(OrderItemStatus.DELETED);
+
+        LOGGER.debug("Updating order item status to {} for order-item-id {}", OrderItemStatus.DELETED, itemId);
+
+        final var savedOrderItemEntity = itemRepository.save(orderItemEntity);
+        summarize(savedOrderItemEntity.getParent());
+
+        return convert(savedOrderItemEntity.getParent());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UUID> findItemIdByReservationId(@NotNull final UUID reservationId) {
+        return itemRepository.findByReservationId(reservationId)
+                .map(OrderItemEntity::getItemId);
+    }
+
+    /**
+     * Returns the reservation ID of each of the given order items that has one.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, UUID> getReservationIds(@NotNull final Collection<UUID> itemIds) {
+        return itemRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .filter(orderItemEntity -> orderItemEntity.getReservationId() != null)
+                .collect(Collectors.toMap(OrderItemEntity::getItemId, OrderItemEntity::getReservationId));
+    }
+
+    /**
+     * Returns the orders that have items with a reservation in one of the given statuses.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findOrderIdsWithReservedItems(@NotNull final Collection<OrderItemStatus> statuses) {
+        return itemRepository.findReservedOrderIdsByStatusIn(statuses);
+    }
+
+    /**
+     * Finds an order for a change to it or its items, and locks it until the transaction ends. Changes to one order
+     * thereby follow each other, and each summarizes the items as the change before left them.
+     */
+    private OrderEntity findAndLockOrder(final UUID orderId) {
+        return orderRepository.findForUpdateByOrderId(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
+    }
+
+    /**
+     * Finds an order item for a change, after locking its order like {@link #findAndLockOrder(UUID)} does. The item is
+     * read once the lock is held, so that it is not overwritten with what it was before a concurrent change.
+     */
+    private OrderItemEntity findAndLockOrderItem(final UUID itemId) {
+        final var orderId = itemRepository.findParentIdByItemId(itemId)
+                .orElseThrow(() -> new OrderItemNotFoundException(itemId));
+        orderRepository.findForUpdateById(orderId);
+        return itemRepository.findByItemId(itemId)
+                .orElseThrow(() -> new OrderItemNotFoundException(itemId));
+    }
 
-        return convert(orderEntity);
+    /**
+     * Updates the summary of the order after a change to the order or its items, within the same transaction and under
+     * the lock on the order. A missing summary is created.
+     */
+    private void summarize(final OrderEntity orderEntity) {
+        summaryRepository.findById(orderEntity.getId())
+                .ifPresentOrElse(
+                        summaryEntity -> summaryEntity.summarize(orderEntity),
+                        () -> entityManager.persist(OrderSummaryEntity.builder()
+                                .order(orderEntity)
+                                .build()));
+    }
+
+    private List<OrderSummaryEntity> findOrders(final OrderQuery orderQuery, final Long after, final Limit limit) {
+        if (orderQuery.getCustomerId() != null && orderQuery.getStatus() != null) {
+            return summaryRepository.findAllByCustomerIdAndStatusAndIdGreaterThan(orderQuery.getCustomerId(), orderQuery.getStatus(), after, limit, SORT_BY_ID);
+        } else if (orderQuery.getCustomerId() != null) {
+            return summaryRepository.findAllByCustomerIdAndIdGreaterThan(orderQuery.getCustomerId(), after, limit, SORT_BY_ID);
+        } else if (orderQuery.getStatus() != null) {
+            return summaryRepository.findAllByStatusAndIdGreaterThan(orderQuery.getStatus(), after, limit, SORT_BY_ID);
+        } else {
+            return summaryRepository.findAllByIdGreaterThan(after, limit, SORT_BY_ID);
+        }
+    }
+
+    private Stream<OrderEntity> streamOrders(final OrderQuery orderQuery, final Long after) {
+        if (orderQuery.getCustomerId() != null && orderQuery.getStatus() != null) {
+            return orderRepository.streamAllByCustomerIdAndStatusAndIdGreaterThan(orderQuery.getCustomerId(), orderQuery.getStatus(), after, SORT_BY_ID);
+        } else if (orderQuery.getCustomerId() != null) {
+            return orderRepository.streamAllByCustomerIdAndIdGreaterThan(orderQuery.getCustomerId(), after, SORT_BY_ID);
+        } else if (orderQuery.getStatus() != null) {
+            return orderRepository.streamAllByStatusAndIdGreaterThan(orderQuery.getStatus(), after, SORT_BY_ID);
+        } else {
+            return orderRepository.streamAllByIdGreaterThan(after, SORT_BY_ID);
+        }
     }
 
     private OrderDto convert(final OrderEntity order) {
@@ -161,6 +346,12 @@ public class OrderService {
         return orderDto;
     }
 
+    private OrderSummaryDto convert(final OrderSummaryEntity orderSummary) {
+        final var orderSummaryDto = conversionService.convert(orderSummary, OrderSummaryDto.class);
+        Assert.notNull(orderSummaryDto, "Failed to convert OrderSummaryEntity to OrderSummaryDto");
+        return orderSummaryDto;
+    }
+
     private OrderItemDto convert(final OrderItemEntity order) {
         final var orderDto = conversionService.convert(order, OrderItemDto.class);
         Assert.notNull(order, "Failed to convert OrderItemEntity to OrderItemDto");
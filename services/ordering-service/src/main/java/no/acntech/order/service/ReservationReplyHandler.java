@@ -0,0 +1,48 @@
+package no.acntech.order.service;
+
+import jakarta.validation.constraints.NotNull;
+import no.acntech.reservation.model.ReservationCommandType;
+import no.acntech.reservation.model.ReservationDto;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.UUID;
+
+/**
+ * Applies the outcome of a reservation command relayed from the outbox to the order item it was sent for. Every
+ * {@link no.acntech.reservation.transport.ReservationCommandTransport} reports back through this handler.
+ */
+@Profile("!reactive")
+@Validated
+@Component
+public class ReservationReplyHandler {
+
+    private final OrderService orderService;
+
+    public ReservationReplyHandler(final OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    public void onReservation(@NotNull final UUID itemId,
+                              @NotNull final ReservationDto reservationDto) {
+        orderService.reserveOrderItem(itemId, reservationDto);
+    }
+
+    public void onRejected(@NotNull final UUID itemId) {
+        orderService.failOrderItem(itemId);
+    }
+
+    /**
+     * Settles an update or deletion of an item that never got a reservation, because its create command was refused.
+     * A deleted item is deleted at once, and an updated item goes back to failed.
+     */
+    public void onUnreserved(@NotNull final UUID itemId,
+                             @NotNull final ReservationCommandType command) {
+        if (command == ReservationCommandType.DELETE) {
+            orderService.deleteOrderItem(itemId);
+        } else {
+            orderService.failOrderItem(itemId);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package no.acntech.reservation.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import no.acntech.reservation.model.ReservationDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The last known state of warehouse-service reservations, by reservation ID. Every reservation received from
+ * warehouse-service is put in the cache, and entries expire after a short time as warehouse-service may change a
+ * reservation on its own. Concurrent lookups of a reservation that is not cached share one remote call.
+ */
+@Component
+public class ReservationCache {
+
+    private final AsyncCache<UUID, ReservationDto> reservations;
+
+    public ReservationCache(@Value("${app.reservation.cache.maximum-size:10000}") final long maximumSize,
+                            @Value("${app.reservation.cache.expire-after-write:PT30S}") final Duration expireAfterWrite,
+                            final MeterRegistry meterRegistry) {
+        this.reservations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, reservations, "reservations");
+    }
+
+    /**
+     * Returns the cached reservation, or loads it if it is not cached. A subscriber that cancels does not cancel the
+     * load for the others that wait on it. Loads that fail or find nothing are not cached.
+     */
+    public Mono<ReservationDto> get(final UUID reservationId, final Function<UUID, Mono<ReservationDto>> loader) {
+        return Mono.fromFuture(() -> reservations.get(reservationId, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    public ReservationDto getIfPresent(final UUID reservationId) {
+        final var future = reservations.getIfPresent(reservationId);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    public void put(final ReservationDto reservationDto) {
+        reservations.synchronous().put(reservationDto.getReservationId(), reservationDto);
+    }
+
+    public void invalidate(final UUID reservationId) {
+        reservations.synchronous().invalidate(reservationId);
+    }
+}
@@ -0,0 +1,51 @@
+package no.acntech.reservation.consumer;
+
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.UpdateReservationDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Non-blocking client for the warehouse-service reservation API. Callers that need to talk to warehouse-service for
+ * several reservations at once should compose these publishers instead of blocking on each call in turn.
+ * <p>
+ * The API is reached over REST or gRPC, as set by {@code app.service.warehouse.protocol}. Failures are classified the
+ * same way for both by {@link ReservationResilience#isTransient(Throwable)} and
+ * {@link ReservationResilience#isRejected(Throwable)}.
+ */
+public interface ReservationConsumer {
+
+    Flux<ReservationDto> find();
+
+    Flux<ReservationDto> find(@NotNull UUID orderId);
+
+    /**
+     * Gets a reservation, or nothing if warehouse-service does not know it.
+     */
+    Mono<ReservationDto> get(@NotNull UUID reservationId);
+
+    Mono<ReservationDto> create(@Valid CreateReservationDto createReservationDto);
+
+    /**
+     * Creates all the reservations in one request. They are returned in the order they were given, and none are
+     * created if one of them is refused.
+     */
+    Flux<ReservationDto> create(@Valid List<CreateReservationDto> createReservationDtos);
+
+    Mono<ReservationDto> update(@NotNull UUID reservationId, @Valid UpdateReservationDto updateReservationDto);
+
+    Mono<ReservationDto> delete(@NotNull UUID reservationId);
+
+    /**
+     * Streams the reservations of an order, or all reservations if no order ID is given, as changes to them are
+     * committed by warehouse-service. The stream is not bound by the response timeout, and ends when it is cancelled
+     * or warehouse-service closes it.
+     */
+    Flux<ReservationDto> watch(UUID orderId);
+}
@@ -0,0 +1,280 @@
+package no.acntech.reservation.consumer;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import no.acntech.common.config.WarehouseClientProperties;
+import no.acntech.reservation.cache.ReservationCache;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.proto.CreateReservationRequest;
+import no.acntech.reservation.proto.CreateReservationsRequest;
+import no.acntech.reservation.proto.DeleteReservationRequest;
+import no.acntech.reservation.proto.FindReservationsRequest;
+import no.acntech.reservation.proto.GetReservationRequest;
+import no.acntech.reservation.proto.ProtoTypes;
+import no.acntech.reservation.proto.Reservation;
+import no.acntech.reservation.proto.ReservationServiceGrpc.ReservationServiceStub;
+import no.acntech.reservation.proto.UpdateReservationRequest;
+import no.acntech.reservation.proto.WatchReservationsRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link ReservationConsumer} for the warehouse-service gRPC API. Messages are Protobuf encoded, and all calls are
+ * multiplexed over the HTTP/2 connection of the {@code warehouse} channel. Each call has a deadline of
+ * {@code app.service.warehouse.client.response-timeout}, and is cancelled on warehouse-service when its subscriber
+ * cancels, as the losing call of a hedged read does.
+ * <p>
+ * Every reservation received is kept in the {@link ReservationCache}, and remote calls go through the
+ * {@link ReservationResilience} policies, as with {@link ReservationReactiveConsumer}.
+ */
+@SuppressWarnings("Duplicates")
+@ConditionalOnProperty(name = "app.service.warehouse.protocol", havingValue = "grpc")
+@Component
+public class ReservationGrpcConsumer implements ReservationConsumer {
+
+    private final ReservationServiceStub reservationServiceStub;
+    private final ConversionService conversionService;
+    private final ReservationCache reservationCache;
+    private final ReservationResilience reservationResilience;
+    private final ReservationMetrics reservationMetrics;
+    private final Duration deadline;
+
+    public ReservationGrpcConsumer(final ReservationServiceStub reservationServiceStub,
+                                   final ConversionService conversionService,
+                                   final ReservationCache reservationCache,
+                                   final ReservationResilience reservationResilience,
+                                   final ReservationMetrics reservationMetrics,
+                                   final WarehouseClientProperties warehouseClientProperties) {
+        this.reservationServiceStub = reservationServiceStub;
+        this.conversionService = conversionService;
+        this.reservationCache = reservationCache;
+        this.reservationResilience = reservationResilience;
+        this.reservationMetrics = reservationMetrics;
+        this.deadline = warehouseClientProperties.getResponseTimeout();
+    }
+
+    @Override
+    public Flux<ReservationDto> find() {
+        final var request = FindReservationsRequest.getDefaultInstance();
+
+        return reservationResilience.readMany(() -> serverStreaming(request, ReservationServiceStub::findReservations, true))
+                .as(publisher -> reservationMetrics.timed("find", publisher))
+                .map(this::convert)
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Flux<ReservationDto> find(@NotNull final UUID orderId) {
+        final var request = FindReservationsRequest.newBuilder()
+                .setOrderId(ProtoTypes.toBytes(orderId))
+                .build();
+
+        return reservationResilience.readMany(() -> serverStreaming(request, ReservationServiceStub::findReservations, true))
+                .as(publisher -> reservationMetrics.timed("find", publisher))
+                .map(this::convert)
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Mono<ReservationDto> get(@NotNull final UUID reservationId) {
+        return reservationCache.get(reservationId, this::fetch);
+    }
+
+    private Mono<ReservationDto> fetch(final UUID reservationId) {
+        final var request = GetReservationRequest.newBuilder()
+                .setReservationId(ProtoTypes.toBytes(reservationId))
+                .build();
+
+        return reservationResilience.hedgedRead(() -> unary(request, ReservationServiceStub::getReservation)
+                        .map(this::convert)
+                        .onErrorResume(e -> hasCode(e, Status.Code.NOT_FOUND), e -> Mono.empty()))
+                .as(publisher -> reservationMetrics.timed("get", publisher));
+    }
+
+    @Override
+    public Mono<ReservationDto> create(@Valid final CreateReservationDto createReservationDto) {
+        final var request = convert(createReservationDto);
+
+        return reservationResilience.write(() -> unary(request, ReservationServiceStub::createReservation))
+                .as(publisher -> reservationMetrics.timed("create", publisher))
+                .map(this::convert)
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Flux<ReservationDto> create(@Valid final List<CreateReservationDto> createReservationDtos) {
+        final var request = CreateReservationsRequest.newBuilder()
+                .addAllReservations(createReservationDtos.stream()
+                        .map(this::convert)
+                        .toList())
+                .build();
+
+        return reservationResilience.writeMany(() -> unary(request, ReservationServiceStub::createReservations)
+                        .flatMapIterable(response -> response.getReservationsList()))
+                .as(publisher -> reservationMetrics.timed("create-batch", publisher))
+                .map(this::convert)
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Mono<ReservationDto> update(@NotNull final UUID reservationId,
+                                       @Valid final UpdateReservationDto updateReservationDto) {
+        // The status of a cancelled or confirmed reservation is final, so a status change alone can not alter it
+        final var cachedReservationDto = reservationCache.getIfPresent(reservationId);
+        if (updateReservationDto.getQuantity() == null && cachedReservationDto != null && isFinal(cachedReservationDto)) {
+            return Mono.just(cachedReservationDto);
+        }
+        final var updateReservationRequest = conversionService.convert(updateReservationDto, UpdateReservationRequest.class);
+        Assert.notNull(updateReservationRequest, "Failed to convert UpdateReservationDto to UpdateReservationRequest");
+        final var request = updateReservationRequest.toBuilder()
+                .setReservationId(ProtoTypes.toBytes(reservationId))
+                .build();
+
+        return Mono.fromRunnable(() -> reservationCache.invalidate(reservationId))
+                .then(reservationResilience.write(() -> unary(request, ReservationServiceStub::updateReservation))
+                        .as(publisher -> reservationMetrics.timed("update", publisher)))
+                .map(this::convert)
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Mono<ReservationDto> delete(@NotNull final UUID reservationId) {
+        final var cachedReservationDto = reservationCache.getIfPresent(reservationId);
+        if (cachedReservationDto != null && cachedReservationDto.getStatus() == ReservationStatus.CANCELED) {
+            return Mono.just(cachedReservationDto);
+        }
+        final var request = DeleteReservationRequest.newBuilder()
+                .setReservationId(ProtoTypes.toBytes(reservationId))
+                .build();
+
+        return Mono.fromRunnable(() -> reservationCache.invalidate(reservationId))
+                .then(reservationResilience.write(() -> unary(request, ReservationServiceStub::deleteReservation))
+                        .as(publisher -> reservationMetrics.timed("delete", publisher)))
+                .map(this::convert)
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Flux<ReservationDto> watch(final UUID orderId) {
+        final var request = WatchReservationsRequest.newBuilder();
+        if (orderId != null) {
+            request.setOrderId(ProtoTypes.toBytes(orderId));
+        }
+
+        return serverStreaming(request.build(), ReservationServiceStub::watchReservations, false)
+                .map(this::convert)
+                .doOnNext(reservationCache::put);
+    }
+
+    private <Q, R> Mono<R> unary(final Q request, final Call<Q, R> call) {
+        return Mono.create(sink -> call.invoke(stub(true), request, new ClientResponseObserver<Q, R>() {
+
+            @Override
+            public void beforeStart(final ClientCallStreamObserver<Q> requestStream) {
+                sink.onCancel(() -> requestStream.cancel("Cancelled by subscriber", null));
+            }
+
+            @Override
+            public void onNext(final R value) {
+                sink.success(value);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                sink.error(throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                sink.success();
+            }
+        }));
+    }
+
+    /**
+     * Only asks warehouse-service for as many messages as the subscriber has requested, so a slow subscriber holds
+     * back the stream through HTTP/2 flow control rather than buffering it.
+     */
+    private <Q, R> Flux<R> serverStreaming(final Q request, final Call<Q, R> call, final boolean withDeadline) {
+        return Flux.create(sink -> {
+            final var requestStreamReference = new AtomicReference<ClientCallStreamObserver<Q>>();
+            call.invoke(stub(withDeadline), request, new ClientResponseObserver<Q, R>() {
+
+                @Override
+                public void beforeStart(final ClientCallStreamObserver<Q> requestStream) {
+                    requestStream.disableAutoRequestWithInitial(0);
+                    requestStreamReference.set(requestStream);
+                }
+
+                @Override
+                public void onNext(final R value) {
+                    sink.next(value);
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    sink.error(throwable);
+                }
+
+                @Override
+                public void onCompleted() {
+                    sink.complete();
+                }
+            });
+            // Messages can only be requested once the call has started
+            final var requestStream = requestStreamReference.get();
+            sink.onRequest(n -> requestStream.request((int) Math.min(n, Integer.MAX_VALUE)));
+            sink.onCancel(() -> requestStream.cancel("Cancelled by subscriber", null));
+        });
+    }
+
+    private ReservationServiceStub stub(final boolean withDeadline) {
+        return withDeadline
+                ? reservationServiceStub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                : reservationServiceStub;
+    }
+
+    private CreateReservationRequest convert(final CreateReservationDto createReservationDto) {
+        final var createReservationRequest = conversionService.convert(createReservationDto, CreateReservationRequest.class);
+        Assert.notNull(createReservationRequest, "Failed to convert CreateReservationDto to CreateReservationRequest");
+        return createReservationRequest;
+    }
+
+    private ReservationDto convert(final Reservation reservation) {
+        final var reservationDto = conversionService.convert(reservation, ReservationDto.class);
+        Assert.notNull(reservationDto, "Failed to convert Reservation to ReservationDto");
+        return reservationDto;
+    }
+
+    private static boolean hasCode(final Throwable throwable, final Status.Code code) {
+        return throwable instanceof StatusRuntimeException e && e.getStatus().getCode() == code;
+    }
+
+    private static boolean isFinal(final ReservationDto reservationDto) {
+        return reservationDto.getStatus() == ReservationStatus.CANCELED || reservationDto.getStatus() == ReservationStatus.CONFIRMED;
+    }
+
+    @FunctionalInterface
+    private interface Call<Q, R> {
+
+        void invoke(ReservationServiceStub stub, Q request, StreamObserver<R> responseObserver);
+    }
+}
@@ -0,0 +1,111 @@
+package no.acntech.reservation.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import no.acntech.reservation.exception.ReservationServiceUnavailableException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times the calls to the warehouse-service reservation API as the caller sees them, retries and hedges included, in
+ * {@code reservation.client.requests} tagged with the operation, the protocol and the outcome. Single attempts are
+ * timed by {@code http.client.requests} or {@code grpc.client.processing.duration}.
+ * <p>
+ * The calls complete on transport threads, so the span of the caller is made current again when a call is recorded,
+ * to have its trace attached to the histogram as an exemplar.
+ */
+@Component
+public class ReservationMetrics {
+
+    private static final String TIMER = "reservation.client.requests";
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final String protocol;
+
+    public ReservationMetrics(final MeterRegistry meterRegistry,
+                              final ObjectProvider<Tracer> tracerProvider,
+                              @Value("${app.service.warehouse.protocol:rest}") final String protocol) {
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+        this.protocol = protocol;
+    }
+
+    public <T> Mono<T> timed(final String operation, final Mono<T> call) {
+        return Mono.defer(() -> {
+            final var sample = new Sample(operation);
+            return call
+                    .doOnSuccess(value -> sample.stop(Outcome.SUCCESS))
+                    .doOnError(e -> sample.stop(Outcome.of(e)))
+                    .doOnCancel(() -> sample.stop(Outcome.CANCELLED));
+        });
+    }
+
+    public <T> Flux<T> timed(final String operation, final Flux<T> call) {
+        return Flux.defer(() -> {
+            final var sample = new Sample(operation);
+            return call
+                    .doOnComplete(() -> sample.stop(Outcome.SUCCESS))
+                    .doOnError(e -> sample.stop(Outcome.of(e)))
+                    .doOnCancel(() -> sample.stop(Outcome.CANCELLED));
+        });
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        REJECTED,
+        UNAVAILABLE,
+        FAILED,
+        CANCELLED;
+
+        private static Outcome of(final Throwable throwable) {
+            if (ReservationResilience.isRejected(throwable)) {
+                return REJECTED;
+            } else if (throwable instanceof ReservationServiceUnavailableException) {
+                return UNAVAILABLE;
+            } else {
+                return FAILED;
+            }
+        }
+    }
+
+    private final class Sample {
+
+        private final String operation;
+        private final Span span;
+        private final Timer.Sample timerSample;
+        // A Mono may be cancelled after it has emitted its value
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private Sample(final String operation) {
+            this.operation = operation;
+            this.span = tracer.currentSpan();
+            this.timerSample = Timer.start(meterRegistry);
+        }
+
+        private void stop(final Outcome outcome) {
+            if (!stopped.compareAndSet(false, true)) {
+                return;
+            }
+            final var timer = Timer.builder(TIMER)
+                    .description("Calls to the warehouse-service reservation API")
+                    .tag("operation", operation)
+                    .tag("protocol", protocol)
+                    .tag("outcome", outcome.name())
+                    .register(meterRegistry);
+            if (span == null) {
+                timerSample.stop(timer);
+                return;
+            }
+            try (var ignored = tracer.withSpan(span)) {
+                timerSample.stop(timer);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package no.acntech.reservation.consumer;
+
+import no.acntech.reservation.cache.ReservationCache;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import no.acntech.reservation.model.UpdateReservationDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link ReservationConsumer} for the warehouse-service REST API.
+ * <p>
+ * Every reservation received is kept in the {@link ReservationCache}. Lookups are served from it, and changes that
+ * would not alter a cancelled or confirmed reservation are answered from it without a remote call. Remote calls go
+ * through the {@link ReservationResilience} policies.
+ */
+@SuppressWarnings("Duplicates")
+@ConditionalOnProperty(name = "app.service.warehouse.protocol", havingValue = "rest", matchIfMissing = true)
+@Component
+public class ReservationReactiveConsumer implements ReservationConsumer {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<ReservationDto>> RESERVATION_EVENT = new ParameterizedTypeReference<>() {
+    };
+    private final WebClient webClient;
+    private final ReservationCache reservationCache;
+    private final ReservationResilience reservationResilience;
+    private final ReservationMetrics reservationMetrics;
+    private final String url;
+    private final Duration streamIdleTimeout;
+
+    public ReservationReactiveConsumer(final WebClient webClient,
+                                       final ReservationCache reservationCache,
+                                       final ReservationResilience reservationResilience,
+                                       final ReservationMetrics reservationMetrics,
+                                       @Value("${app.service.warehouse.url}/api/reservations") final String url,
+                                       @Value("${app.reservation.stream.idle-timeout:PT1M}") final Duration streamIdleTimeout) {
+        this.webClient = webClient;
+        this.reservationCache = reservationCache;
+        this.reservationResilience = reservationResilience;
+        this.reservationMetrics = reservationMetrics;
+        this.url = url;
+        this.streamIdleTimeout = streamIdleTimeout;
+    }
+
+    @Override
+    public Flux<ReservationDto> find() {
+        final var uri = UriComponentsBuilder.fromUriString(url)
+                .build()
+                .toUri();
+
+        return reservationResilience.readMany(() -> webClient.get()
+                        .uri(uri)
+                        .retrieve()
+                        .bodyToFlux(ReservationDto.class))
+                .as(publisher -> reservationMetrics.timed("find", publisher))
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Flux<ReservationDto> find(@NotNull final UUID orderId) {
+        final var uri = UriComponentsBuilder.fromUriString(url)
+                .queryParam("orderId", orderId)
+                .build()
+                .toUri();
+
+        return reservationResilience.readMany(() -> webClient.get()
+                        .uri(uri)
+                        .retrieve()
+                        .bodyToFlux(ReservationDto.class))
+                .as(publisher -> reservationMetrics.timed("find", publisher))
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Mono<ReservationDto> get(@NotNull final UUID reservationId) {
+        return reservationCache.get(reservationId, this::fetch);
+    }
+
+    private Mono<ReservationDto> fetch(final UUID reservationId) {
+        final var uri = UriComponentsBuilder.fromUriString(url)
+                .pathSegment(reservationId.toString())
+                .build()
+                .toUri();
+
+        return reservationResilience.hedgedRead(() -> webClient.get()
+                        .uri(uri)
+                        .retrieve()
+                        .bodyToMono(ReservationDto.class)
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty()))
+                .as(publisher -> reservationMetrics.timed("get", publisher));
+    }
+
+    @Override
+    public Mono<ReservationDto> create(@Valid final CreateReservationDto createReservationDto) {
+        final var uri = UriComponentsBuilder.fromUriString(url)
+                .build()
+                .toUri();
+
+        return reservationResilience.write(() -> webClient.post()
+                        .uri(uri)
+                        .bodyValue(createReservationDto)
+                        .retrieve()
+                        .bodyToMono(ReservationDto.class))
+                .as(publisher -> reservationMetrics.timed("create", publisher))
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Flux<ReservationDto> create(@Valid final List<CreateReservationDto> createReservationDtos) {
+        final var uri = UriComponentsBuilder.fromUriString(url)
+                .pathSegment("batch")
+                .build()
+                .toUri();
+
+        return reservationResilience.writeMany(() -> webClient.post()
+                        .uri(uri)
+                        .bodyValue(createReservationDtos)
+                        .retrieve()
+                        .bodyToFlux(ReservationDto.class))
+                .as(publisher -> reservationMetrics.timed("create-batch", publisher))
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Mono<ReservationDto> update(@NotNull final UUID reservationId,
+                                       @Valid final UpdateReservationDto updateReservationDto) {
+        // The status of a cancelled or confirmed reservation is final, so a status change alone can not alter it
+        final var cachedReservationDto = reservationCache.getIfPresent(reservationId);
+        if (updateReservationDto.getQuantity() == null && cachedReservationDto != null && isFinal(cachedReservationDto)) {
+            return Mono.just(cachedReservationDto);
+        }
+        final var uri = UriComponentsBuilder.fromUriString(url)
+                .pathSegment(reservationId.toString())
+                .build()
+                .toUri();
+
+        return Mono.fromRunnable(() -> reservationCache.invalidate(reservationId))
+                .then(reservationResilience.write(() -> webClient.put()
+                        .uri(uri)
+                        .bodyValue(updateReservationDto)
+                        .retrieve()
+                        .bodyToMono(ReservationDto.class))
+                        .as(publisher -> reservationMetrics.timed("update", publisher)))
+                .doOnNext(reservationCache::put);
+    }
+
+    @Override
+    public Mono<ReservationDto> delete(@NotNull final UUID reservationId) {
+        final var cachedReservationDto = reservationCache.getIfPresent(reservationId);
+        if (cachedReservationDto != null && cachedReservationDto.getStatus() == ReservationStatus.CANCELED) {
+            return Mono.just(cachedReservationDto);
+        }
+        final var uri = UriComponentsBuilder.fromUriString(url)
+                .pathSegment(reservationId.toString())
+                .build()
+                .toUri();
+
+        return Mono.fromRunnable(() -> reservationCache.invalidate(reservationId))
+                .then(reservationResilience.write(() -> webClient.delete()
+                        .uri(uri)
+                        .retrieve()
+                        .bodyToMono(ReservationDto.class))
+                        .as(publisher -> reservationMetrics.timed("delete", publisher)))
+                .doOnNext(reservationCache::put);
+    }
+
+    /**
+     * Reads the server-sent events of the reservation stream. The stream sends a heartbeat while idle, so the read
+     * timeout is raised from the response timeout to the stream idle timeout.
+     */
+    @Override
+    public Flux<ReservationDto> watch(final UUID orderId) {
+        final var uri = UriComponentsBuilder.fromUriString(url)
+                .pathSegment("stream")
+                .queryParamIfPresent("orderId", Optional.ofNullable(orderId))
+                .build()
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .httpRequest(httpRequest -> httpRequest.<HttpClientRequest>getNativeRequest().responseTimeout(streamIdleTimeout))
+                .retrieve()
+                .bodyToFlux(RESERVATION_EVENT)
+                .mapNotNull(ServerSentEvent::data)
+                .doOnNext(reservationCache::put);
+    }
+
+    private static boolean isFinal(final ReservationDto reservationDto) {
+        return reservationDto.getStatus() == ReservationStatus.CANCELED || reservationDto.getStatus() == ReservationStatus.CONFIRMED;
+    }
+}
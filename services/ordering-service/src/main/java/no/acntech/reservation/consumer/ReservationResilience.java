@@ -0,0 +1,164 @@
+package no.acntech.reservation.consumer;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.acntech.reservation.exception.ReservationServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Resilience policies for the calls to warehouse-service. Reads and writes each have their own bulkhead, which limits
+ * concurrent calls and turns away the rest at once, and their own circuit breaker, which fails calls fast while
+ * warehouse-service keeps failing or answering slowly. Only reads are retried, with jittered exponential backoff and
+ * within a {@link RetryBudget}. Reads of a single reservation may also be hedged.
+ * <p>
+ * The policies are configured under {@code resilience4j} and their state is exposed through Actuator.
+ */
+@Component
+public class ReservationResilience {
+
+    static final String READ = "reservation-read";
+    static final String WRITE = "reservation-write";
+    private static final Set<Status.Code> TRANSIENT_CODES = Set.of(
+            Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED, Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.ABORTED, Status.Code.INTERNAL, Status.Code.UNKNOWN);
+    private static final Set<Status.Code> REJECTED_CODES = Set.of(
+            Status.Code.INVALID_ARGUMENT, Status.Code.NOT_FOUND, Status.Code.ALREADY_EXISTS,
+            Status.Code.FAILED_PRECONDITION, Status.Code.OUT_OF_RANGE);
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
+    private final CircuitBreaker readCircuitBreaker;
+    private final CircuitBreaker writeCircuitBreaker;
+    private final Retry readRetry;
+    private final RetryBudget retryBudget;
+    private final Duration hedgeDelay;
+    private final Counter hedgeCounter;
+
+    public ReservationResilience(final BulkheadRegistry bulkheadRegistry,
+                                 final CircuitBreakerRegistry circuitBreakerRegistry,
+                                 final RetryRegistry retryRegistry,
+                                 final RetryBudget retryBudget,
+                                 final MeterRegistry meterRegistry,
+                                 @Value("${app.reservation.hedge-delay:PT0S}") final Duration hedgeDelay) {
+        this.readBulkhead = bulkheadRegistry.bulkhead(READ);
+        this.writeBulkhead = bulkheadRegistry.bulkhead(WRITE);
+        this.readCircuitBreaker = circuitBreakerRegistry.circuitBreaker(READ);
+        this.writeCircuitBreaker = circuitBreakerRegistry.circuitBreaker(WRITE);
+        this.readRetry = retryRegistry.retry(READ);
+        this.retryBudget = retryBudget;
+        this.hedgeDelay = hedgeDelay;
+        this.hedgeCounter = Counter.builder("reservation.hedged.calls")
+                .description("Reads of a single reservation that were sent a second time as the first was slow")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Warehouse-service failures worth recording or retrying: connection and timeout failures, and server errors.
+     * Client errors tell nothing about the health of warehouse-service.
+     */
+    public static boolean isTransient(final Throwable throwable) {
+        return throwable instanceof WebClientRequestException
+                || (throwable instanceof WebClientResponseException e && e.getStatusCode().is5xxServerError())
+                || (throwable instanceof StatusRuntimeException s && TRANSIENT_CODES.contains(s.getStatus().getCode()));
+    }
+
+    /**
+     * Requests warehouse-service refused as they are, such as a duplicate reservation or an unknown product. Sending
+     * them again will not help.
+     */
+    public static boolean isRejected(final Throwable throwable) {
+        return (throwable instanceof WebClientResponseException e && e.getStatusCode().is4xxClientError())
+                || (throwable instanceof StatusRuntimeException s && REJECTED_CODES.contains(s.getStatus().getCode()));
+    }
+
+    public <T> Mono<T> read(final Supplier<Mono<T>> call) {
+        return Mono.defer(() -> attempt(call, readBulkhead, readCircuitBreaker))
+                .transformDeferred(RetryOperator.of(readRetry))
+                .onErrorMap(ReservationResilience::isRefused, e -> new ReservationServiceUnavailableException(READ, e));
+    }
+
+    /**
+     * Reads like {@link #read(Supplier)}, and sends the call a second time if it has not been answered within the
+     * hedge delay. The first answer is used and the other call is cancelled.
+     */
+    public <T> Mono<T> hedgedRead(final Supplier<Mono<T>> call) {
+        if (hedgeDelay.isZero()) {
+            return read(call);
+        }
+        final Supplier<Mono<Optional<T>>> optionalCall = () -> attempt(call, readBulkhead, readCircuitBreaker)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        final var hedge = Mono.delay(hedgeDelay)
+                .doOnNext(tick -> hedgeCounter.increment())
+                .then(Mono.defer(optionalCall));
+        return Mono.defer(() -> Mono.firstWithValue(Mono.defer(optionalCall), hedge))
+                // When both calls fail, report the failure of the first
+                .onErrorMap(NoSuchElementException.class, e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e)
+                .flatMap(Mono::justOrEmpty)
+                .transformDeferred(RetryOperator.of(readRetry))
+                .onErrorMap(ReservationResilience::isRefused, e -> new ReservationServiceUnavailableException(READ, e));
+    }
+
+    public <T> Flux<T> readMany(final Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+                    retryBudget.recordCall();
+                    return call.get();
+                })
+                .transformDeferred(BulkheadOperator.of(readBulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(readCircuitBreaker))
+                .transformDeferred(RetryOperator.of(readRetry))
+                .onErrorMap(ReservationResilience::isRefused, e -> new ReservationServiceUnavailableException(READ, e));
+    }
+
+    public <T> Mono<T> write(final Supplier<Mono<T>> call) {
+        return Mono.defer(call)
+                .transformDeferred(BulkheadOperator.of(writeBulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(writeCircuitBreaker))
+                .onErrorMap(ReservationResilience::isRefused, e -> new ReservationServiceUnavailableException(WRITE, e));
+    }
+
+    public <T> Flux<T> writeMany(final Supplier<Flux<T>> call) {
+        return Flux.defer(call)
+                .transformDeferred(BulkheadOperator.of(writeBulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(writeCircuitBreaker))
+                .onErrorMap(ReservationResilience::isRefused, e -> new ReservationServiceUnavailableException(WRITE, e));
+    }
+
+    private <T> Mono<T> attempt(final Supplier<Mono<T>> call,
+                                final Bulkhead bulkhead,
+                                final CircuitBreaker circuitBreaker) {
+        return Mono.defer(() -> {
+                    retryBudget.recordCall();
+                    return call.get();
+                })
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private static boolean isRefused(final Throwable throwable) {
+        return throwable instanceof BulkheadFullException || throwable instanceof CallNotPermittedException;
+    }
+}
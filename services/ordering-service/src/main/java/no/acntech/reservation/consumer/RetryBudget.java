@@ -0,0 +1,58 @@
+package no.acntech.reservation.consumer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries to a share of the calls made, so that retries can not multiply the load on a service that is
+ * already struggling. Every call adds {@code ratio} of a retry to the budget, up to one second worth of calls, and
+ * every retry takes one. A few retries per second are always allowed, so that a quiet client still retries.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+    private final long deposit;
+    private final long capacity;
+    private final int minRetriesPerSecond;
+    private final AtomicLong balance = new AtomicLong();
+    private final AtomicLong reserve = new AtomicLong();
+
+    public RetryBudget(final double ratio, final int minRetriesPerSecond, final int maxCallsPerSecond) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = Math.max(SCALE, Math.round(ratio * maxCallsPerSecond * SCALE));
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    public void recordCall() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    public boolean tryRetry() {
+        var current = balance.get();
+        while (current >= SCALE) {
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+            current = balance.get();
+        }
+        return tryReserve();
+    }
+
+    /**
+     * The reserve holds the second it was last used in its upper 24 bits, and the retries taken in that second in its
+     * lower 40 bits, so that both are updated together.
+     */
+    private boolean tryReserve() {
+        final var second = (System.currentTimeMillis() / 1000) & 0xFFFFFFL;
+        var current = reserve.get();
+        while (true) {
+            final var used = (current >>> 40) == second ? current & 0xFFFFFFFFFFL : 0;
+            if (used >= minRetriesPerSecond) {
+                return false;
+            }
+            if (reserve.compareAndSet(current, (second << 40) | (used + 1))) {
+                return true;
+            }
+            current = reserve.get();
+        }
+    }
+}
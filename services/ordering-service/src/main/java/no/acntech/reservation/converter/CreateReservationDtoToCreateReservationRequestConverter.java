@@ -0,0 +1,22 @@
+package no.acntech.reservation.converter;
+
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.proto.CreateReservationRequest;
+import no.acntech.reservation.proto.ProtoTypes;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CreateReservationDtoToCreateReservationRequestConverter implements Converter<CreateReservationDto, CreateReservationRequest> {
+
+    @NonNull
+    @Override
+    public CreateReservationRequest convert(@NonNull final CreateReservationDto createReservationDto) {
+        return CreateReservationRequest.newBuilder()
+                .setOrderId(ProtoTypes.toBytes(createReservationDto.getOrderId()))
+                .setProductId(ProtoTypes.toBytes(createReservationDto.getProductId()))
+                .setQuantity(createReservationDto.getQuantity())
+                .build();
+    }
+}
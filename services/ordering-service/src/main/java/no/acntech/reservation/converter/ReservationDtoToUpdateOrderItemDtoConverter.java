@@ -3,6 +3,7 @@ package no.acntech.reservation.converter;
 import no.acntech.order.model.OrderItemStatus;
 import no.acntech.order.model.UpdateOrderItemDto;
 import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
@@ -15,7 +16,12 @@ public class ReservationDtoToUpdateOrderItemDtoConverter implements Converter<Re
     public UpdateOrderItemDto convert(@NonNull final ReservationDto source) {
         return UpdateOrderItemDto.builder()
                 .quantity(source.getQuantity())
-                .status(OrderItemStatus.valueOf(source.getStatus().name()))
+                .status(convertStatus(source.getStatus()))
                 .build();
     }
+
+    private static OrderItemStatus convertStatus(final ReservationStatus status) {
+        // A canceled reservation means the item was deleted, as there is no canceled item status
+        return status == ReservationStatus.CANCELED ? OrderItemStatus.DELETED : OrderItemStatus.valueOf(status.name());
+    }
 }
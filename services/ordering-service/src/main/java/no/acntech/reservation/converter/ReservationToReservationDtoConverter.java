@@ -0,0 +1,27 @@
+package no.acntech.reservation.converter;
+
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import no.acntech.reservation.proto.ProtoTypes;
+import no.acntech.reservation.proto.Reservation;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationToReservationDtoConverter implements Converter<Reservation, ReservationDto> {
+
+    @NonNull
+    @Override
+    public ReservationDto convert(@NonNull final Reservation reservation) {
+        return ReservationDto.builder()
+                .reservationId(ProtoTypes.toUuid(reservation.getReservationId()))
+                .orderId(ProtoTypes.toUuid(reservation.getOrderId()))
+                .productId(reservation.getProductId().isEmpty() ? null : ProtoTypes.toUuid(reservation.getProductId()))
+                .quantity(reservation.getQuantity())
+                .status(ReservationStatus.valueOf(reservation.getStatus().name()))
+                .created(ProtoTypes.toZonedDateTime(reservation.getCreated()))
+                .modified(reservation.hasModified() ? ProtoTypes.toZonedDateTime(reservation.getModified()) : null)
+                .build();
+    }
+}
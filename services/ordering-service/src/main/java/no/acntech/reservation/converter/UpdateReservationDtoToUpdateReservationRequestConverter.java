@@ -0,0 +1,28 @@
+package no.acntech.reservation.converter;
+
+import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.proto.ReservationStatus;
+import no.acntech.reservation.proto.UpdateReservationRequest;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts the changes only; the ID of the reservation to update is set by the caller.
+ */
+@Component
+public class UpdateReservationDtoToUpdateReservationRequestConverter implements Converter<UpdateReservationDto, UpdateReservationRequest> {
+
+    @NonNull
+    @Override
+    public UpdateReservationRequest convert(@NonNull final UpdateReservationDto updateReservationDto) {
+        final var builder = UpdateReservationRequest.newBuilder();
+        if (updateReservationDto.getQuantity() != null) {
+            builder.setQuantity(updateReservationDto.getQuantity());
+        }
+        if (updateReservationDto.getStatus() != null) {
+            builder.setStatus(ReservationStatus.valueOf(updateReservationDto.getStatus().name()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,12 @@
+package no.acntech.reservation.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+public class ReservationServiceUnavailableException extends IllegalStateException {
+
+    public ReservationServiceUnavailableException(String operation, Throwable cause) {
+        super("Reservation service refused " + operation + " call: " + cause.getMessage(), cause);
+    }
+}
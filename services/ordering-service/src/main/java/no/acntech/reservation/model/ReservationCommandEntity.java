@@ -0,0 +1,117 @@
+package no.acntech.reservation.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * A reservation command for warehouse-service that is written in the same transaction as the order item it belongs
+ * to, and relayed once that transaction has committed. The command is not available to the relay again until
+ * {@link #getAvailable()}, which is moved ahead each time it is claimed.
+ */
+@Table(name = "RESERVATION_OUTBOX")
+@Entity
+public class ReservationCommandEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, updatable = false)
+    private UUID itemId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private ReservationCommandType command;
+    @Column(updatable = false)
+    private String payload;
+    @Column(nullable = false)
+    private Integer attempts;
+    @Column(nullable = false)
+    private ZonedDateTime available;
+    @Column(nullable = false, updatable = false)
+    private ZonedDateTime created;
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getItemId() {
+        return itemId;
+    }
+
+    public ReservationCommandType getCommand() {
+        return command;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public ZonedDateTime getAvailable() {
+        return available;
+    }
+
+    public ZonedDateTime getCreated() {
+        return created;
+    }
+
+    public void claim(ZonedDateTime until) {
+        attempts++;
+        available = until;
+    }
+
+    @PrePersist
+    private void prePersist() {
+        attempts = 0;
+        created = ZonedDateTime.now();
+        available = created;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private UUID itemId;
+        private ReservationCommandType command;
+        private String payload;
+
+        private Builder() {
+        }
+
+        public Builder itemId(UUID itemId) {
+            this.itemId = itemId;
+            return this;
+        }
+
+        public Builder command(ReservationCommandType command) {
+            this.command = command;
+            return this;
+        }
+
+        public Builder payload(String payload) {
+            this.payload = payload;
+            return this;
+        }
+
+        public ReservationCommandEntity build() {
+            final var target = new ReservationCommandEntity();
+            target.itemId = this.itemId;
+            target.command = this.command;
+            target.payload = this.payload;
+            return target;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package no.acntech.reservation.model;
+
+public enum ReservationCommandType {
+
+    CREATE,
+    UPDATE,
+    DELETE
+}
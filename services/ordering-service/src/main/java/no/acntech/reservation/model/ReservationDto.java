@@ -46,4 +46,69 @@ public class ReservationDto {
     public ZonedDateTime getModified() {
         return modified;
     }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private UUID reservationId;
+        private UUID productId;
+        private UUID orderId;
+        private Long quantity;
+        private ReservationStatus status;
+        private ZonedDateTime created;
+        private ZonedDateTime modified;
+
+        private Builder() {
+        }
+
+        public Builder reservationId(UUID reservationId) {
+            this.reservationId = reservationId;
+            return this;
+        }
+
+        public Builder productId(UUID productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public Builder orderId(UUID orderId) {
+            this.orderId = orderId;
+            return this;
+        }
+
+        public Builder quantity(Long quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        public Builder status(ReservationStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder created(ZonedDateTime created) {
+            this.created = created;
+            return this;
+        }
+
+        public Builder modified(ZonedDateTime modified) {
+            this.modified = modified;
+            return this;
+        }
+
+        public ReservationDto build() {
+            final var target = new ReservationDto();
+            target.reservationId = this.reservationId;
+            target.productId = this.productId;
+            target.orderId = this.orderId;
+            target.quantity = this.quantity;
+            target.status = this.status;
+            target.created = this.created;
+            target.modified = this.modified;
+            return target;
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package no.acntech.reservation.repository;
+
+import no.acntech.reservation.model.ReservationCommandEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReservationCommandRepository extends JpaRepository<ReservationCommandEntity, Long> {
+
+    /**
+     * Locks the oldest available commands, skipping those already locked by another relay. Only the first outstanding
+     * command of each order item is available, so the commands for one item are never relayed out of order.
+     */
+    @Query(value = """
+            SELECT * FROM RESERVATION_OUTBOX c
+            WHERE c.AVAILABLE <= :now
+            AND NOT EXISTS (SELECT 1 FROM RESERVATION_OUTBOX p WHERE p.ITEM_ID = c.ITEM_ID AND p.ID < c.ID)
+            ORDER BY c.ID
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ReservationCommandEntity> findAvailableForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    boolean existsByItemId(UUID itemId);
+}
@@ -0,0 +1,53 @@
+package no.acntech.reservation.service;
+
+import no.acntech.reservation.model.ReservationCommandEntity;
+import no.acntech.reservation.transport.ReservationCommandTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Relays the reservation commands in the outbox to warehouse-service in batches, through the configured
+ * {@link ReservationCommandTransport}. No transaction is open while a batch is in flight. Commands are delivered at
+ * least once: a command that fails, or is not completed within the lease, is relayed again once the lease is up.
+ */
+@Profile("!reactive")
+@Component
+public class ReservationOutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationOutboxRelay.class);
+    private final ReservationOutboxService reservationOutboxService;
+    private final ReservationCommandTransport reservationCommandTransport;
+    private final int batchSize;
+    private final Duration lease;
+
+    public ReservationOutboxRelay(final ReservationOutboxService reservationOutboxService,
+                                  final ReservationCommandTransport reservationCommandTransport,
+                                  @Value("${app.reservation.outbox.batch-size:100}") final int batchSize,
+                                  @Value("${app.reservation.outbox.lease:PT30S}") final Duration lease) {
+        this.reservationOutboxService = reservationOutboxService;
+        this.reservationCommandTransport = reservationCommandTransport;
+        this.batchSize = batchSize;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservation.outbox.interval:PT0.1S}")
+    public void relay() {
+        List<ReservationCommandEntity> reservationCommandEntities;
+        do {
+            reservationCommandEntities = reservationOutboxService.claimCommands(batchSize, lease);
+            if (reservationCommandEntities.isEmpty()) {
+                return;
+            }
+            final var deliveredReservationCommandEntities = reservationCommandTransport.send(reservationCommandEntities);
+            reservationOutboxService.completeCommands(deliveredReservationCommandEntities);
+            LOGGER.debug("Relayed {} of {} reservation commands", deliveredReservationCommandEntities.size(), reservationCommandEntities.size());
+        } while (reservationCommandEntities.size() == batchSize);
+    }
+}
@@ -0,0 +1,107 @@
+package no.acntech.reservation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationCommandEntity;
+import no.acntech.reservation.model.ReservationCommandType;
+import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.repository.ReservationCommandRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes reservation commands to the outbox as part of the caller's transaction, and hands them out to the
+ * {@link ReservationOutboxRelay}.
+ */
+@Profile("!reactive")
+@Validated
+@Service
+public class ReservationOutboxService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationOutboxService.class);
+    private final ReservationCommandRepository reservationCommandRepository;
+    private final ObjectMapper objectMapper;
+
+    public ReservationOutboxService(final ReservationCommandRepository reservationCommandRepository,
+                                    final ObjectMapper objectMapper) {
+        this.reservationCommandRepository = reservationCommandRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createReservation(@NotNull final UUID itemId,
+                                  @NotNull @Valid final CreateReservationDto createReservationDto) {
+        save(itemId, ReservationCommandType.CREATE, createReservationDto);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updateReservation(@NotNull final UUID itemId,
+                                  @NotNull @Valid final UpdateReservationDto updateReservationDto) {
+        save(itemId, ReservationCommandType.UPDATE, updateReservationDto);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteReservation(@NotNull final UUID itemId) {
+        save(itemId, ReservationCommandType.DELETE, null);
+    }
+
+    /**
+     * Claims up to {@code limit} available commands. A claimed command is held back for the lease, so it is only
+     * handed out again if it has not been completed by then.
+     */
+    @Transactional
+    public List<ReservationCommandEntity> claimCommands(final int limit, final Duration lease) {
+        final var now = ZonedDateTime.now();
+        final var reservationCommandEntities = reservationCommandRepository.findAvailableForUpdate(now.toLocalDateTime(), limit);
+        reservationCommandEntities.forEach(reservationCommandEntity -> reservationCommandEntity.claim(now.plus(lease)));
+        return reservationCommandEntities;
+    }
+
+    @Transactional
+    public void completeCommands(final List<ReservationCommandEntity> reservationCommandEntities) {
+        reservationCommandRepository.deleteAllByIdInBatch(reservationCommandEntities.stream()
+                .map(ReservationCommandEntity::getId)
+                .toList());
+    }
+
+    /**
+     * Tells whether the order item has reservation commands that have not been delivered yet.
+     */
+    @Transactional(readOnly = true)
+    public boolean hasCommands(@NotNull final UUID itemId) {
+        return reservationCommandRepository.existsByItemId(itemId);
+    }
+
+    private void save(final UUID itemId, final ReservationCommandType command, final Object payload) {
+        final var reservationCommandEntity = ReservationCommandEntity.builder()
+                .itemId(itemId)
+                .command(command)
+                .payload(payload == null ? null : toJson(payload))
+                .build();
+        reservationCommandRepository.save(reservationCommandEntity);
+        LOGGER.debug("Saved {} reservation command for item-id {}", command, itemId);
+    }
+
+    private String toJson(final Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package no.acntech.reservation.service;
+
+import no.acntech.order.model.OrderItemStatus;
+import no.acntech.order.service.OrderOrchestrationService;
+import no.acntech.order.service.OrderService;
+import no.acntech.reservation.consumer.ReservationConsumer;
+import no.acntech.reservation.model.ReservationDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.function.Function;
+
+/**
+ * Keeps the order items in step with their reservations by subscribing to the reservation changes pushed by
+ * warehouse-service, instead of polling for them. The subscription is opened again with backoff whenever it ends or
+ * fails. Changes made while it is down are not replayed, so each time it is opened the reservations of the orders with
+ * pending or reserved items are read and applied first. Changes pushed meanwhile are held back until then, and applied
+ * after, so that a reservation ends up in its latest state.
+ */
+@ConditionalOnProperty(name = "app.reservation.stream.enabled", havingValue = "true", matchIfMissing = true)
+@Profile("!reactive")
+@Component
+public class ReservationStreamSubscriber implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationStreamSubscriber.class);
+    private static final EnumSet<OrderItemStatus> RESYNC_STATUSES = EnumSet.of(OrderItemStatus.PENDING, OrderItemStatus.RESERVED);
+    private final ReservationConsumer reservationConsumer;
+    private final OrderService orderService;
+    private final OrderOrchestrationService orderOrchestrationService;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private volatile Disposable subscription;
+
+    public ReservationStreamSubscriber(final ReservationConsumer reservationConsumer,
+                                       final OrderService orderService,
+                                       final OrderOrchestrationService orderOrchestrationService,
+                                       @Value("${app.reservation.stream.min-backoff:PT1S}") final Duration minBackoff,
+                                       @Value("${app.reservation.stream.max-backoff:PT30S}") final Duration maxBackoff) {
+        this.reservationConsumer = reservationConsumer;
+        this.orderService = orderService;
+        this.orderOrchestrationService = orderOrchestrationService;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Override
+    public void start() {
+        subscription = Flux.defer(this::watchAndResync)
+                .doOnSubscribe(s -> LOGGER.debug("Subscribing to reservation changes"))
+                // Changes are applied on a thread that may block on the database
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(this::apply)
+                .repeatWhen(completed -> completed.delayElements(minBackoff))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, minBackoff)
+                        .maxBackoff(maxBackoff)
+                        .transientErrors(true)
+                        .doBeforeRetry(retrySignal -> LOGGER.warn("Reservation change stream failed, subscribing again: {}", retrySignal.failure().toString())))
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        final var currentSubscription = subscription;
+        if (currentSubscription != null) {
+            currentSubscription.dispose();
+            subscription = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    /**
+     * Opens the stream of changes at once, but holds its changes back in memory until the current reservations of the
+     * orders that may still change have been read and applied. An end or failure of the stream is held back as well.
+     */
+    private Flux<ReservationDto> watchAndResync() {
+        final Sinks.Many<ReservationDto> changes = Sinks.many().unicast().onBackpressureBuffer();
+        final var connection = reservationConsumer.watch(null)
+                .subscribe(changes::tryEmitNext, changes::tryEmitError, changes::tryEmitComplete);
+        return Flux.concat(resync(), changes.asFlux())
+                .doFinally(signal -> connection.dispose());
+    }
+
+    private Flux<ReservationDto> resync() {
+        return Mono.fromCallable(() -> orderService.findOrderIdsWithReservedItems(RESYNC_STATUSES))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(orderIds -> LOGGER.debug("Reading the reservations of {} orders with pending or reserved items", orderIds.size()))
+                .flatMapIterable(Function.identity())
+                .concatMap(reservationConsumer::find);
+    }
+
+    private void apply(final ReservationDto reservationDto) {
+        try {
+            orderOrchestrationService.applyReservationChange(reservationDto);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to apply change to reservation-id {}", reservationDto.getReservationId(), e);
+        }
+    }
+}
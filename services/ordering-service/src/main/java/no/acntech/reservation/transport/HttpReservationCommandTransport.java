@@ -0,0 +1,190 @@
+package no.acntech.reservation.transport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.acntech.order.service.OrderService;
+import no.acntech.order.service.ReservationReplyHandler;
+import no.acntech.reservation.consumer.ReservationConsumer;
+import no.acntech.reservation.consumer.ReservationResilience;
+import no.acntech.reservation.exception.ReservationServiceUnavailableException;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationCommandEntity;
+import no.acntech.reservation.model.ReservationCommandType;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.UpdateReservationDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Sends reservation commands straight to the warehouse-service reservation API and applies the replies. The create commands
+ * of a batch go in one request; the others are sent up to {@code app.service.warehouse.max-concurrency} at a time. A
+ * command that warehouse-service refuses with a client error is not retried. Its order item takes the state of the
+ * reservation the command conflicts with. Without such a reservation, a deleted item is marked as deleted and any other
+ * item as failed.
+ */
+@ConditionalOnProperty(name = "app.reservation.outbox.transport", havingValue = "http", matchIfMissing = true)
+@Profile("!reactive")
+@Component
+public class HttpReservationCommandTransport implements ReservationCommandTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpReservationCommandTransport.class);
+    private final OrderService orderService;
+    private final ReservationReplyHandler reservationReplyHandler;
+    private final ReservationConsumer reservationConsumer;
+    private final ObjectMapper objectMapper;
+    private final int maxConcurrency;
+
+    public HttpReservationCommandTransport(final OrderService orderService,
+                                           final ReservationReplyHandler reservationReplyHandler,
+                                           final ReservationConsumer reservationConsumer,
+                                           final ObjectMapper objectMapper,
+                                           @Value("${app.service.warehouse.max-concurrency:8}") final int maxConcurrency) {
+        this.orderService = orderService;
+        this.reservationReplyHandler = reservationReplyHandler;
+        this.reservationConsumer = reservationConsumer;
+        this.objectMapper = objectMapper;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public List<ReservationCommandEntity> send(final List<ReservationCommandEntity> reservationCommandEntities) {
+        final var reservationIds = orderService.getReservationIds(reservationCommandEntities.stream()
+                .map(ReservationCommandEntity::getItemId)
+                .collect(Collectors.toSet()));
+        final var createReservationCommandEntities = reservationCommandEntities.stream()
+                .filter(reservationCommandEntity -> reservationCommandEntity.getCommand() == ReservationCommandType.CREATE)
+                .toList();
+        final var otherReservationCommandEntities = reservationCommandEntities.stream()
+                .filter(reservationCommandEntity -> reservationCommandEntity.getCommand() != ReservationCommandType.CREATE)
+                .toList();
+        final var replies = Flux.merge(
+                        sendCreates(createReservationCommandEntities),
+                        Flux.fromIterable(otherReservationCommandEntities)
+                                .flatMap(reservationCommandEntity -> send(reservationCommandEntity, reservationIds.get(reservationCommandEntity.getItemId())), maxConcurrency))
+                .collectList()
+                .block();
+
+        // Replies are applied on the calling thread, as they block on the database
+        final var delivered = new ArrayList<ReservationCommandEntity>();
+        for (final var reply : replies) {
+            final var itemId = reply.reservationCommandEntity().getItemId();
+            try {
+                if (reply.reservationDto() != null) {
+                    reservationReplyHandler.onReservation(itemId, reply.reservationDto());
+                } else if (reply.rejected()) {
+                    reservationReplyHandler.onRejected(itemId);
+                } else if (reply.unreserved()) {
+                    reservationReplyHandler.onUnreserved(itemId, reply.reservationCommandEntity().getCommand());
+                }
+                delivered.add(reply.reservationCommandEntity());
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to apply reservation reply for item-id {}", itemId, e);
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Creates the reservations with a single batch request. The batch is refused as a whole if one of its lines is,
+     * in which case the lines are sent one by one to find out which.
+     */
+    private Flux<Reply> sendCreates(final List<ReservationCommandEntity> reservationCommandEntities) {
+        if (reservationCommandEntities.isEmpty()) {
+            return Flux.empty();
+        }
+        final var createReservationDtos = reservationCommandEntities.stream()
+                .map(reservationCommandEntity -> readPayload(reservationCommandEntity, CreateReservationDto.class))
+                .toList();
+        return reservationConsumer.create(createReservationDtos)
+                .collectList()
+                .flatMapIterable(reservationDtos -> IntStream.range(0, reservationDtos.size())
+                        .mapToObj(index -> new Reply(reservationCommandEntities.get(index), reservationDtos.get(index), false, false))
+                        .toList())
+                .onErrorResume(ReservationResilience::isRejected, e -> Flux.fromIterable(reservationCommandEntities)
+                        .flatMap(reservationCommandEntity -> send(reservationCommandEntity, null), maxConcurrency))
+                .onErrorResume(e -> {
+                    logFailure("batch of " + reservationCommandEntities.size() + " create reservation commands", e);
+                    return Flux.empty();
+                });
+    }
+
+    /**
+     * Sends one command. An update or deletion of an item without a reservation is not sent, as its create command was
+     * refused and there is nothing to change; the item is settled here instead.
+     */
+    private Mono<Reply> send(final ReservationCommandEntity reservationCommandEntity, final UUID reservationId) {
+        if (reservationId == null && reservationCommandEntity.getCommand() != ReservationCommandType.CREATE) {
+            return Mono.just(new Reply(reservationCommandEntity, null, false, true));
+        }
+        return send(reservationCommandEntity.getCommand(), reservationCommandEntity, reservationId)
+                .map(reservationDto -> new Reply(reservationCommandEntity, reservationDto, false, false))
+                .defaultIfEmpty(new Reply(reservationCommandEntity, null, false, false))
+                .onErrorResume(ReservationResilience::isRejected, e -> findCurrent(reservationCommandEntity, reservationId)
+                        .map(reservationDto -> new Reply(reservationCommandEntity, reservationDto, false, false))
+                        .defaultIfEmpty(reservationCommandEntity.getCommand() == ReservationCommandType.CREATE
+                                ? new Reply(reservationCommandEntity, null, true, false)
+                                : new Reply(reservationCommandEntity, null, false, true)))
+                .onErrorResume(e -> {
+                    logFailure(reservationCommandEntity.getCommand() + " reservation command for item-id " + reservationCommandEntity.getItemId(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private static void logFailure(final String what, final Throwable throwable) {
+        // Calls turned away by a bulkhead or an open circuit breaker are expected while warehouse-service is degraded
+        if (throwable instanceof ReservationServiceUnavailableException) {
+            LOGGER.debug("Failed to send {}: {}", what, throwable.getMessage());
+        } else {
+            LOGGER.warn("Failed to send {}", what, throwable);
+        }
+    }
+
+    /**
+     * Finds the state of the reservation that a refused command conflicts with, for the item to take. A create command
+     * is refused when an earlier delivery made the reservation but its reply was lost. An update or deletion is refused
+     * when the reservation can no longer be changed that way, and its current state is read through the cache.
+     */
+    private Mono<ReservationDto> findCurrent(final ReservationCommandEntity reservationCommandEntity, final UUID reservationId) {
+        if (reservationCommandEntity.getCommand() != ReservationCommandType.CREATE) {
+            return reservationConsumer.get(reservationId);
+        }
+        final var createReservationDto = readPayload(reservationCommandEntity, CreateReservationDto.class);
+        return reservationConsumer.find(createReservationDto.getOrderId())
+                .filter(reservationDto -> createReservationDto.getProductId().equals(reservationDto.getProductId()))
+                .next();
+    }
+
+    private Mono<ReservationDto> send(final ReservationCommandType command,
+                                      final ReservationCommandEntity reservationCommandEntity,
+                                      final UUID reservationId) {
+        return Mono.defer(() -> switch (command) {
+            case CREATE -> reservationConsumer.create(readPayload(reservationCommandEntity, CreateReservationDto.class));
+            case UPDATE -> reservationConsumer.update(reservationId, readPayload(reservationCommandEntity, UpdateReservationDto.class));
+            case DELETE -> reservationConsumer.delete(reservationId);
+        });
+    }
+
+    private <T> T readPayload(final ReservationCommandEntity reservationCommandEntity, final Class<T> type) {
+        try {
+            return objectMapper.readValue(reservationCommandEntity.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Reply(ReservationCommandEntity reservationCommandEntity, ReservationDto reservationDto, boolean rejected, boolean unreserved) {
+    }
+}
@@ -0,0 +1,19 @@
+package no.acntech.reservation.transport;
+
+import no.acntech.order.service.ReservationReplyHandler;
+import no.acntech.reservation.model.ReservationCommandEntity;
+
+import java.util.List;
+
+/**
+ * Carries reservation commands from the outbox to warehouse-service. The transport is selected with
+ * {@code app.reservation.outbox.transport}. Replies, whether they come back with the request or later, must be passed
+ * to the {@link ReservationReplyHandler}.
+ */
+public interface ReservationCommandTransport {
+
+    /**
+     * Sends a batch of commands and returns those that were delivered. The others are left in the outbox and retried.
+     */
+    List<ReservationCommandEntity> send(List<ReservationCommandEntity> reservationCommandEntities);
+}
@@ -0,0 +1,7 @@
+CREATE INDEX ORDERS_CUSTOMER_ID_STATUS_ID_IX ON ORDERS (CUSTOMER_ID, STATUS, ID);
+
+CREATE INDEX ORDERS_CUSTOMER_ID_ID_IX ON ORDERS (CUSTOMER_ID, ID);
+
+CREATE INDEX ORDERS_STATUS_ID_IX ON ORDERS (STATUS, ID);
+
+CREATE INDEX ORDER_ITEMS_RESERVATION_ID_IX ON ORDER_ITEMS (RESERVATION_ID);
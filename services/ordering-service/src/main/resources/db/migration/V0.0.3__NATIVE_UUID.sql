@@ -0,0 +1,14 @@
+ALTER TABLE ORDERS
+    ALTER COLUMN ORDER_ID SET DATA TYPE UUID USING CAST(ORDER_ID AS UUID);
+
+ALTER TABLE ORDERS
+    ALTER COLUMN CUSTOMER_ID SET DATA TYPE UUID USING CAST(CUSTOMER_ID AS UUID);
+
+ALTER TABLE ORDER_ITEMS
+    ALTER COLUMN ITEM_ID SET DATA TYPE UUID USING CAST(ITEM_ID AS UUID);
+
+ALTER TABLE ORDER_ITEMS
+    ALTER COLUMN PRODUCT_ID SET DATA TYPE UUID USING CAST(PRODUCT_ID AS UUID);
+
+ALTER TABLE ORDER_ITEMS
+    ALTER COLUMN RESERVATION_ID SET DATA TYPE UUID USING CAST(RESERVATION_ID AS UUID);
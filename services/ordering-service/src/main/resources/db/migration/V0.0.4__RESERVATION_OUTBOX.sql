@@ -0,0 +1,13 @@
+CREATE TABLE RESERVATION_OUTBOX
+(
+    ID        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    ITEM_ID   UUID         NOT NULL,
+    COMMAND   VARCHAR(20)  NOT NULL,
+    PAYLOAD   VARCHAR(1000),
+    ATTEMPTS  INTEGER      NOT NULL,
+    AVAILABLE TIMESTAMP(6) NOT NULL,
+    CREATED   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT RESERVATION_OUTBOX_PK PRIMARY KEY (ID)
+);
+
+CREATE INDEX RESERVATION_OUTBOX_ITEM_ID_ID_IX ON RESERVATION_OUTBOX (ITEM_ID, ID);
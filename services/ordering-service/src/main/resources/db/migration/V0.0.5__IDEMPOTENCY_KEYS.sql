@@ -0,0 +1,16 @@
+CREATE TABLE IDEMPOTENCY_KEYS
+(
+    ID              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    IDEMPOTENCY_KEY VARCHAR(255) NOT NULL,
+    FINGERPRINT     VARCHAR(64)  NOT NULL,
+    STATUS          INTEGER,
+    LOCATION        VARCHAR(1000),
+    CONTENT_TYPE    VARCHAR(255),
+    BODY            TEXT,
+    CREATED         TIMESTAMP(6) NOT NULL,
+    EXPIRES         TIMESTAMP(6) NOT NULL,
+    CONSTRAINT IDEMPOTENCY_KEYS_PK PRIMARY KEY (ID),
+    CONSTRAINT IDEMPOTENCY_KEYS_IDEMPOTENCY_KEY_UC UNIQUE (IDEMPOTENCY_KEY)
+);
+
+CREATE INDEX IDEMPOTENCY_KEYS_EXPIRES_IX ON IDEMPOTENCY_KEYS (EXPIRES);
@@ -0,0 +1,43 @@
+CREATE TABLE ORDER_SUMMARIES
+(
+    ID              INTEGER      NOT NULL,
+    ORDER_ID        UUID         NOT NULL,
+    CUSTOMER_ID     UUID         NOT NULL,
+    NAME            VARCHAR(50)  NOT NULL,
+    STATUS          VARCHAR(20)  NOT NULL,
+    ITEM_COUNT      INTEGER      NOT NULL,
+    PENDING_ITEMS   INTEGER      NOT NULL,
+    RESERVED_ITEMS  INTEGER      NOT NULL,
+    CONFIRMED_ITEMS INTEGER      NOT NULL,
+    REJECTED_ITEMS  INTEGER      NOT NULL,
+    FAILED_ITEMS    INTEGER      NOT NULL,
+    CREATED         TIMESTAMP(6) NOT NULL,
+    MODIFIED        TIMESTAMP(6),
+    CONSTRAINT ORDER_SUMMARIES_PK PRIMARY KEY (ID),
+    CONSTRAINT ORDER_SUMMARIES_ORDER_ID_UC UNIQUE (ORDER_ID)
+);
+
+CREATE INDEX ORDER_SUMMARIES_CUSTOMER_ID_STATUS_ID_IX ON ORDER_SUMMARIES (CUSTOMER_ID, STATUS, ID);
+
+CREATE INDEX ORDER_SUMMARIES_CUSTOMER_ID_ID_IX ON ORDER_SUMMARIES (CUSTOMER_ID, ID);
+
+CREATE INDEX ORDER_SUMMARIES_STATUS_ID_IX ON ORDER_SUMMARIES (STATUS, ID);
+
+INSERT INTO ORDER_SUMMARIES (ID, ORDER_ID, CUSTOMER_ID, NAME, STATUS, ITEM_COUNT, PENDING_ITEMS, RESERVED_ITEMS,
+                             CONFIRMED_ITEMS, REJECTED_ITEMS, FAILED_ITEMS, CREATED, MODIFIED)
+SELECT O.ID,
+       O.ORDER_ID,
+       O.CUSTOMER_ID,
+       O.NAME,
+       O.STATUS,
+       SUM(CASE WHEN I.STATUS <> 'DELETED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN I.STATUS = 'PENDING' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN I.STATUS = 'RESERVED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN I.STATUS = 'CONFIRMED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN I.STATUS = 'REJECTED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN I.STATUS = 'FAILED' THEN 1 ELSE 0 END),
+       O.CREATED,
+       O.MODIFIED
+FROM ORDERS O
+         LEFT JOIN ORDER_ITEMS I ON I.ORDER_ID = O.ID
+GROUP BY O.ID, O.ORDER_ID, O.CUSTOMER_ID, O.NAME, O.STATUS, O.CREATED, O.MODIFIED;
@@ -0,0 +1,188 @@
+package no.acntech.idempotency.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import no.acntech.idempotency.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Passes requests through the filter to a handler that records the bodies it reads and answers with the status it is
+ * told to. Keys are claimed and completed in the database of the application.
+ */
+@SpringBootTest(properties = {
+        "app.reservation.stream.enabled=false",
+        "app.reservation.outbox.interval=PT1H",
+        "app.idempotency.purge-interval=PT1H"
+})
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"name\":\"Order\"}";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+    private IdempotencyFilter idempotencyFilter;
+    private RecordingHandler handler;
+    private String idempotencyKey;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyFilter = new IdempotencyFilter(idempotencyService);
+        handler = new RecordingHandler();
+        idempotencyKey = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void replaysTheResponseToARepeatedRequest() throws Exception {
+        final var firstResponse = send(BODY);
+        final var secondResponse = send(BODY);
+
+        assertThat(handler.bodies).containsExactly(BODY);
+        assertThat(secondResponse.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(secondResponse.getHeader(HttpHeaders.LOCATION)).isEqualTo(firstResponse.getHeader(HttpHeaders.LOCATION));
+        assertThat(secondResponse.getContentAsString()).isEqualTo(firstResponse.getContentAsString());
+        assertThat(secondResponse.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(firstResponse.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void refusesTheKeyForADifferentRequest() {
+        send(BODY);
+
+        final var response = send("{\"name\":\"Other order\"}");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY.value());
+        assertThat(handler.bodies).containsExactly(BODY);
+    }
+
+    @Test
+    void refusesTheKeyWhileAnotherRequestHoldsIt() {
+        final var otherFilter = new IdempotencyFilter(idempotencyService);
+        final RecordingHandler otherHandler = new RecordingHandler() {
+
+            @Override
+            protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+                // The first request is still being handled when the same key comes in again
+                final var concurrentResponse = send(BODY);
+                assertThat(concurrentResponse.getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+                super.service(request, response);
+            }
+        };
+
+        final var response = send(otherFilter, otherHandler, BODY);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(otherHandler.bodies).containsExactly(BODY);
+        assertThat(handler.bodies).isEmpty();
+    }
+
+    @Test
+    void releasesTheKeyAfterAnUnsuccessfulResponse() {
+        handler.status = HttpStatus.SERVICE_UNAVAILABLE;
+        final var failedResponse = send(BODY);
+        handler.status = HttpStatus.CREATED;
+        final var retriedResponse = send(BODY);
+
+        assertThat(failedResponse.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(retriedResponse.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(retriedResponse.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER)).isNull();
+        assertThat(handler.bodies).containsExactly(BODY, BODY);
+    }
+
+    @Test
+    void hasTheBodyReadThroughAReadListener() {
+        handler.readListener = true;
+
+        final var response = send(BODY);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(handler.bodies).containsExactly(BODY);
+    }
+
+    private MockHttpServletResponse send(final String body) {
+        return send(idempotencyFilter, handler, body);
+    }
+
+    private MockHttpServletResponse send(final IdempotencyFilter filter, final HttpServlet servlet, final String body) {
+        final var request = new MockHttpServletRequest("POST", "/api/orders");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        final var response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain(servlet));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    /**
+     * Creates an order from the body, which is read either blocking or through a {@link ReadListener}.
+     */
+    private static class RecordingHandler extends HttpServlet {
+
+        private final List<String> bodies = new ArrayList<>();
+        private HttpStatus status = HttpStatus.CREATED;
+        private boolean readListener;
+
+        @Override
+        protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+            bodies.add(readListener ? readWithListener(request.getInputStream()) : new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            response.setStatus(status.value());
+            response.setHeader(HttpHeaders.LOCATION, "/api/orders/" + UUID.randomUUID());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"id\":\"" + UUID.randomUUID() + "\"}");
+        }
+
+        private static String readWithListener(final ServletInputStream inputStream) throws IOException {
+            final var body = new ByteArrayOutputStream();
+            final var allDataRead = new boolean[1];
+            inputStream.setReadListener(new ReadListener() {
+
+                @Override
+                public void onDataAvailable() throws IOException {
+                    final var buffer = new byte[4];
+                    while (inputStream.isReady() && !inputStream.isFinished()) {
+                        final var read = inputStream.read(buffer);
+                        if (read > 0) {
+                            body.write(buffer, 0, read);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead[0] = true;
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    throw new IllegalStateException(throwable);
+                }
+            });
+            assertThat(allDataRead[0]).isTrue();
+            return body.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package no.acntech.idempotency.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.acntech.common.config.IdempotencyProperties;
+import no.acntech.idempotency.exception.IdempotencyKeyInUseException;
+import no.acntech.idempotency.exception.IdempotencyKeyMismatchException;
+import no.acntech.idempotency.model.IdempotentResponse;
+import no.acntech.idempotency.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Claims keys against the database of the application, through services of their own so that the lock timeout can be
+ * kept short. A second service on the same database starts with an empty cache, like another instance would.
+ */
+@SpringBootTest(properties = {
+        "app.reservation.stream.enabled=false",
+        "app.reservation.outbox.interval=PT1H",
+        "app.idempotency.purge-interval=PT1H"
+})
+class IdempotencyServiceTest {
+
+    private static final Duration LOCK_TIMEOUT = Duration.ofMillis(500);
+    private static final String FINGERPRINT = "fingerprint";
+    private static final IdempotentResponse RESPONSE = new IdempotentResponse(FINGERPRINT, 201, "/api/orders/1", "application/json", "{\"id\":1}");
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private IdempotencyService idempotencyService;
+    private String idempotencyKey;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = idempotencyService();
+        idempotencyKey = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void claimsAKeyNotSeenBefore() {
+        assertThat(idempotencyService.claimKey(idempotencyKey, FINGERPRINT)).isEmpty();
+    }
+
+    @Test
+    void replaysTheResponseOfACompletedKey() {
+        claimAndComplete();
+
+        assertThat(idempotencyService.claimKey(idempotencyKey, FINGERPRINT)).contains(RESPONSE);
+    }
+
+    @Test
+    void replaysTheResponseOfACompletedKeyFromTheDatabaseWithAnEmptyCache() {
+        claimAndComplete();
+
+        assertThat(idempotencyService().claimKey(idempotencyKey, FINGERPRINT)).contains(RESPONSE);
+    }
+
+    @Test
+    void refusesACompletedKeyForADifferentRequest() {
+        claimAndComplete();
+
+        assertThatThrownBy(() -> idempotencyService.claimKey(idempotencyKey, "other"))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThatThrownBy(() -> idempotencyService().claimKey(idempotencyKey, "other"))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void refusesAKeyWhileAnotherRequestHoldsIt() {
+        idempotencyService.claimKey(idempotencyKey, FINGERPRINT);
+
+        assertThatThrownBy(() -> idempotencyService.claimKey(idempotencyKey, FINGERPRINT))
+                .isInstanceOf(IdempotencyKeyInUseException.class);
+        assertThatThrownBy(() -> idempotencyService().claimKey(idempotencyKey, FINGERPRINT))
+                .isInstanceOf(IdempotencyKeyInUseException.class);
+    }
+
+    @Test
+    void takesOverAKeyHeldPastTheLockTimeout() throws InterruptedException {
+        idempotencyService.claimKey(idempotencyKey, FINGERPRINT);
+
+        Thread.sleep(LOCK_TIMEOUT.toMillis());
+
+        assertThat(idempotencyService().claimKey(idempotencyKey, "other")).isEmpty();
+        assertThatThrownBy(() -> idempotencyService.claimKey(idempotencyKey, "other"))
+                .isInstanceOf(IdempotencyKeyInUseException.class);
+    }
+
+    @Test
+    void claimsAReleasedKeyAgain() {
+        idempotencyService.claimKey(idempotencyKey, FINGERPRINT);
+
+        idempotencyService.releaseKey(idempotencyKey);
+
+        assertThat(idempotencyService.claimKey(idempotencyKey, "other")).isEmpty();
+    }
+
+    @Test
+    void doesNotReleaseACompletedKey() {
+        claimAndComplete();
+
+        idempotencyService.releaseKey(idempotencyKey);
+
+        assertThat(idempotencyService().claimKey(idempotencyKey, FINGERPRINT)).contains(RESPONSE);
+    }
+
+    private void claimAndComplete() {
+        assertThat(idempotencyService.claimKey(idempotencyKey, FINGERPRINT)).isEmpty();
+        idempotencyService.completeKey(idempotencyKey, FINGERPRINT, RESPONSE.status(), RESPONSE.location(), RESPONSE.contentType(), RESPONSE.body());
+    }
+
+    private IdempotencyService idempotencyService() {
+        final var idempotencyProperties = new IdempotencyProperties();
+        idempotencyProperties.setLockTimeout(LOCK_TIMEOUT);
+        return new IdempotencyService(idempotencyKeyRepository, idempotencyProperties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,160 @@
+package no.acntech.order.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import no.acntech.order.model.OrderCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through the orders of one customer with the cursor, and exports them as NDJSON. Each test has a customer of its
+ * own, so the orders of other tests do not show up.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "app.reservation.stream.enabled=false",
+        "app.reservation.outbox.interval=PT1H",
+        "app.idempotency.purge-interval=PT1H"
+})
+class OrdersResourceTest {
+
+    private static final int ORDERS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private UUID customerId;
+    private List<String> orderIds;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        customerId = UUID.randomUUID();
+        orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            final var response = mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"customerId\": \"%s\", \"name\": \"Order %d\"}".formatted(customerId, i)))
+                    .andExpect(status().isCreated())
+                    .andReturn()
+                    .getResponse();
+            orderIds.add(objectMapper.readTree(response.getContentAsString()).get("orderId").asText());
+        }
+    }
+
+    @Test
+    void pagesThroughTheOrdersWithTheCursor() throws Exception {
+        final var firstPage = find("?customerId=%s&limit=2".formatted(customerId));
+        final var secondPage = find("?customerId=%s&limit=2&after=%s".formatted(customerId, firstPage.get("nextCursor").asText()));
+        final var lastPage = find("?customerId=%s&limit=2&after=%s".formatted(customerId, secondPage.get("nextCursor").asText()));
+
+        assertThat(orderIds(firstPage)).containsExactlyElementsOf(orderIds.subList(0, 2));
+        assertThat(orderIds(secondPage)).containsExactlyElementsOf(orderIds.subList(2, 4));
+        assertThat(orderIds(lastPage)).containsExactlyElementsOf(orderIds.subList(4, 5));
+        assertThat(lastPage.has("nextCursor")).isFalse();
+    }
+
+    @Test
+    void leavesOutTheNextCursorWhenThePageHoldsTheLastOrder() throws Exception {
+        final var page = find("?customerId=%s&limit=%d".formatted(customerId, ORDERS));
+
+        assertThat(orderIds(page)).containsExactlyElementsOf(orderIds);
+        assertThat(page.has("nextCursor")).isFalse();
+    }
+
+    @Test
+    void appliesTheFiltersToEveryPage() throws Exception {
+        mockMvc.perform(delete("/api/orders/{id}", orderIds.get(1))).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/orders/{id}", orderIds.get(3))).andExpect(status().isOk());
+
+        final var firstPage = find("?customerId=%s&status=CANCELED&limit=1".formatted(customerId));
+        final var secondPage = find("?customerId=%s&status=CANCELED&limit=1&after=%s".formatted(customerId, firstPage.get("nextCursor").asText()));
+
+        assertThat(orderIds(firstPage)).containsExactly(orderIds.get(1));
+        assertThat(orderIds(secondPage)).containsExactly(orderIds.get(3));
+        assertThat(secondPage.has("nextCursor")).isFalse();
+    }
+
+    @Test
+    void refusesAnInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/orders?customerId={customerId}&after={after}", customerId, "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportsEveryOrderAsOneLineOfJson() throws Exception {
+        final var lines = export("?customerId=%s".formatted(customerId));
+
+        assertThat(lines).hasSize(ORDERS);
+        assertThat(lines).extracting(line -> line.get("orderId").asText()).containsExactlyElementsOf(orderIds);
+        assertThat(lines).allSatisfy(line -> assertThat(line.get("items").isArray()).isTrue());
+    }
+
+    @Test
+    void exportsTheOrdersAfterTheCursor() throws Exception {
+        final var firstPage = find("?customerId=%s&limit=2".formatted(customerId));
+
+        final var lines = export("?customerId=%s&after=%s".formatted(customerId, firstPage.get("nextCursor").asText()));
+
+        assertThat(lines).extracting(line -> line.get("orderId").asText()).containsExactlyElementsOf(orderIds.subList(2, ORDERS));
+    }
+
+    @Test
+    void encodesTheCursorOpaquely() {
+        final var cursor = OrderCursor.encode(42L);
+
+        assertThat(cursor).doesNotContain("42");
+        assertThat(OrderCursor.decode(cursor)).isEqualTo(42L);
+        assertThat(OrderCursor.decode(null)).isZero();
+    }
+
+    private JsonNode find(final String query) throws Exception {
+        final var response = mockMvc.perform(get("/api/orders" + query))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse();
+        return objectMapper.readTree(response.getContentAsString());
+    }
+
+    private List<JsonNode> export(final String query) throws Exception {
+        final var result = mockMvc.perform(get("/api/orders" + query)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final var response = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        final var lines = new ArrayList<JsonNode>();
+        for (String line : response.getContentAsString().split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static List<String> orderIds(final JsonNode page) {
+        final var orderIds = new ArrayList<String>();
+        page.get("items").forEach(item -> orderIds.add(item.get("orderId").asText()));
+        return orderIds;
+    }
+}
@@ -0,0 +1,141 @@
+package no.acntech.order.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import no.acntech.order.model.OrderDto;
+import no.acntech.order.model.OrderEntity;
+import no.acntech.order.model.OrderItemEntity;
+import no.acntech.order.model.OrderQuery;
+import no.acntech.order.model.OrderSummaryEntity;
+import no.acntech.order.repository.OrderRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements Hibernate prepares for order reads, so that a query per order or per item shows up as a
+ * failure rather than as a slow listing in production. The statistics cover all sessions, so the scheduled jobs are
+ * held back while the tests run.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.reservation.stream.enabled=false",
+        "app.reservation.outbox.interval=PT1H",
+        "app.idempotency.purge-interval=PT1H"
+})
+class OrderStatementCountTest {
+
+    private static final int ORDERS = 100;
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private UUID customerId;
+    private List<UUID> orderIds;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        customerId = UUID.randomUUID();
+        ids = new ArrayList<>();
+        orderIds = transactionTemplate.execute(status -> {
+            final var createdOrderIds = new ArrayList<UUID>();
+            for (int i = 0; i < ORDERS; i++) {
+                final var orderEntity = OrderEntity.builder()
+                        .customerId(customerId)
+                        .name("Order " + i)
+                        .build();
+                for (int j = 0; j < ITEMS; j++) {
+                    orderEntity.addItem(OrderItemEntity.builder()
+                            .productId(UUID.randomUUID())
+                            .quantity(1L)
+                            .build());
+                }
+                entityManager.persist(orderEntity);
+                entityManager.persist(OrderSummaryEntity.builder()
+                        .order(orderEntity)
+                        .build());
+                createdOrderIds.add(orderEntity.getOrderId());
+                ids.add(orderEntity.getId());
+            }
+            return createdOrderIds;
+        });
+    }
+
+    @Test
+    void findOrdersRunsTheSameStatementsForAnyPageSize() {
+        final var smallPageStatements = statementsToFind(10);
+        final var fullPageStatements = statementsToFind(ORDERS);
+
+        assertThat(fullPageStatements).isEqualTo(smallPageStatements);
+        assertThat(fullPageStatements).isEqualTo(1);
+    }
+
+    @Test
+    void streamOrdersReadsOrdersWithTheirItemsInOneStatement() {
+        final var orderQuery = new OrderQuery();
+        orderQuery.setCustomerId(customerId);
+        final var orderDtos = new ArrayList<OrderDto>();
+
+        statistics.clear();
+        orderService.streamOrders(orderQuery, orderDtos::add);
+
+        assertThat(orderDtos).hasSize(ORDERS);
+        assertThat(orderDtos).allSatisfy(orderDto -> assertThat(orderDto.getItems()).hasSize(ITEMS));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getOrderReadsTheOrderWithItsItemsInOneStatement() {
+        statistics.clear();
+        final var orderDto = orderService.getOrder(orderIds.get(0));
+
+        assertThat(orderDto.getItems()).hasSize(ITEMS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadingOrdersThroughTheRepositoryLoadsTheirItemsInBatches() {
+        statistics.clear();
+        final var itemCounts = transactionTemplate.execute(status -> orderRepository.findAllById(ids)
+                .stream()
+                .map(orderEntity -> orderEntity.getItems().size())
+                .toList());
+
+        assertThat(itemCounts).hasSize(ORDERS).containsOnly(ITEMS);
+        // One statement for the orders, and one for the items of each batch of up to 100 orders
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private long statementsToFind(final int limit) {
+        final var orderQuery = new OrderQuery();
+        orderQuery.setCustomerId(customerId);
+        orderQuery.setLimit(limit);
+
+        statistics.clear();
+        final var orderPageDto = orderService.findOrders(orderQuery);
+
+        assertThat(orderPageDto.getItems()).hasSize(Math.min(limit, ORDERS));
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,162 @@
+package no.acntech.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import no.acntech.order.model.CreateOrderItemDto;
+import no.acntech.order.model.OrderEntity;
+import no.acntech.order.model.OrderItemCounts;
+import no.acntech.order.model.OrderItemDto;
+import no.acntech.order.model.OrderItemEntity;
+import no.acntech.order.model.OrderItemStatus;
+import no.acntech.order.model.OrderQuery;
+import no.acntech.order.model.OrderSummaryDto;
+import no.acntech.order.model.OrderSummaryEntity;
+import no.acntech.order.model.UpdateOrderItemDto;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes to the items of one order from many threads at once, the way the API, the outbox relay and the reservation
+ * stream do, and checks that the summary of the order still counts the items as they ended up.
+ */
+@SpringBootTest(properties = {
+        "app.reservation.stream.enabled=false",
+        "app.reservation.outbox.interval=PT1H",
+        "app.idempotency.purge-interval=PT1H"
+})
+class OrderSummaryConcurrencyTest {
+
+    private static final int ITEMS = 20;
+    private static final int NEW_ITEMS = 5;
+    private static final long TIMEOUT_SECONDS = 60;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private UUID customerId;
+    private UUID orderId;
+    private List<UUID> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        customerId = UUID.randomUUID();
+        final var orderEntity = transactionTemplate.execute(status -> {
+            final var createdOrderEntity = OrderEntity.builder()
+                    .customerId(customerId)
+                    .name("Order")
+                    .build();
+            for (int i = 0; i < ITEMS; i++) {
+                createdOrderEntity.addItem(OrderItemEntity.builder()
+                        .productId(UUID.randomUUID())
+                        .quantity(1L)
+                        .build());
+            }
+            entityManager.persist(createdOrderEntity);
+            entityManager.persist(OrderSummaryEntity.builder()
+                    .order(createdOrderEntity)
+                    .build());
+            return createdOrderEntity;
+        });
+        orderId = orderEntity.getOrderId();
+        itemIds = orderEntity.getItems().stream()
+                .map(OrderItemEntity::getItemId)
+                .toList();
+    }
+
+    @Test
+    void summaryCountsTheItemsAfterConcurrentItemWrites() throws Exception {
+        final var writes = new ArrayList<Callable<?>>();
+        for (int i = 0; i < ITEMS; i++) {
+            final var itemId = itemIds.get(i);
+            writes.add(switch (i % 4) {
+                case 0 -> () -> orderService.updateOrderItem(itemId, UpdateOrderItemDto.builder()
+                        .quantity(2L)
+                        .status(OrderItemStatus.REJECTED)
+                        .build());
+                case 1 -> () -> orderService.reserveOrderItem(itemId, ReservationDto.builder()
+                        .reservationId(UUID.randomUUID())
+                        .quantity(1L)
+                        .status(ReservationStatus.RESERVED)
+                        .build());
+                case 2 -> () -> orderService.failOrderItem(itemId);
+                default -> () -> orderService.deleteOrderItem(itemId);
+            });
+        }
+        for (int i = 0; i < NEW_ITEMS; i++) {
+            writes.add(() -> orderService.createOrderItem(orderId, createOrderItem()));
+        }
+
+        runAtOnce(writes);
+
+        final var orderDto = orderService.getOrder(orderId);
+        final var counts = OrderItemCounts.of(orderDto.getItems().stream()
+                .map(OrderItemDto::getStatus)
+                .toList());
+        assertThat(counts.total()).isEqualTo(ITEMS - ITEMS / 4 + NEW_ITEMS);
+        assertThat(summary())
+                .returns(counts.total(), OrderSummaryDto::getItemCount)
+                .returns(counts.pending(), OrderSummaryDto::getPendingItems)
+                .returns(counts.reserved(), OrderSummaryDto::getReservedItems)
+                .returns(counts.confirmed(), OrderSummaryDto::getConfirmedItems)
+                .returns(counts.rejected(), OrderSummaryDto::getRejectedItems)
+                .returns(counts.failed(), OrderSummaryDto::getFailedItems);
+    }
+
+    private OrderSummaryDto summary() {
+        final var orderQuery = new OrderQuery();
+        orderQuery.setCustomerId(customerId);
+        final var orderPageDto = orderService.findOrders(orderQuery);
+        assertThat(orderPageDto.getItems()).hasSize(1);
+        return orderPageDto.getItems().get(0);
+    }
+
+    private CreateOrderItemDto createOrderItem() throws Exception {
+        return objectMapper.readValue("""
+                {"productId": "%s", "quantity": 1, "status": "PENDING"}
+                """.formatted(UUID.randomUUID()), CreateOrderItemDto.class);
+    }
+
+    /**
+     * Runs all the writes from their own threads, released together so that as many as possible overlap.
+     */
+    private static void runAtOnce(final List<Callable<?>> writes) throws Exception {
+        final var executor = Executors.newFixedThreadPool(writes.size());
+        try {
+            final var start = new CountDownLatch(1);
+            final var futures = new ArrayList<Future<?>>();
+            for (Callable<?> write : writes) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return write.call();
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package no.acntech.reservation.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Loads reservations through a loader that counts its calls, and that can be held back until the test completes the
+ * load.
+ */
+class ReservationCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private final ReservationCache reservationCache = new ReservationCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final UUID reservationId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void sharesOneLoadBetweenConcurrentLookups() {
+        final Sinks.One<ReservationDto> load = Sinks.one();
+        final var loader = loader(reservationId -> load.asMono());
+
+        final var first = reservationCache.get(reservationId, loader).toFuture();
+        final var second = reservationCache.get(reservationId, loader).toFuture();
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+        final var reservationDto = reservation(ReservationStatus.RESERVED);
+        load.tryEmitValue(reservationDto);
+
+        assertThat(first.join()).isEqualTo(reservationDto);
+        assertThat(second.join()).isEqualTo(reservationDto);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void keepsLoadingForTheOthersWhenOneLookupIsCancelled() {
+        final Sinks.One<ReservationDto> load = Sinks.one();
+        final var loader = loader(reservationId -> load.asMono());
+
+        final var cancelled = reservationCache.get(reservationId, loader).subscribe();
+        final var waiting = reservationCache.get(reservationId, loader).toFuture();
+        cancelled.dispose();
+        final var reservationDto = reservation(ReservationStatus.RESERVED);
+        load.tryEmitValue(reservationDto);
+
+        assertThat(waiting.join()).isEqualTo(reservationDto);
+        assertThat(reservationCache.getIfPresent(reservationId)).isEqualTo(reservationDto);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void servesACachedReservationWithoutLoadingIt() {
+        final var reservationDto = reservation(ReservationStatus.RESERVED);
+        reservationCache.put(reservationDto);
+
+        assertThat(reservationCache.get(reservationId, loader(reservationId -> Mono.empty())).block(TIMEOUT)).isEqualTo(reservationDto);
+        assertThat(reservationCache.getIfPresent(reservationId)).isEqualTo(reservationDto);
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void doesNotServeALoadThatIsStillInFlight() {
+        final Sinks.One<ReservationDto> load = Sinks.one();
+        reservationCache.get(reservationId, loader(reservationId -> load.asMono())).subscribe();
+
+        assertThat(reservationCache.getIfPresent(reservationId)).isNull();
+    }
+
+    @Test
+    void loadsAgainAfterTheReservationIsInvalidated() {
+        final var cachedReservationDto = reservation(ReservationStatus.RESERVED);
+        final var loadedReservationDto = reservation(ReservationStatus.CONFIRMED);
+        reservationCache.put(cachedReservationDto);
+
+        reservationCache.invalidate(reservationId);
+
+        assertThat(reservationCache.getIfPresent(reservationId)).isNull();
+        assertThat(reservationCache.get(reservationId, loader(reservationId -> Mono.just(loadedReservationDto))).block(TIMEOUT)).isEqualTo(loadedReservationDto);
+        assertThat(reservationCache.getIfPresent(reservationId)).isEqualTo(loadedReservationDto);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void replacesTheCachedReservationWithTheOnePut() {
+        reservationCache.put(reservation(ReservationStatus.RESERVED));
+        final var canceledReservationDto = reservation(ReservationStatus.CANCELED);
+
+        reservationCache.put(canceledReservationDto);
+
+        assertThat(reservationCache.getIfPresent(reservationId)).isEqualTo(canceledReservationDto);
+    }
+
+    @Test
+    void doesNotCacheALoadThatFindsNothing() {
+        final var loader = loader(reservationId -> Mono.<ReservationDto>empty());
+
+        assertThat(reservationCache.get(reservationId, loader).block(TIMEOUT)).isNull();
+        assertThat(reservationCache.get(reservationId, loader).block(TIMEOUT)).isNull();
+
+        assertThat(reservationCache.getIfPresent(reservationId)).isNull();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void doesNotCacheALoadThatFails() {
+        final var failingLoader = loader(reservationId -> Mono.<ReservationDto>error(new IllegalStateException("Warehouse is down")));
+        final var reservationDto = reservation(ReservationStatus.RESERVED);
+
+        assertThatThrownBy(() -> reservationCache.get(reservationId, failingLoader).block(TIMEOUT))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(reservationCache.getIfPresent(reservationId)).isNull();
+
+        assertThat(reservationCache.get(reservationId, loader(reservationId -> Mono.just(reservationDto))).block(TIMEOUT)).isEqualTo(reservationDto);
+        assertThat(loads).hasValue(2);
+    }
+
+    private Function<UUID, Mono<ReservationDto>> loader(final Function<UUID, Mono<ReservationDto>> loader) {
+        return reservationId -> {
+            loads.incrementAndGet();
+            return loader.apply(reservationId);
+        };
+    }
+
+    private ReservationDto reservation(final ReservationStatus status) {
+        return ReservationDto.builder()
+                .reservationId(reservationId)
+                .productId(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .quantity(1L)
+                .status(status)
+                .build();
+    }
+}
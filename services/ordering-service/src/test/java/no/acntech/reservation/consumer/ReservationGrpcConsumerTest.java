@@ -0,0 +1,392 @@
+package no.acntech.reservation.consumer;
+
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.proto.CreateReservationRequest;
+import no.acntech.reservation.proto.CreateReservationsRequest;
+import no.acntech.reservation.proto.CreateReservationsResponse;
+import no.acntech.reservation.proto.DeleteReservationRequest;
+import no.acntech.reservation.proto.FindReservationsRequest;
+import no.acntech.reservation.proto.GetReservationRequest;
+import no.acntech.reservation.proto.ProtoTypes;
+import no.acntech.reservation.proto.Reservation;
+import no.acntech.reservation.proto.ReservationServiceGrpc;
+import no.acntech.reservation.proto.ReservationStatus;
+import no.acntech.reservation.proto.UpdateReservationRequest;
+import no.acntech.reservation.proto.WatchReservationsRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Calls a fake warehouse-service over the in-process transport, through the {@code warehouse} channel of the
+ * application, so that the cache and the resilience policies take part as they do over the network. Reads are not
+ * hedged, so that every call the fake counts was asked for by the consumer.
+ */
+@SpringBootTest(properties = {
+        "app.service.warehouse.protocol=grpc",
+        "app.service.warehouse.client.response-timeout=PT0.5S",
+        "app.reservation.hedge-delay=PT0S",
+        "grpc.client.warehouse.address=in-process:" + ReservationGrpcConsumerTest.SERVER_NAME,
+        "app.reservation.stream.enabled=false",
+        "app.reservation.outbox.interval=PT1H",
+        "app.idempotency.purge-interval=PT1H"
+})
+class ReservationGrpcConsumerTest {
+
+    static final String SERVER_NAME = "reservation-grpc-consumer-test";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final FakeReservationService RESERVATION_SERVICE = new FakeReservationService();
+    private static Server server;
+
+    @Autowired
+    private ReservationConsumer reservationConsumer;
+    private UUID orderId;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = InProcessServerBuilder.forName(SERVER_NAME)
+                .addService(RESERVATION_SERVICE)
+                .build()
+                .start();
+    }
+
+    @AfterAll
+    static void stopServer() throws InterruptedException {
+        server.shutdownNow().awaitTermination(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RESERVATION_SERVICE.reset();
+        orderId = UUID.randomUUID();
+    }
+
+    @Test
+    void usesTheGrpcConsumer() {
+        assertThat(reservationConsumer).isInstanceOf(ReservationGrpcConsumer.class);
+    }
+
+    @Test
+    void getsAReservationOnceAndThenFromTheCache() {
+        final var reservation = RESERVATION_SERVICE.add(orderId, ReservationStatus.RESERVED);
+        final var reservationId = ProtoTypes.toUuid(reservation.getReservationId());
+
+        final var first = reservationConsumer.get(reservationId).block(TIMEOUT);
+        final var second = reservationConsumer.get(reservationId).block(TIMEOUT);
+
+        assertThat(first).isNotNull();
+        assertThat(first.getReservationId()).isEqualTo(reservationId);
+        assertThat(first.getOrderId()).isEqualTo(orderId);
+        assertThat(first.getStatus()).isEqualTo(no.acntech.reservation.model.ReservationStatus.RESERVED);
+        assertThat(second).isEqualTo(first);
+        assertThat(RESERVATION_SERVICE.calls("get")).isEqualTo(1);
+    }
+
+    @Test
+    void answersNothingForAnUnknownReservation() {
+        assertThat(reservationConsumer.get(UUID.randomUUID()).block(TIMEOUT)).isNull();
+        assertThat(RESERVATION_SERVICE.calls("get")).isEqualTo(1);
+    }
+
+    @Test
+    void retriesAReadThatRunsPastItsDeadline() {
+        RESERVATION_SERVICE.hanging = true;
+
+        assertThatThrownBy(() -> reservationConsumer.get(UUID.randomUUID()).block(TIMEOUT))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.DEADLINE_EXCEEDED));
+        assertThat(RESERVATION_SERVICE.calls("get")).isEqualTo(3);
+    }
+
+    @Test
+    void findsTheReservationsOfAnOrder() {
+        final var first = RESERVATION_SERVICE.add(orderId, ReservationStatus.RESERVED);
+        final var second = RESERVATION_SERVICE.add(orderId, ReservationStatus.CONFIRMED);
+        RESERVATION_SERVICE.add(UUID.randomUUID(), ReservationStatus.RESERVED);
+
+        final var reservationDtos = reservationConsumer.find(orderId).collectList().block(TIMEOUT);
+
+        assertThat(reservationDtos).extracting(ReservationDto::getReservationId)
+                .containsExactlyInAnyOrder(ProtoTypes.toUuid(first.getReservationId()), ProtoTypes.toUuid(second.getReservationId()));
+    }
+
+    @Test
+    void createsABatchOfReservationsInRequestOrder() {
+        final var createReservationDtos = List.of(create(1), create(2), create(3));
+
+        final var reservationDtos = reservationConsumer.create(createReservationDtos).collectList().block(TIMEOUT);
+
+        assertThat(reservationDtos).extracting(ReservationDto::getQuantity).containsExactly(1L, 2L, 3L);
+        assertThat(reservationDtos).extracting(ReservationDto::getProductId)
+                .containsExactlyElementsOf(createReservationDtos.stream().map(CreateReservationDto::getProductId).toList());
+        assertThat(RESERVATION_SERVICE.calls("create-batch")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheUpdatedReservationInTheCache() {
+        final var reservation = RESERVATION_SERVICE.add(orderId, ReservationStatus.RESERVED);
+        final var reservationId = ProtoTypes.toUuid(reservation.getReservationId());
+        reservationConsumer.get(reservationId).block(TIMEOUT);
+
+        final var updated = reservationConsumer.update(reservationId, UpdateReservationDto.builder().quantity(7L).build()).block(TIMEOUT);
+
+        assertThat(updated).isNotNull();
+        assertThat(updated.getQuantity()).isEqualTo(7L);
+        assertThat(reservationConsumer.get(reservationId).block(TIMEOUT)).isEqualTo(updated);
+        assertThat(RESERVATION_SERVICE.calls("update")).isEqualTo(1);
+        assertThat(RESERVATION_SERVICE.calls("get")).isEqualTo(1);
+    }
+
+    @Test
+    void answersChangesToAFinalReservationFromTheCache() {
+        final var confirmed = ProtoTypes.toUuid(RESERVATION_SERVICE.add(orderId, ReservationStatus.CONFIRMED).getReservationId());
+        final var canceled = ProtoTypes.toUuid(RESERVATION_SERVICE.add(orderId, ReservationStatus.CANCELED).getReservationId());
+        reservationConsumer.get(confirmed).block(TIMEOUT);
+        reservationConsumer.get(canceled).block(TIMEOUT);
+
+        final var updated = reservationConsumer.update(confirmed, UpdateReservationDto.builder().statusConfirmed().build()).block(TIMEOUT);
+        final var deleted = reservationConsumer.delete(canceled).block(TIMEOUT);
+
+        assertThat(updated).isNotNull();
+        assertThat(updated.getStatus()).isEqualTo(no.acntech.reservation.model.ReservationStatus.CONFIRMED);
+        assertThat(deleted).isNotNull();
+        assertThat(deleted.getStatus()).isEqualTo(no.acntech.reservation.model.ReservationStatus.CANCELED);
+        assertThat(RESERVATION_SERVICE.calls("update")).isZero();
+        assertThat(RESERVATION_SERVICE.calls("delete")).isZero();
+    }
+
+    @Test
+    void streamsTheWatchedChangesUntilTheSubscriberCancels() throws InterruptedException {
+        final var received = new LinkedBlockingQueue<ReservationDto>();
+        final var subscription = reservationConsumer.watch(orderId).subscribe(received::add);
+        try {
+            final var watch = RESERVATION_SERVICE.watches.poll(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            assertThat(watch).isNotNull();
+            assertThat(ProtoTypes.toUuid(watch.request.getOrderId())).isEqualTo(orderId);
+
+            final var first = reservation(orderId, ReservationStatus.RESERVED);
+            final var second = reservation(orderId, ReservationStatus.CANCELED);
+            watch.responseObserver.onNext(first);
+            watch.responseObserver.onNext(second);
+
+            assertThat(received.poll(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).extracting(ReservationDto::getReservationId)
+                    .isEqualTo(ProtoTypes.toUuid(first.getReservationId()));
+            assertThat(received.poll(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).extracting(ReservationDto::getStatus)
+                    .isEqualTo(no.acntech.reservation.model.ReservationStatus.CANCELED);
+            subscription.dispose();
+            assertThat(watch.cancelled.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isTrue();
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    void asksForNoMoreWatchedChangesThanTheSubscriberRequested() throws InterruptedException {
+        final var received = new LinkedBlockingQueue<ReservationDto>();
+        final var subscriber = new BaseSubscriber<ReservationDto>() {
+
+            @Override
+            protected void hookOnSubscribe(final Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(final ReservationDto reservationDto) {
+                received.add(reservationDto);
+            }
+        };
+        reservationConsumer.watch(orderId).subscribe(subscriber);
+        try {
+            final var watch = RESERVATION_SERVICE.watches.poll(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            assertThat(watch).isNotNull();
+            assertThat(await(watch.responseObserver::isReady)).isTrue();
+
+            watch.responseObserver.onNext(reservation(orderId, ReservationStatus.RESERVED));
+
+            assertThat(received.poll(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isNotNull();
+            assertThat(watch.responseObserver.isReady()).isFalse();
+            subscriber.request(1);
+            assertThat(await(watch.responseObserver::isReady)).isTrue();
+        } finally {
+            subscriber.dispose();
+        }
+    }
+
+    private static boolean await(final BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private CreateReservationDto create(final long quantity) {
+        return CreateReservationDto.builder()
+                .orderId(orderId)
+                .productId(UUID.randomUUID())
+                .quantity(quantity)
+                .build();
+    }
+
+    private static Reservation reservation(final UUID orderId, final ReservationStatus status) {
+        return Reservation.newBuilder()
+                .setReservationId(ProtoTypes.toBytes(UUID.randomUUID()))
+                .setProductId(ProtoTypes.toBytes(UUID.randomUUID()))
+                .setOrderId(ProtoTypes.toBytes(orderId))
+                .setQuantity(1)
+                .setStatus(status)
+                .setCreated(ProtoTypes.toTimestamp(ZonedDateTime.now()))
+                .build();
+    }
+
+    /**
+     * Holds reservations in memory and counts the calls made to it. Reads can be made to hang, and watches are handed
+     * to the test to stream changes through.
+     */
+    private static final class FakeReservationService extends ReservationServiceGrpc.ReservationServiceImplBase {
+
+        private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        private final BlockingQueue<Watch> watches = new LinkedBlockingQueue<>();
+        private volatile boolean hanging;
+
+        private void reset() {
+            reservations.clear();
+            calls.clear();
+            watches.clear();
+            hanging = false;
+        }
+
+        private Reservation add(final UUID orderId, final ReservationStatus status) {
+            final var reservation = reservation(orderId, status);
+            reservations.put(ProtoTypes.toUuid(reservation.getReservationId()), reservation);
+            return reservation;
+        }
+
+        private int calls(final String operation) {
+            return calls.computeIfAbsent(operation, key -> new AtomicInteger()).get();
+        }
+
+        private void called(final String operation) {
+            calls.computeIfAbsent(operation, key -> new AtomicInteger()).incrementAndGet();
+        }
+
+        @Override
+        public void getReservation(final GetReservationRequest request,
+                                   final StreamObserver<Reservation> responseObserver) {
+            called("get");
+            if (hanging) {
+                return;
+            }
+            final var reservation = reservations.get(ProtoTypes.toUuid(request.getReservationId()));
+            if (reservation == null) {
+                responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(reservation);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void findReservations(final FindReservationsRequest request,
+                                     final StreamObserver<Reservation> responseObserver) {
+            called("find");
+            reservations.values().stream()
+                    .filter(reservation -> !request.hasOrderId() || reservation.getOrderId().equals(request.getOrderId()))
+                    .forEach(responseObserver::onNext);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void createReservations(final CreateReservationsRequest request,
+                                       final StreamObserver<CreateReservationsResponse> responseObserver) {
+            called("create-batch");
+            final var response = CreateReservationsResponse.newBuilder();
+            for (CreateReservationRequest createRequest : request.getReservationsList()) {
+                final var reservation = reservation(ProtoTypes.toUuid(createRequest.getOrderId()), ReservationStatus.RESERVED).toBuilder()
+                        .setProductId(createRequest.getProductId())
+                        .setQuantity(createRequest.getQuantity())
+                        .build();
+                reservations.put(ProtoTypes.toUuid(reservation.getReservationId()), reservation);
+                response.addReservations(reservation);
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void updateReservation(final UpdateReservationRequest request,
+                                      final StreamObserver<Reservation> responseObserver) {
+            called("update");
+            final var reservation = reservations.computeIfPresent(ProtoTypes.toUuid(request.getReservationId()), (reservationId, current) -> {
+                final var updated = current.toBuilder();
+                if (request.hasQuantity()) {
+                    updated.setQuantity(request.getQuantity());
+                }
+                if (request.hasStatus()) {
+                    updated.setStatus(request.getStatus());
+                }
+                return updated.build();
+            });
+            responseObserver.onNext(reservation);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void deleteReservation(final DeleteReservationRequest request,
+                                      final StreamObserver<Reservation> responseObserver) {
+            called("delete");
+            final var reservation = reservations.computeIfPresent(ProtoTypes.toUuid(request.getReservationId()), (reservationId, current) -> current.toBuilder()
+                    .setStatus(ReservationStatus.CANCELED)
+                    .build());
+            responseObserver.onNext(reservation);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void watchReservations(final WatchReservationsRequest request,
+                                      final StreamObserver<Reservation> responseObserver) {
+            final var watch = new Watch(request, (ServerCallStreamObserver<Reservation>) responseObserver);
+            watch.responseObserver.setOnCancelHandler(watch.cancelled::countDown);
+            watches.add(watch);
+        }
+    }
+
+    private record Watch(WatchReservationsRequest request,
+                         ServerCallStreamObserver<Reservation> responseObserver,
+                         CountDownLatch cancelled) {
+
+        private Watch(final WatchReservationsRequest request, final ServerCallStreamObserver<Reservation> responseObserver) {
+            this(request, responseObserver, new CountDownLatch(1));
+        }
+    }
+}
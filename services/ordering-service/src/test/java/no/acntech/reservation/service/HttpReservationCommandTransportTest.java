@@ -0,0 +1,189 @@
+package no.acntech.reservation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.Status;
+import no.acntech.order.service.OrderService;
+import no.acntech.order.service.ReservationReplyHandler;
+import no.acntech.reservation.consumer.ReservationConsumer;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationCommandEntity;
+import no.acntech.reservation.model.ReservationCommandType;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.transport.HttpReservationCommandTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sends commands to a stubbed warehouse-service, and checks which replies are applied and which commands are reported
+ * as delivered. Commands that are not delivered stay in the outbox to be sent again.
+ */
+class HttpReservationCommandTransportTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OrderService orderService = mock(OrderService.class);
+    private final ReservationReplyHandler reservationReplyHandler = mock(ReservationReplyHandler.class);
+    private final ReservationConsumer reservationConsumer = mock(ReservationConsumer.class);
+    private HttpReservationCommandTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        transport = new HttpReservationCommandTransport(orderService, reservationReplyHandler, reservationConsumer, objectMapper, 2);
+        when(orderService.getReservationIds(anyCollection())).thenReturn(Map.of());
+    }
+
+    @Test
+    void sendsTheCreateCommandsOfABatchInOneRequest() {
+        final var firstCommand = createCommand(UUID.randomUUID());
+        final var secondCommand = createCommand(UUID.randomUUID());
+        final var firstReservation = reservation(ReservationStatus.RESERVED);
+        final var secondReservation = reservation(ReservationStatus.RESERVED);
+        when(reservationConsumer.create(anyList())).thenReturn(Flux.just(firstReservation, secondReservation));
+
+        final var delivered = transport.send(List.of(firstCommand, secondCommand));
+
+        assertThat(delivered).containsExactlyInAnyOrder(firstCommand, secondCommand);
+        verify(reservationConsumer, never()).create(any(CreateReservationDto.class));
+        verify(reservationReplyHandler).onReservation(firstCommand.getItemId(), firstReservation);
+        verify(reservationReplyHandler).onReservation(secondCommand.getItemId(), secondReservation);
+    }
+
+    @Test
+    void sendsTheCreateCommandsOneByOneWhenTheBatchIsRefused() {
+        final var acceptedCommand = createCommand(UUID.randomUUID());
+        final var refusedCommand = createCommand(UUID.randomUUID());
+        final var reservation = reservation(ReservationStatus.RESERVED);
+        when(reservationConsumer.create(anyList())).thenReturn(Flux.error(Status.FAILED_PRECONDITION.asRuntimeException()));
+        when(reservationConsumer.create(any(CreateReservationDto.class))).thenReturn(
+                Mono.just(reservation),
+                Mono.error(Status.FAILED_PRECONDITION.asRuntimeException()));
+        when(reservationConsumer.find(any(UUID.class))).thenReturn(Flux.empty());
+
+        final var delivered = transport.send(List.of(acceptedCommand, refusedCommand));
+
+        assertThat(delivered).containsExactlyInAnyOrder(acceptedCommand, refusedCommand);
+        verify(reservationReplyHandler).onReservation(acceptedCommand.getItemId(), reservation);
+        verify(reservationReplyHandler).onRejected(refusedCommand.getItemId());
+    }
+
+    @Test
+    void keepsTheCommandsThatFailedToBeSent() {
+        final var updatedItemId = UUID.randomUUID();
+        final var failedItemId = UUID.randomUUID();
+        final var updatedReservationId = UUID.randomUUID();
+        final var failedReservationId = UUID.randomUUID();
+        final var updateCommand = updateCommand(updatedItemId);
+        final var failedCommand = deleteCommand(failedItemId);
+        final var reservation = reservation(ReservationStatus.RESERVED);
+        when(orderService.getReservationIds(anyCollection())).thenReturn(Map.of(
+                updatedItemId, updatedReservationId,
+                failedItemId, failedReservationId));
+        when(reservationConsumer.update(eq(updatedReservationId), any())).thenReturn(Mono.just(reservation));
+        when(reservationConsumer.delete(failedReservationId)).thenReturn(Mono.error(Status.UNAVAILABLE.asRuntimeException()));
+
+        final var delivered = transport.send(List.of(updateCommand, failedCommand));
+
+        assertThat(delivered).containsExactly(updateCommand);
+        verify(reservationReplyHandler).onReservation(updatedItemId, reservation);
+        verify(reservationReplyHandler, never()).onUnreserved(eq(failedItemId), any());
+    }
+
+    @Test
+    void keepsTheCommandsWhoseReplyFailedToBeApplied() {
+        final var command = createCommand(UUID.randomUUID());
+        final var reservation = reservation(ReservationStatus.RESERVED);
+        when(reservationConsumer.create(anyList())).thenReturn(Flux.just(reservation));
+        doThrow(new IllegalStateException("Database is down")).when(reservationReplyHandler).onReservation(command.getItemId(), reservation);
+
+        final var delivered = transport.send(List.of(command));
+
+        assertThat(delivered).isEmpty();
+    }
+
+    @Test
+    void takesTheStateOfTheReservationWhenAnUpdateIsRefused() {
+        final var itemId = UUID.randomUUID();
+        final var reservationId = UUID.randomUUID();
+        final var command = updateCommand(itemId);
+        final var confirmedReservation = reservation(ReservationStatus.CONFIRMED);
+        when(orderService.getReservationIds(anyCollection())).thenReturn(Map.of(itemId, reservationId));
+        when(reservationConsumer.update(eq(reservationId), any())).thenReturn(Mono.error(Status.FAILED_PRECONDITION.asRuntimeException()));
+        when(reservationConsumer.get(reservationId)).thenReturn(Mono.just(confirmedReservation));
+
+        final var delivered = transport.send(List.of(command));
+
+        assertThat(delivered).containsExactly(command);
+        verify(reservationReplyHandler).onReservation(itemId, confirmedReservation);
+    }
+
+    @Test
+    void settlesTheCommandsOfAnItemWithoutAReservationWithoutSendingThem() {
+        final var command = deleteCommand(UUID.randomUUID());
+
+        final var delivered = transport.send(List.of(command));
+
+        assertThat(delivered).containsExactly(command);
+        verify(reservationConsumer, never()).delete(any());
+        verify(reservationReplyHandler).onUnreserved(command.getItemId(), ReservationCommandType.DELETE);
+    }
+
+    private ReservationCommandEntity createCommand(final UUID itemId) {
+        return command(itemId, ReservationCommandType.CREATE, CreateReservationDto.builder()
+                .orderId(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .quantity(1L)
+                .build());
+    }
+
+    private ReservationCommandEntity updateCommand(final UUID itemId) {
+        return command(itemId, ReservationCommandType.UPDATE, UpdateReservationDto.builder()
+                .quantity(2L)
+                .build());
+    }
+
+    private ReservationCommandEntity deleteCommand(final UUID itemId) {
+        return command(itemId, ReservationCommandType.DELETE, null);
+    }
+
+    private ReservationCommandEntity command(final UUID itemId, final ReservationCommandType command, final Object payload) {
+        try {
+            return ReservationCommandEntity.builder()
+                    .itemId(itemId)
+                    .command(command)
+                    .payload(payload == null ? null : objectMapper.writeValueAsString(payload))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ReservationDto reservation(final ReservationStatus status) {
+        return ReservationDto.builder()
+                .reservationId(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .quantity(1L)
+                .status(status)
+                .build();
+    }
+}
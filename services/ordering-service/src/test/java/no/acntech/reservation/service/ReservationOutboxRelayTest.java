@@ -0,0 +1,212 @@
+package no.acntech.reservation.service;
+
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationCommandEntity;
+import no.acntech.reservation.model.ReservationCommandType;
+import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.repository.ReservationCommandRepository;
+import no.acntech.reservation.transport.ReservationCommandTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Relays commands from the outbox through a transport that records what it is given, and delivers only what the test
+ * lets it. The scheduled relay of the application is held back, so the outbox is only read by the tests.
+ */
+@SpringBootTest(properties = {
+        "app.reservation.stream.enabled=false",
+        "app.reservation.outbox.interval=PT1H",
+        "app.idempotency.purge-interval=PT1H"
+})
+class ReservationOutboxRelayTest {
+
+    private static final Duration LEASE = Duration.ofMillis(500);
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private ReservationOutboxService reservationOutboxService;
+    @Autowired
+    private ReservationCommandRepository reservationCommandRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private RecordingTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        reservationCommandRepository.deleteAllInBatch();
+        transport = new RecordingTransport();
+    }
+
+    @Test
+    void relaysTheCommandsOfAnItemInTheOrderTheyWereWritten() {
+        final var firstItemId = UUID.randomUUID();
+        final var secondItemId = UUID.randomUUID();
+        createReservation(firstItemId);
+        updateReservation(firstItemId);
+        createReservation(secondItemId);
+        deleteReservation(firstItemId);
+        final var relay = relay(10);
+
+        relay.relay();
+        relay.relay();
+        relay.relay();
+
+        assertThat(transport.batches).containsExactly(
+                List.of(new Sent(firstItemId, ReservationCommandType.CREATE), new Sent(secondItemId, ReservationCommandType.CREATE)),
+                List.of(new Sent(firstItemId, ReservationCommandType.UPDATE)),
+                List.of(new Sent(firstItemId, ReservationCommandType.DELETE)));
+        assertThat(reservationCommandRepository.count()).isZero();
+    }
+
+    @Test
+    void relaysFullBatchesUntilTheOutboxIsEmpty() {
+        for (int i = 0; i < 5; i++) {
+            createReservation(UUID.randomUUID());
+        }
+
+        relay(2).relay();
+
+        assertThat(transport.batches).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(reservationCommandRepository.count()).isZero();
+    }
+
+    @Test
+    void keepsUndeliveredCommandsUntilTheLeaseIsUp() throws InterruptedException {
+        final var deliveredItemId = UUID.randomUUID();
+        final var undeliveredItemId = UUID.randomUUID();
+        createReservation(deliveredItemId);
+        createReservation(undeliveredItemId);
+        updateReservation(undeliveredItemId);
+        transport.delivers = sent -> sent.itemId().equals(deliveredItemId);
+        final var relay = relay(10);
+
+        relay.relay();
+        assertThat(commands()).extracting(ReservationCommandEntity::getItemId, ReservationCommandEntity::getCommand, ReservationCommandEntity::getAttempts)
+                .containsExactly(
+                        tuple(undeliveredItemId, ReservationCommandType.CREATE, 1),
+                        tuple(undeliveredItemId, ReservationCommandType.UPDATE, 0));
+
+        // Neither the leased command nor the command queued behind it is handed out while the lease lasts
+        relay.relay();
+        assertThat(transport.batches).hasSize(1);
+
+        Thread.sleep(LEASE.toMillis());
+        transport.delivers = sent -> true;
+        relay.relay();
+        relay.relay();
+
+        assertThat(transport.batches).containsExactly(
+                List.of(new Sent(deliveredItemId, ReservationCommandType.CREATE), new Sent(undeliveredItemId, ReservationCommandType.CREATE)),
+                List.of(new Sent(undeliveredItemId, ReservationCommandType.CREATE)),
+                List.of(new Sent(undeliveredItemId, ReservationCommandType.UPDATE)));
+        assertThat(reservationCommandRepository.count()).isZero();
+    }
+
+    @Test
+    void completeCommandsOnlyRemovesTheGivenCommands() {
+        for (int i = 0; i < 3; i++) {
+            createReservation(UUID.randomUUID());
+        }
+        final var claimedCommands = reservationOutboxService.claimCommands(10, LEASE);
+
+        reservationOutboxService.completeCommands(List.of(claimedCommands.get(1)));
+
+        assertThat(commands()).extracting(ReservationCommandEntity::getId)
+                .containsExactly(claimedCommands.get(0).getId(), claimedCommands.get(2).getId());
+    }
+
+    @Test
+    void skipsCommandsClaimedByAnotherRelayThatHasNotCommitted() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            createReservation(UUID.randomUUID());
+        }
+        final var claimed = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var otherClaim = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            final var claimedCommands = reservationOutboxService.claimCommands(2, LEASE);
+            claimed.countDown();
+            try {
+                release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return claimedCommands;
+        }));
+        assertThat(claimed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        final var claimedCommands = reservationOutboxService.claimCommands(10, LEASE);
+        release.countDown();
+        final var otherClaimedCommands = otherClaim.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(claimedCommands).hasSize(2);
+        assertThat(otherClaimedCommands).hasSize(2);
+        assertThat(claimedCommands).extracting(ReservationCommandEntity::getId)
+                .doesNotContainAnyElementsOf(otherClaimedCommands.stream()
+                        .map(ReservationCommandEntity::getId)
+                        .toList());
+    }
+
+    private ReservationOutboxRelay relay(final int batchSize) {
+        return new ReservationOutboxRelay(reservationOutboxService, transport, batchSize, LEASE);
+    }
+
+    private List<ReservationCommandEntity> commands() {
+        return reservationCommandRepository.findAll(Sort.by("id"));
+    }
+
+    private void createReservation(final UUID itemId) {
+        transactionTemplate.executeWithoutResult(status -> reservationOutboxService.createReservation(itemId, CreateReservationDto.builder()
+                .orderId(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .quantity(1L)
+                .build()));
+    }
+
+    private void updateReservation(final UUID itemId) {
+        transactionTemplate.executeWithoutResult(status -> reservationOutboxService.updateReservation(itemId, UpdateReservationDto.builder()
+                .quantity(2L)
+                .build()));
+    }
+
+    private void deleteReservation(final UUID itemId) {
+        transactionTemplate.executeWithoutResult(status -> reservationOutboxService.deleteReservation(itemId));
+    }
+
+    private record Sent(UUID itemId, ReservationCommandType command) {
+    }
+
+    /**
+     * Records each batch it is given, and reports the commands it is told to as delivered.
+     */
+    private static final class RecordingTransport implements ReservationCommandTransport {
+
+        private final List<List<Sent>> batches = new ArrayList<>();
+        private Predicate<Sent> delivers = sent -> true;
+
+        @Override
+        public List<ReservationCommandEntity> send(final List<ReservationCommandEntity> reservationCommandEntities) {
+            batches.add(reservationCommandEntities.stream()
+                    .map(reservationCommandEntity -> new Sent(reservationCommandEntity.getItemId(), reservationCommandEntity.getCommand()))
+                    .toList());
+            return reservationCommandEntities.stream()
+                    .filter(reservationCommandEntity -> delivers.test(new Sent(reservationCommandEntity.getItemId(), reservationCommandEntity.getCommand())))
+                    .toList();
+        }
+    }
+}
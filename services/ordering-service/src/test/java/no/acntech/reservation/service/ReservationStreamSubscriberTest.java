@@ -0,0 +1,128 @@
+package no.acntech.reservation.service;
+
+import no.acntech.order.service.OrderOrchestrationService;
+import no.acntech.order.service.OrderService;
+import no.acntech.reservation.consumer.ReservationConsumer;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Subscribes to a stubbed change stream, opened once for every call to watch, and checks that the reservations of the
+ * orders still in play are applied each time it is opened, ahead of the changes streamed meanwhile.
+ */
+class ReservationStreamSubscriberTest {
+
+    private static final Duration BACKOFF = Duration.ofMillis(10);
+    private static final long TIMEOUT_MILLIS = 5000;
+    private final ReservationConsumer reservationConsumer = mock(ReservationConsumer.class);
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderOrchestrationService orderOrchestrationService = mock(OrderOrchestrationService.class);
+    private final BlockingQueue<Sinks.Many<ReservationDto>> streams = new LinkedBlockingQueue<>();
+    private final UUID orderId = UUID.randomUUID();
+    private ReservationStreamSubscriber subscriber;
+
+    @BeforeEach
+    void setUp() {
+        when(reservationConsumer.watch(null)).thenAnswer(invocation -> {
+            final Sinks.Many<ReservationDto> stream = Sinks.many().unicast().onBackpressureBuffer();
+            streams.add(stream);
+            return stream.asFlux();
+        });
+        when(orderService.findOrderIdsWithReservedItems(anyCollection())).thenReturn(List.of(orderId));
+        subscriber = new ReservationStreamSubscriber(reservationConsumer, orderService, orderOrchestrationService, BACKOFF, BACKOFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriber.stop();
+    }
+
+    @Test
+    void appliesTheCurrentReservationsBeforeTheChangesStreamedMeanwhile() throws InterruptedException {
+        final var current = reservation(ReservationStatus.RESERVED);
+        final var changed = reservation(ReservationStatus.CANCELED);
+        final Sinks.Many<ReservationDto> currentReservations = Sinks.many().unicast().onBackpressureBuffer();
+        when(reservationConsumer.find(orderId)).thenReturn(currentReservations.asFlux());
+
+        subscriber.start();
+        final var stream = streams.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertThat(stream).isNotNull();
+        stream.tryEmitNext(changed);
+        currentReservations.tryEmitNext(current);
+        currentReservations.tryEmitComplete();
+
+        final var inOrder = inOrder(orderOrchestrationService);
+        inOrder.verify(orderOrchestrationService, timeout(TIMEOUT_MILLIS)).applyReservationChange(current);
+        inOrder.verify(orderOrchestrationService, timeout(TIMEOUT_MILLIS)).applyReservationChange(changed);
+    }
+
+    @Test
+    void readsTheCurrentReservationsEachTimeTheStreamIsOpened() throws InterruptedException {
+        final var current = reservation(ReservationStatus.RESERVED);
+        when(reservationConsumer.find(orderId)).thenAnswer(invocation -> Flux.just(current));
+
+        subscriber.start();
+        final var firstStream = streams.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertThat(firstStream).isNotNull();
+        verify(orderOrchestrationService, timeout(TIMEOUT_MILLIS)).applyReservationChange(current);
+        firstStream.tryEmitComplete();
+        final var secondStream = streams.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertThat(secondStream).isNotNull();
+        secondStream.tryEmitError(new IllegalStateException("Connection reset"));
+
+        assertThat(streams.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isNotNull();
+        verify(orderOrchestrationService, timeout(TIMEOUT_MILLIS).times(3)).applyReservationChange(current);
+        verify(reservationConsumer, times(3)).find(orderId);
+    }
+
+    @Test
+    void keepsApplyingChangesAfterOneFailsToApply() throws InterruptedException {
+        final var failing = reservation(ReservationStatus.RESERVED);
+        final var changed = reservation(ReservationStatus.CONFIRMED);
+        when(reservationConsumer.find(any(UUID.class))).thenReturn(Flux.empty());
+        doThrow(new IllegalStateException("Database is down"))
+                .when(orderOrchestrationService).applyReservationChange(failing);
+
+        subscriber.start();
+        final var stream = streams.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertThat(stream).isNotNull();
+        stream.tryEmitNext(failing);
+        stream.tryEmitNext(changed);
+
+        verify(orderOrchestrationService, timeout(TIMEOUT_MILLIS)).applyReservationChange(changed);
+        assertThat(streams).isEmpty();
+    }
+
+    private ReservationDto reservation(final ReservationStatus status) {
+        return ReservationDto.builder()
+                .reservationId(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .orderId(orderId)
+                .quantity(1L)
+                .status(status)
+                .build();
+    }
+}
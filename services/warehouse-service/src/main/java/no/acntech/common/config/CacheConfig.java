@@ -0,0 +1,32 @@
+package no.acntech.common.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are backed by Caffeine and sized through {@code spring.cache.caffeine.spec}. Caches listed in
+ * {@code spring.cache.cache-names} are created on startup so that Actuator binds their hit, miss and eviction
+ * metrics. Puts and evictions are deferred until the surrounding transaction commits, so a concurrent read can not
+ * put back a value that is about to be changed.
+ */
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+@Configuration(proxyBeanMethods = false)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    @Bean
+    public CacheManager cacheManager(final CacheProperties cacheProperties) {
+        final var cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
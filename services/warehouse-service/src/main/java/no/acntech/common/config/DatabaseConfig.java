@@ -1,6 +1,5 @@
 package no.acntech.common.config;
 
-import no.acntech.common.converter.UUIDAttributeConverter;
 import no.acntech.common.converter.ZonedDateTimeAttributeConverter;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Configuration;
@@ -16,8 +15,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EntityScan(
         basePackageClasses = {
                 Jsr310JpaConverters.class,
-                ZonedDateTimeAttributeConverter.class,
-                UUIDAttributeConverter.class},
+                ZonedDateTimeAttributeConverter.class},
         basePackages = {
                 "no.acntech.product.model",
                 "no.acntech.inventory.model",
@@ -0,0 +1,16 @@
+package no.acntech.common.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The in-memory stock ledger writes its changes back to the database on a schedule, so scheduling is only switched
+ * on when the ledger strategy is selected with {@code app.inventory.strategy=ledger}.
+ */
+@ConditionalOnProperty(name = "app.inventory.strategy", havingValue = "ledger")
+@EnableScheduling
+@Configuration(proxyBeanMethods = false)
+public class InventoryConfig {
+
+}
@@ -0,0 +1,14 @@
+package no.acntech.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The reservation change feed sends heartbeats to its watchers on a schedule, so that idle streams are kept open and
+ * dead ones are found.
+ */
+@EnableScheduling
+@Configuration(proxyBeanMethods = false)
+public class ReservationStreamConfig {
+
+}
@@ -0,0 +1,33 @@
+package no.acntech.inventory.service;
+
+import no.acntech.product.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Default strategy which updates {@code PRODUCTS.STOCK} directly with conditional updates as part of the
+ * reservation transaction.
+ */
+@ConditionalOnProperty(name = "app.inventory.strategy", havingValue = "database", matchIfMissing = true)
+@Component
+public class DatabaseStockStrategy implements StockStrategy {
+
+    private final ProductRepository productRepository;
+
+    public DatabaseStockStrategy(final ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public boolean reserve(final UUID productId, final long quantity) {
+        return productRepository.decrementStock(productId, quantity, ZonedDateTime.now()) > 0;
+    }
+
+    @Override
+    public void release(final UUID productId, final long quantity) {
+        productRepository.incrementStock(productId, quantity, ZonedDateTime.now());
+    }
+}
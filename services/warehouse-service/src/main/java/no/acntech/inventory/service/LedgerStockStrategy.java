@@ -0,0 +1,161 @@
+package no.acntech.inventory.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import no.acntech.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process stock ledger for products that receive most of the reservation traffic. Reservations and releases are
+ * answered from per-product CAS counters without touching the database, and the net change per product is written
+ * back to {@code PRODUCTS.STOCK} in periodic batches. Counters are loaded from the database on startup, and on first
+ * use for products created later.
+ * <p>
+ * The ledger owns the stock while it is active, so it must only be enabled when a single warehouse-service instance
+ * serves reservations. Stock read through the product API lags behind by at most one flush interval.
+ */
+@ConditionalOnProperty(name = "app.inventory.strategy", havingValue = "ledger")
+@Component
+public class LedgerStockStrategy implements StockStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerStockStrategy.class);
+    private final Map<UUID, StockCounter> counters = new ConcurrentHashMap<>();
+    // A lock rather than synchronized, as a monitor held across JDBC calls pins a virtual thread to its carrier
+    private final Lock flushLock = new ReentrantLock();
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public LedgerStockStrategy(final ProductRepository productRepository,
+                               final TransactionTemplate transactionTemplate) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void load() {
+        // A read-write transaction, so that the counters start from the primary and not from a lagging read replica
+        transactionTemplate.executeWithoutResult(status -> productRepository.findAll()
+                .forEach(productEntity -> counters.putIfAbsent(productEntity.getProductId(), new StockCounter(productEntity.getStock()))));
+        LOGGER.info("Loaded stock ledger for {} products", counters.size());
+    }
+
+    @Override
+    public boolean reserve(final UUID productId, final long quantity) {
+        final var counter = counter(productId);
+        if (counter == null || !counter.take(quantity)) {
+            return false;
+        }
+        onRollback(() -> counter.give(quantity));
+        return true;
+    }
+
+    @Override
+    public void release(final UUID productId, final long quantity) {
+        final var counter = counter(productId);
+        if (counter != null) {
+            counter.give(quantity);
+            onRollback(() -> counter.take(quantity));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.ledger.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushChanges();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void flushChanges() {
+        final var snapshots = new HashMap<UUID, Long>();
+        counters.forEach((productId, counter) -> {
+            final var available = counter.available.get();
+            if (available != counter.persisted) {
+                snapshots.put(productId, available);
+            }
+        });
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        final var modified = ZonedDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> snapshots.forEach((productId, available) ->
+                productRepository.incrementStock(productId, available - counters.get(productId).persisted, modified)));
+        // Only move the baselines once the deltas are committed, so a failed flush is retried in full
+        snapshots.forEach((productId, available) -> counters.get(productId).persisted = available);
+        LOGGER.debug("Flushed stock ledger for {} products", snapshots.size());
+    }
+
+    private StockCounter counter(final UUID productId) {
+        final var counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        // Load outside of the map, as computeIfAbsent would hold a monitor on the map bin during the query. Joins the
+        // reservation transaction, or reads from the primary in a transaction of its own.
+        return transactionTemplate.execute(status -> productRepository.findByProductId(productId))
+                .map(productEntity -> counters.computeIfAbsent(productId, id -> new StockCounter(productEntity.getStock())))
+                .orElse(null);
+    }
+
+    private static void onRollback(final Runnable compensation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        compensation.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private static final class StockCounter {
+
+        private final AtomicLong available;
+        private long persisted;
+
+        private StockCounter(final long stock) {
+            this.available = new AtomicLong(stock);
+            this.persisted = stock;
+        }
+
+        private boolean take(final long quantity) {
+            var current = available.get();
+            while (current >= quantity) {
+                if (available.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+                current = available.get();
+            }
+            return false;
+        }
+
+        private void give(final long quantity) {
+            available.addAndGet(quantity);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package no.acntech.inventory.service;
+
+import java.util.UUID;
+
+/**
+ * Decides where product stock is taken from and given back to when reservations are made, changed or canceled.
+ */
+public interface StockStrategy {
+
+    /**
+     * Takes the given quantity out of stock if enough stock is available.
+     *
+     * @return true if the stock was taken, false if the stock was insufficient or the product is unknown
+     */
+    boolean reserve(UUID productId, long quantity);
+
+    /**
+     * Gives the given quantity back to stock.
+     */
+    void release(UUID productId, long quantity);
+}
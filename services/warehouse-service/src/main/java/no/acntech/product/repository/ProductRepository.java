@@ -1,9 +1,16 @@
 package no.acntech.product.repository;
 
+import no.acntech.common.config.CacheConfig;
+import no.acntech.common.model.EntityVersion;
 import no.acntech.product.model.ProductEntity;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,5 +20,36 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
 
     Optional<ProductEntity> findByProductId(UUID productId);
 
+    @Query("SELECT new no.acntech.common.model.EntityVersion(coalesce(p.modified, p.created), 1L) FROM ProductEntity p WHERE p.productId = :productId")
+    Optional<EntityVersion> findVersionByProductId(UUID productId);
+
+    @Query("SELECT new no.acntech.common.model.EntityVersion(max(coalesce(p.modified, p.created)), count(p)) FROM ProductEntity p")
+    EntityVersion findVersion();
+
+    @Query("SELECT new no.acntech.common.model.EntityVersion(max(coalesce(p.modified, p.created)), count(p)) FROM ProductEntity p WHERE p.name = :name")
+    EntityVersion findVersionByName(String name);
+
+    List<ProductEntity> findAllByProductIdIn(Collection<UUID> productIds);
+
     List<ProductEntity> findAllByName(String name);
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#result.productId")
+    @Override
+    <S extends ProductEntity> S save(S entity);
+
+    /**
+     * Takes the given quantity out of stock if, and only if, enough stock is available. The check and the update are
+     * one statement, so concurrent reservations against the same product can never take the stock below zero.
+     *
+     * @return the number of updated rows, 0 if the stock was insufficient
+     */
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
+    @Modifying
+    @Query("UPDATE ProductEntity p SET p.stock = p.stock - :quantity, p.modified = :modified WHERE p.productId = :productId AND p.stock >= :quantity")
+    int decrementStock(UUID productId, Long quantity, ZonedDateTime modified);
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
+    @Modifying
+    @Query("UPDATE ProductEntity p SET p.stock = p.stock + :quantity, p.modified = :modified WHERE p.productId = :productId")
+    int incrementStock(UUID productId, Long quantity, ZonedDateTime modified);
 }
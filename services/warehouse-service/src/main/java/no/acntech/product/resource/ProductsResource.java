@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -28,13 +29,23 @@ public class ProductsResource {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDto>> find(final ProductQuery productQuery) {
+    public ResponseEntity<List<ProductDto>> find(final ProductQuery productQuery,
+                                                 final WebRequest webRequest) {
+        final var entityVersion = productService.findProductsVersion(productQuery);
+        if (webRequest.checkNotModified(entityVersion.getETag(), entityVersion.getLastModifiedMillis())) {
+            return null;
+        }
         final var productDtos = productService.findProducts(productQuery);
         return ResponseEntity.ok(productDtos);
     }
 
     @GetMapping(path = "{productId}")
-    public ResponseEntity<ProductDto> get(@PathVariable("productId") final UUID productId) {
+    public ResponseEntity<ProductDto> get(@PathVariable("productId") final UUID productId,
+                                          final WebRequest webRequest) {
+        final var entityVersion = productService.getProductVersion(productId);
+        if (webRequest.checkNotModified(entityVersion.getETag(), entityVersion.getLastModifiedMillis())) {
+            return null;
+        }
         final var productDto = productService.getProduct(productId);
         return ResponseEntity.ok(productDto);
     }
@@ -2,6 +2,8 @@ package no.acntech.product.service;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import no.acntech.common.config.CacheConfig;
+import no.acntech.common.model.EntityVersion;
 import no.acntech.product.exception.ProductNotFoundException;
 import no.acntech.product.model.CreateProductDto;
 import no.acntech.product.model.ProductDto;
@@ -10,6 +12,7 @@ import no.acntech.product.model.ProductQuery;
 import no.acntech.product.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -34,6 +37,13 @@ public class ProductService {
         this.productRepository = productRepository;
     }
 
+    /**
+     * Products are read far more often than they change, so lookups are served from the products cache. The cache
+     * holds the immutable DTO, never the entity. Misses read from the primary rather than the read replica, as a
+     * lagging replica would otherwise put stale stock in the cache for as long as the entry lives.
+     */
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId")
+    @Transactional
     public ProductDto getProduct(@NotNull final UUID productId) {
         LOGGER.debug("Getting product for ID {}", productId);
         return productRepository.findByProductId(productId)
@@ -41,6 +51,22 @@ public class ProductService {
                 .orElseThrow(() -> new ProductNotFoundException(productId));
     }
 
+    @Transactional(readOnly = true)
+    public EntityVersion getProductVersion(@NotNull final UUID productId) {
+        return productRepository.findVersionByProductId(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+    }
+
+    @Transactional(readOnly = true)
+    public EntityVersion findProductsVersion(@NotNull @Valid final ProductQuery productQuery) {
+        if (productQuery.getName() != null) {
+            return productRepository.findVersionByName(productQuery.getName());
+        } else {
+            return productRepository.findVersion();
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<ProductDto> findProducts(@NotNull @Valid final ProductQuery productQuery) {
         LOGGER.debug("Finding products");
         if (productQuery.getName() != null) {
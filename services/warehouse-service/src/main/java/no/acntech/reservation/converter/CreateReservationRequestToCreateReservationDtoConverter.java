@@ -0,0 +1,22 @@
+package no.acntech.reservation.converter;
+
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.proto.CreateReservationRequest;
+import no.acntech.reservation.proto.ProtoTypes;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CreateReservationRequestToCreateReservationDtoConverter implements Converter<CreateReservationRequest, CreateReservationDto> {
+
+    @NonNull
+    @Override
+    public CreateReservationDto convert(@NonNull final CreateReservationRequest createReservationRequest) {
+        return CreateReservationDto.builder()
+                .orderId(ProtoTypes.toUuid(createReservationRequest.getOrderId()))
+                .productId(ProtoTypes.toUuid(createReservationRequest.getProductId()))
+                .quantity(createReservationRequest.getQuantity())
+                .build();
+    }
+}
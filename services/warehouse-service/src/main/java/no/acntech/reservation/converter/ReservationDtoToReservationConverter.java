@@ -0,0 +1,31 @@
+package no.acntech.reservation.converter;
+
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.proto.ProtoTypes;
+import no.acntech.reservation.proto.Reservation;
+import no.acntech.reservation.proto.ReservationStatus;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationDtoToReservationConverter implements Converter<ReservationDto, Reservation> {
+
+    @NonNull
+    @Override
+    public Reservation convert(@NonNull final ReservationDto reservationDto) {
+        final var builder = Reservation.newBuilder()
+                .setReservationId(ProtoTypes.toBytes(reservationDto.getReservationId()))
+                .setOrderId(ProtoTypes.toBytes(reservationDto.getOrderId()))
+                .setQuantity(reservationDto.getQuantity())
+                .setStatus(ReservationStatus.valueOf(reservationDto.getStatus().name()))
+                .setCreated(ProtoTypes.toTimestamp(reservationDto.getCreated()));
+        if (reservationDto.getProductId() != null) {
+            builder.setProductId(ProtoTypes.toBytes(reservationDto.getProductId()));
+        }
+        if (reservationDto.getModified() != null) {
+            builder.setModified(ProtoTypes.toTimestamp(reservationDto.getModified()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,21 @@
+package no.acntech.reservation.converter;
+
+import no.acntech.reservation.model.ReservationStatus;
+import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.proto.UpdateReservationRequest;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UpdateReservationRequestToUpdateReservationDtoConverter implements Converter<UpdateReservationRequest, UpdateReservationDto> {
+
+    @NonNull
+    @Override
+    public UpdateReservationDto convert(@NonNull final UpdateReservationRequest updateReservationRequest) {
+        return UpdateReservationDto.builder()
+                .quantity(updateReservationRequest.hasQuantity() ? updateReservationRequest.getQuantity() : null)
+                .status(updateReservationRequest.hasStatus() ? ReservationStatus.valueOf(updateReservationRequest.getStatus().name()) : null)
+                .build();
+    }
+}
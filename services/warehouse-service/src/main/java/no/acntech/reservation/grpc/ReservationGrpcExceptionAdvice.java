@@ -0,0 +1,31 @@
+package no.acntech.reservation.grpc;
+
+import io.grpc.Status;
+import jakarta.validation.ConstraintViolationException;
+import net.devh.boot.grpc.server.advice.GrpcAdvice;
+import net.devh.boot.grpc.server.advice.GrpcExceptionHandler;
+import no.acntech.product.exception.ProductNotFoundException;
+import no.acntech.reservation.exception.ReservationAlreadyExistsException;
+import no.acntech.reservation.exception.ReservationNotFoundException;
+
+/**
+ * Maps the exceptions of the reservation services to the gRPC status codes matching their HTTP status.
+ */
+@GrpcAdvice
+public class ReservationGrpcExceptionAdvice {
+
+    @GrpcExceptionHandler({ReservationNotFoundException.class, ProductNotFoundException.class})
+    public Status handleNotFound(final RuntimeException e) {
+        return Status.NOT_FOUND.withDescription(e.getMessage());
+    }
+
+    @GrpcExceptionHandler(ReservationAlreadyExistsException.class)
+    public Status handleAlreadyExists(final ReservationAlreadyExistsException e) {
+        return Status.ALREADY_EXISTS.withDescription(e.getMessage());
+    }
+
+    @GrpcExceptionHandler({ConstraintViolationException.class, IllegalArgumentException.class})
+    public Status handleInvalidArgument(final RuntimeException e) {
+        return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+    }
+}
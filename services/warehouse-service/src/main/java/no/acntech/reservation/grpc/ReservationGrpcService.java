@@ -0,0 +1,144 @@
+package no.acntech.reservation.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.proto.CreateReservationRequest;
+import no.acntech.reservation.proto.CreateReservationsRequest;
+import no.acntech.reservation.proto.CreateReservationsResponse;
+import no.acntech.reservation.proto.DeleteReservationRequest;
+import no.acntech.reservation.proto.FindReservationsRequest;
+import no.acntech.reservation.proto.GetReservationRequest;
+import no.acntech.reservation.proto.ProtoTypes;
+import no.acntech.reservation.proto.Reservation;
+import no.acntech.reservation.proto.ReservationServiceGrpc;
+import no.acntech.reservation.proto.UpdateReservationRequest;
+import no.acntech.reservation.proto.WatchReservationsRequest;
+import no.acntech.reservation.service.ReservationChangeFeed;
+import no.acntech.reservation.service.ReservationService;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.util.Assert;
+
+/**
+ * gRPC counterpart of {@link no.acntech.reservation.resource.ReservationsResource}. Failures are turned into gRPC
+ * status codes by {@link ReservationGrpcExceptionAdvice}.
+ */
+@SuppressWarnings("Duplicates")
+@GrpcService
+public class ReservationGrpcService extends ReservationServiceGrpc.ReservationServiceImplBase {
+
+    private final ConversionService conversionService;
+    private final ReservationService reservationService;
+    private final ReservationChangeFeed reservationChangeFeed;
+
+    public ReservationGrpcService(final ConversionService conversionService,
+                                  final ReservationService reservationService,
+                                  final ReservationChangeFeed reservationChangeFeed) {
+        this.conversionService = conversionService;
+        this.reservationService = reservationService;
+        this.reservationChangeFeed = reservationChangeFeed;
+    }
+
+    @Override
+    public void getReservation(final GetReservationRequest request,
+                               final StreamObserver<Reservation> responseObserver) {
+        final var reservationDto = reservationService.getReservation(ProtoTypes.toUuid(request.getReservationId()));
+        responseObserver.onNext(convert(reservationDto));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void findReservations(final FindReservationsRequest request,
+                                 final StreamObserver<Reservation> responseObserver) {
+        final var orderId = request.hasOrderId() ? ProtoTypes.toUuid(request.getOrderId()) : null;
+        reservationService.findReservations(orderId)
+                .forEach(reservationDto -> responseObserver.onNext(convert(reservationDto)));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void createReservation(final CreateReservationRequest request,
+                                  final StreamObserver<Reservation> responseObserver) {
+        final var reservationDto = reservationService.createReservation(convert(request));
+        responseObserver.onNext(convert(reservationDto));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void createReservations(final CreateReservationsRequest request,
+                                   final StreamObserver<CreateReservationsResponse> responseObserver) {
+        final var createReservationDtos = request.getReservationsList()
+                .stream()
+                .map(this::convert)
+                .toList();
+        final var reservationDtos = reservationService.createReservations(createReservationDtos);
+        responseObserver.onNext(CreateReservationsResponse.newBuilder()
+                .addAllReservations(reservationDtos.stream()
+                        .map(this::convert)
+                        .toList())
+                .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void updateReservation(final UpdateReservationRequest request,
+                                  final StreamObserver<Reservation> responseObserver) {
+        final var updateReservationDto = conversionService.convert(request, UpdateReservationDto.class);
+        Assert.notNull(updateReservationDto, "Failed to convert UpdateReservationRequest to UpdateReservationDto");
+        final var reservationDto = reservationService.updateReservation(ProtoTypes.toUuid(request.getReservationId()), updateReservationDto);
+        responseObserver.onNext(convert(reservationDto));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void deleteReservation(final DeleteReservationRequest request,
+                                  final StreamObserver<Reservation> responseObserver) {
+        final var reservationDto = reservationService.deleteReservation(ProtoTypes.toUuid(request.getReservationId()));
+        responseObserver.onNext(convert(reservationDto));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Keeps the call open and sends each reservation as its changes are committed. The subscription ends when the
+     * client cancels the call, or when the change feed drops it.
+     */
+    @Override
+    public void watchReservations(final WatchReservationsRequest request,
+                                  final StreamObserver<Reservation> responseObserver) {
+        final var orderId = request.hasOrderId() ? ProtoTypes.toUuid(request.getOrderId()) : null;
+        final var serverCallStreamObserver = (ServerCallStreamObserver<Reservation>) responseObserver;
+        final var subscription = reservationChangeFeed.subscribe(orderId, new ReservationChangeFeed.Watcher() {
+
+            @Override
+            public void onChange(final ReservationDto reservationDto) {
+                serverCallStreamObserver.onNext(convert(reservationDto));
+            }
+
+            @Override
+            public void onAbort() {
+                if (!serverCallStreamObserver.isCancelled()) {
+                    serverCallStreamObserver.onError(Status.UNAVAILABLE
+                            .withDescription("Reservation watch was dropped, reconnect to resume")
+                            .asRuntimeException());
+                }
+            }
+        });
+        serverCallStreamObserver.setOnCancelHandler(subscription::close);
+    }
+
+    private CreateReservationDto convert(final CreateReservationRequest createReservationRequest) {
+        final var createReservationDto = conversionService.convert(createReservationRequest, CreateReservationDto.class);
+        Assert.notNull(createReservationDto, "Failed to convert CreateReservationRequest to CreateReservationDto");
+        return createReservationDto;
+    }
+
+    private Reservation convert(final ReservationDto reservationDto) {
+        final var reservation = conversionService.convert(reservationDto, Reservation.class);
+        Assert.notNull(reservation, "Failed to convert ReservationDto to Reservation");
+        return reservation;
+    }
+}
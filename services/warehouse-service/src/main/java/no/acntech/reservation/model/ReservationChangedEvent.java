@@ -0,0 +1,7 @@
+package no.acntech.reservation.model;
+
+/**
+ * Published by {@link no.acntech.reservation.service.ReservationService} for every reservation it creates or changes.
+ */
+public record ReservationChangedEvent(ReservationDto reservation) {
+}
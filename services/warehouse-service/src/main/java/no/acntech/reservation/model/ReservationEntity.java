@@ -13,6 +13,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.ZonedDateTime;
 import java.util.UUID;
@@ -22,7 +23,8 @@ import java.util.UUID;
 public class ReservationEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "RESERVATIONS_SEQ")
+    @SequenceGenerator(name = "RESERVATIONS_SEQ", sequenceName = "RESERVATIONS_SEQ", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private UUID reservationId;
@@ -85,10 +87,18 @@ public class ReservationEntity {
         return status != null && status != ReservationStatus.CANCELED && status != ReservationStatus.CONFIRMED;
     }
 
+    public boolean holdsStock() {
+        return status == ReservationStatus.RESERVED || status == ReservationStatus.CONFIRMED;
+    }
+
     public void cancelReservation() {
         this.status = ReservationStatus.CANCELED;
     }
 
+    public void rejectReservation() {
+        this.status = ReservationStatus.REJECTED;
+    }
+
     @PrePersist
     private void prePersist() {
         reservationId = UUID.randomUUID();
@@ -25,4 +25,34 @@ public class UpdateReservationDto {
         }
         return quantity == null || quantity > 0;
     }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Long quantity;
+        private ReservationStatus status;
+
+        private Builder() {
+        }
+
+        public Builder quantity(Long quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        public Builder status(ReservationStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public UpdateReservationDto build() {
+            final var target = new UpdateReservationDto();
+            target.quantity = this.quantity;
+            target.status = this.status;
+            return target;
+        }
+    }
 }
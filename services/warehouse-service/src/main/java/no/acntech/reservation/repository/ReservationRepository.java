@@ -1,9 +1,12 @@
 package no.acntech.reservation.repository;
 
+import no.acntech.common.model.EntityVersion;
 import no.acntech.reservation.model.ReservationEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,7 +16,12 @@ public interface ReservationRepository extends JpaRepository<ReservationEntity,
 
     Optional<ReservationEntity> findByReservationId(UUID reservationId);
 
+    @Query("SELECT new no.acntech.common.model.EntityVersion(coalesce(r.modified, r.created), 1L) FROM ReservationEntity r WHERE r.reservationId = :reservationId")
+    Optional<EntityVersion> findVersionByReservationId(UUID reservationId);
+
     List<ReservationEntity> findAllByOrderId(UUID orderId);
 
+    List<ReservationEntity> findAllByOrderIdIn(Collection<UUID> orderIds);
+
     Optional<ReservationEntity> findByOrderIdAndProduct_ProductId(UUID orderId, UUID productId);
 }
@@ -3,7 +3,10 @@ package no.acntech.reservation.resource;
 import no.acntech.reservation.model.CreateReservationDto;
 import no.acntech.reservation.model.ReservationDto;
 import no.acntech.reservation.model.UpdateReservationDto;
+import no.acntech.reservation.service.ReservationChangeFeed;
 import no.acntech.reservation.service.ReservationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,7 +17,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,13 +31,24 @@ import java.util.UUID;
 public class ReservationsResource {
 
     private final ReservationService reservationService;
+    private final ReservationChangeFeed reservationChangeFeed;
+    private final Duration streamTimeout;
 
-    public ReservationsResource(final ReservationService reservationService) {
+    public ReservationsResource(final ReservationService reservationService,
+                                final ReservationChangeFeed reservationChangeFeed,
+                                @Value("${app.reservation.stream.timeout:PT30M}") final Duration streamTimeout) {
         this.reservationService = reservationService;
+        this.reservationChangeFeed = reservationChangeFeed;
+        this.streamTimeout = streamTimeout;
     }
 
     @GetMapping(path = "{reservationId}")
-    public ResponseEntity<ReservationDto> get(@PathVariable("reservationId") final UUID reservationId) {
+    public ResponseEntity<ReservationDto> get(@PathVariable("reservationId") final UUID reservationId,
+                                              final WebRequest webRequest) {
+        final var entityVersion = reservationService.getReservationVersion(reservationId);
+        if (webRequest.checkNotModified(entityVersion.getETag(), entityVersion.getLastModifiedMillis())) {
+            return null;
+        }
         final var reservationDto = reservationService.getReservation(reservationId);
         return ResponseEntity.ok(reservationDto);
     }
@@ -40,12 +59,51 @@ public class ReservationsResource {
         return ResponseEntity.ok(reservationDtos);
     }
 
+    /**
+     * Streams a {@code reservation} server-sent event for every reservation change committed from now on, for the
+     * reservations of one order or for all of them. A comment is sent as a heartbeat while there are no changes. The
+     * stream ends after the stream timeout, and clients are expected to reconnect.
+     */
+    @GetMapping(path = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(name = "orderId", required = false) final UUID orderId) {
+        final var sseEmitter = new SseEmitter(streamTimeout.toMillis());
+        final var subscription = reservationChangeFeed.subscribe(orderId, new ReservationChangeFeed.Watcher() {
+
+            @Override
+            public void onChange(final ReservationDto reservationDto) {
+                send(sseEmitter, SseEmitter.event()
+                        .name("reservation")
+                        .data(reservationDto, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void onHeartbeat() {
+                send(sseEmitter, SseEmitter.event().comment("heartbeat"));
+            }
+
+            @Override
+            public void onAbort() {
+                sseEmitter.complete();
+            }
+        });
+        sseEmitter.onCompletion(subscription::close);
+        sseEmitter.onTimeout(sseEmitter::complete);
+        sseEmitter.onError(e -> subscription.close());
+        return sseEmitter;
+    }
+
     @PostMapping
     public ResponseEntity<ReservationDto> create(@RequestBody final CreateReservationDto createReservation) {
         final var reservationDto = reservationService.createReservation(createReservation);
         return ResponseEntity.ok(reservationDto);
     }
 
+    @PostMapping(path = "batch")
+    public ResponseEntity<List<ReservationDto>> createBatch(@RequestBody final List<CreateReservationDto> createReservations) {
+        final var reservationDtos = reservationService.createReservations(createReservations);
+        return ResponseEntity.ok(reservationDtos);
+    }
+
     @PutMapping(path = "{reservationId}")
     public ResponseEntity<ReservationDto> update(@PathVariable("reservationId") final UUID reservationId,
                                                  @RequestBody final UpdateReservationDto updateReservation) {
@@ -58,4 +116,12 @@ public class ReservationsResource {
         final var reservationDto = reservationService.deleteReservation(reservationId);
         return ResponseEntity.ok(reservationDto);
     }
+
+    private static void send(final SseEmitter sseEmitter, final SseEmitter.SseEventBuilder event) {
+        try {
+            sseEmitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,178 @@
+package no.acntech.reservation.service;
+
+import no.acntech.reservation.model.ReservationChangedEvent;
+import no.acntech.reservation.model.ReservationDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands reservation changes to the watchers that subscribed to them, once the transaction that made them has
+ * committed. Each watcher is called on a virtual thread of its own, one change at a time and in the order the changes
+ * were committed, so a watcher writing to a slow client holds up neither the committing thread nor other watchers. A
+ * watcher that falls more than {@code app.reservation.stream.max-pending} changes behind is dropped; its client must
+ * reconnect.
+ */
+@Component
+public class ReservationChangeFeed implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationChangeFeed.class);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+            .name("reservation-feed-", 0)
+            .factory());
+    private final int maxPending;
+
+    public ReservationChangeFeed(@Value("${app.reservation.stream.max-pending:1000}") final int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Subscribes to the changes to the reservations of an order, or to all reservations if no order ID is given. The
+     * returned subscription must be closed when the watcher is done.
+     */
+    public Subscription subscribe(final UUID orderId, final Watcher watcher) {
+        final var subscription = new Subscription(orderId, watcher);
+        subscriptions.add(subscription);
+        LOGGER.debug("Added reservation watcher, {} watchers", subscriptions.size());
+        return subscription;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(final ReservationChangedEvent event) {
+        final var reservationDto = event.reservation();
+        subscriptions.stream()
+                .filter(subscription -> subscription.orderId == null || subscription.orderId.equals(reservationDto.getOrderId()))
+                .forEach(subscription -> subscription.enqueue(() -> subscription.watcher.onChange(reservationDto)));
+    }
+
+    /**
+     * Lets idle watchers tell their clients that the stream is still alive.
+     */
+    @Scheduled(fixedDelayString = "${app.reservation.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscriptions.forEach(subscription -> subscription.enqueue(subscription.watcher::onHeartbeat));
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.forEach(Subscription::abort);
+        executorService.shutdown();
+    }
+
+    /**
+     * Receives the changes of a subscription. Calls may block, but must not fail unless the watcher is done.
+     */
+    public interface Watcher {
+
+        void onChange(ReservationDto reservationDto);
+
+        default void onHeartbeat() {
+        }
+
+        /**
+         * Called when the feed drops the watcher, because it failed, fell too far behind or the feed is shutting down.
+         */
+        default void onAbort() {
+        }
+    }
+
+    public final class Subscription implements AutoCloseable {
+
+        private final UUID orderId;
+        private final Watcher watcher;
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Keeps the watcher from being aborted while it handles a change
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Subscription(final UUID orderId, final Watcher watcher) {
+            this.orderId = orderId;
+            this.watcher = watcher;
+        }
+
+        @Override
+        public void close() {
+            closeIfOpen();
+        }
+
+        private boolean closeIfOpen() {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+                pending.clear();
+                LOGGER.debug("Removed reservation watcher, {} watchers", subscriptions.size());
+                return true;
+            }
+            return false;
+        }
+
+        private void abort() {
+            if (closeIfOpen()) {
+                notifyAbort();
+            }
+        }
+
+        private void notifyAbort() {
+            lock.lock();
+            try {
+                watcher.onAbort();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void enqueue(final Runnable task) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                if (closeIfOpen()) {
+                    LOGGER.warn("Reservation watcher fell more than {} changes behind, dropping it", maxPending);
+                    executorService.execute(this::notifyAbort);
+                }
+                return;
+            }
+            pending.add(task);
+            if (draining.compareAndSet(false, true)) {
+                executorService.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Runnable task;
+                while (!closed.get() && (task = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    lock.lock();
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        LOGGER.debug("Reservation watcher failed, dropping it", e);
+                        abort();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                draining.set(false);
+                // A task added after the queue was found empty, but before the flag was cleared, is drained here
+            } while (!closed.get() && !pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -1,25 +1,35 @@
 package no.acntech.reservation.service;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import no.acntech.common.model.EntityVersion;
+import no.acntech.inventory.service.StockStrategy;
 import no.acntech.product.exception.ProductNotFoundException;
+import no.acntech.product.model.ProductEntity;
 import no.acntech.product.repository.ProductRepository;
 import no.acntech.reservation.exception.ReservationAlreadyExistsException;
 import no.acntech.reservation.exception.ReservationNotFoundException;
 import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationChangedEvent;
 import no.acntech.reservation.model.ReservationDto;
 import no.acntech.reservation.model.ReservationEntity;
+import no.acntech.reservation.model.ReservationStatus;
 import no.acntech.reservation.model.UpdateReservationDto;
 import no.acntech.reservation.repository.ReservationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @SuppressWarnings({"Duplicates", "WeakerAccess"})
@@ -31,15 +41,22 @@ public class ReservationService {
     private final ConversionService conversionService;
     private final ReservationRepository reservationRepository;
     private final ProductRepository productRepository;
+    private final StockStrategy stockStrategy;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     public ReservationService(final ConversionService conversionService,
                               final ReservationRepository reservationRepository,
-                              final ProductRepository productRepository) {
+                              final ProductRepository productRepository,
+                              final StockStrategy stockStrategy,
+                              final ApplicationEventPublisher applicationEventPublisher) {
         this.conversionService = conversionService;
         this.reservationRepository = reservationRepository;
         this.productRepository = productRepository;
+        this.stockStrategy = stockStrategy;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public ReservationDto getReservation(@NotNull final UUID reservationId) {
         LOGGER.debug("Getting reservation for ID {}", reservationId);
         return reservationRepository.findByReservationId(reservationId)
@@ -47,6 +64,13 @@ public class ReservationService {
                 .orElseThrow(() -> new ReservationNotFoundException(reservationId));
     }
 
+    @Transactional(readOnly = true)
+    public EntityVersion getReservationVersion(@NotNull final UUID reservationId) {
+        return reservationRepository.findVersionByReservationId(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+    }
+
+    @Transactional(readOnly = true)
     public List<ReservationDto> findReservations(final UUID orderId) {
         LOGGER.debug("Finding reservations");
         if (orderId == null) {
@@ -74,7 +98,7 @@ public class ReservationService {
         final var productEntity = productRepository.findByProductId(createReservationDto.getProductId())
                 .orElseThrow(() -> new ProductNotFoundException(createReservationDto.getProductId()));
 
-        if (productEntity.getStock() < createReservationDto.getQuantity()) {
+        if (!reserveStock(createReservationDto.getProductId(), createReservationDto.getQuantity())) {
             final var reservationEntity = ReservationEntity.builder()
                     .orderId(createReservationDto.getOrderId())
                     .quantity(createReservationDto.getQuantity())
@@ -83,7 +107,7 @@ public class ReservationService {
                     .build();
             final var savedReservationEntity = reservationRepository.save(reservationEntity);
             LOGGER.error("Product stock insufficient for reservation-id {}", savedReservationEntity.getReservationId());
-            return convert(savedReservationEntity);
+            return publish(convert(savedReservationEntity));
         } else {
             final var reservationEntity = ReservationEntity.builder()
                     .orderId(createReservationDto.getOrderId())
@@ -93,10 +117,78 @@ public class ReservationService {
                     .build();
             final var savedReservationEntity = reservationRepository.save(reservationEntity);
             LOGGER.info("Created reservation for reservation-id {}", savedReservationEntity.getReservationId());
-            return convert(savedReservationEntity);
+            return publish(convert(savedReservationEntity));
         }
     }
 
+    /**
+     * Creates the reservations for all lines of one or more orders in a single transaction. Products are loaded with
+     * one query and existing reservations are checked with one query, so the cost no longer grows with three queries
+     * per line. The whole batch is rejected if any line duplicates an existing reservation or refers to an unknown
+     * product; otherwise every line is returned as either RESERVED or REJECTED, in request order.
+     */
+    @Transactional
+    public List<ReservationDto> createReservations(@NotEmpty final List<@NotNull @Valid CreateReservationDto> createReservationDtos) {
+        LOGGER.debug("Create batch of {} reservations", createReservationDtos.size());
+        final var requestedKeys = new HashSet<ReservationKey>();
+        createReservationDtos.forEach(createReservationDto -> {
+            if (!requestedKeys.add(new ReservationKey(createReservationDto.getOrderId(), createReservationDto.getProductId()))) {
+                throw new ReservationAlreadyExistsException(createReservationDto.getOrderId(), createReservationDto.getProductId());
+            }
+        });
+
+        final var productIds = requestedKeys.stream()
+                .map(ReservationKey::productId)
+                .collect(Collectors.toSet());
+        final var productEntities = productRepository.findAllByProductIdIn(productIds)
+                .stream()
+                .collect(Collectors.toMap(ProductEntity::getProductId, Function.identity()));
+
+        final var orderIds = requestedKeys.stream()
+                .map(ReservationKey::orderId)
+                .collect(Collectors.toSet());
+        reservationRepository.findAllByOrderIdIn(orderIds)
+                .stream()
+                .filter(reservationEntity -> reservationEntity.getProduct() != null)
+                .map(reservationEntity -> new ReservationKey(reservationEntity.getOrderId(), reservationEntity.getProduct().getProductId()))
+                .filter(requestedKeys::contains)
+                .findFirst()
+                .ifPresent(reservationKey -> {
+                    throw new ReservationAlreadyExistsException(reservationKey.orderId(), reservationKey.productId());
+                });
+
+        final var reservationEntities = createReservationDtos.stream()
+                .map(createReservationDto -> {
+                    final var productEntity = productEntities.get(createReservationDto.getProductId());
+                    if (productEntity == null) {
+                        throw new ProductNotFoundException(createReservationDto.getProductId());
+                    }
+                    return ReservationEntity.builder()
+                            .orderId(createReservationDto.getOrderId())
+                            .quantity(createReservationDto.getQuantity())
+                            .product(productEntity)
+                            .statusReserved()
+                            .build();
+                })
+                .toList();
+
+        // Take stock in product order so that concurrent batches lock the product rows in the same order
+        reservationEntities.stream()
+                .sorted(Comparator.comparing(reservationEntity -> reservationEntity.getProduct().getProductId()))
+                .forEach(reservationEntity -> {
+                    if (!reserveStock(reservationEntity.getProduct().getProductId(), reservationEntity.getQuantity())) {
+                        reservationEntity.rejectReservation();
+                    }
+                });
+
+        final var savedReservationEntities = reservationRepository.saveAll(reservationEntities);
+        LOGGER.info("Created batch of {} reservations", savedReservationEntities.size());
+        return savedReservationEntities.stream()
+                .map(this::convert)
+                .map(this::publish)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public ReservationDto updateReservation(@NotNull final UUID reservationId,
                                             @NotNull @Valid final UpdateReservationDto updateReservation) {
@@ -104,14 +196,14 @@ public class ReservationService {
         final var reservationEntity = reservationRepository.findByReservationId(reservationId)
                 .orElseThrow(() -> new ReservationNotFoundException(reservationId));
         if (updateReservation.getQuantity() != null) {
-            reservationEntity.setQuantity(updateReservation.getQuantity());
+            updateQuantity(reservationEntity, updateReservation.getQuantity());
         }
-        if (updateReservation.getStatus() != null && reservationEntity.canUpdateStatus()) {
+        if (updateReservation.getStatus() != null && reservationEntity.canUpdateStatus() && reservationEntity.holdsStock()) {
             reservationEntity.setStatus(updateReservation.getStatus());
         }
         final var savedReservationEntity = reservationRepository.save(reservationEntity);
         LOGGER.info("Updated reservation for reservation-id {}", reservationId);
-        return convert(savedReservationEntity);
+        return publish(convert(savedReservationEntity));
     }
 
     @Transactional
@@ -119,13 +211,55 @@ public class ReservationService {
         LOGGER.debug("Deleting reservation for ID {}", reservationId);
         final var reservationEntity = reservationRepository.findByReservationId(reservationId)
                 .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+        if (reservationEntity.holdsStock()) {
+            releaseStock(reservationEntity.getProduct().getProductId(), reservationEntity.getQuantity());
+        }
         reservationEntity.cancelReservation();
         final var savedReservationEntity = reservationRepository.save(reservationEntity);
         LOGGER.info("Updated reservation for reservation-id {}", reservationId);
-        return convert(savedReservationEntity);
+        return publish(convert(savedReservationEntity));
+    }
+
+    /**
+     * Moves the stock held by a reservation along with its quantity. A reservation that holds stock only takes or
+     * gives back the difference; if an increase cannot be covered the reservation is rejected and all of its stock is
+     * given back. A rejected reservation gets a new attempt at the new quantity.
+     */
+    private void updateQuantity(final ReservationEntity reservationEntity, final Long quantity) {
+        final var productId = reservationEntity.getProduct().getProductId();
+        final var currentQuantity = reservationEntity.getQuantity();
+        if (reservationEntity.holdsStock()) {
+            final var delta = quantity - currentQuantity;
+            if (delta > 0 && !reserveStock(productId, delta)) {
+                releaseStock(productId, currentQuantity);
+                reservationEntity.rejectReservation();
+                LOGGER.error("Product stock insufficient for reservation-id {}", reservationEntity.getReservationId());
+            } else if (delta < 0) {
+                releaseStock(productId, -delta);
+            }
+        } else if (reservationEntity.getStatus() == ReservationStatus.REJECTED && reserveStock(productId, quantity)) {
+            reservationEntity.setStatus(ReservationStatus.RESERVED);
+        }
+        reservationEntity.setQuantity(quantity);
+    }
+
+    private boolean reserveStock(final UUID productId, final Long quantity) {
+        return stockStrategy.reserve(productId, quantity);
+    }
+
+    private void releaseStock(final UUID productId, final Long quantity) {
+        stockStrategy.release(productId, quantity);
     }
 
     private ReservationDto convert(final ReservationEntity reservation) {
         return conversionService.convert(reservation, ReservationDto.class);
     }
+
+    private ReservationDto publish(final ReservationDto reservationDto) {
+        applicationEventPublisher.publishEvent(new ReservationChangedEvent(reservationDto));
+        return reservationDto;
+    }
+
+    private record ReservationKey(UUID orderId, UUID productId) {
+    }
 }
@@ -0,0 +1,4 @@
+ALTER TABLE RESERVATIONS
+    ADD CONSTRAINT RESERVATIONS_RESERVATION_ID_UC UNIQUE (RESERVATION_ID);
+
+CREATE INDEX RESERVATIONS_ORDER_ID_PRODUCT_ID_IX ON RESERVATIONS (ORDER_ID, PRODUCT_ID);
@@ -0,0 +1,8 @@
+ALTER TABLE PRODUCTS
+    ALTER COLUMN PRODUCT_ID SET DATA TYPE UUID USING CAST(PRODUCT_ID AS UUID);
+
+ALTER TABLE RESERVATIONS
+    ALTER COLUMN RESERVATION_ID SET DATA TYPE UUID USING CAST(RESERVATION_ID AS UUID);
+
+ALTER TABLE RESERVATIONS
+    ALTER COLUMN ORDER_ID SET DATA TYPE UUID USING CAST(ORDER_ID AS UUID);
@@ -0,0 +1,54 @@
+package no.acntech.product.service;
+
+import no.acntech.common.config.CacheConfig;
+import no.acntech.product.model.ProductDto;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "grpc.server.port=-1")
+class ProductCacheTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void productIsCachedAsDtoAndEvictedOnStockChange() {
+        final var productId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO PRODUCTS (PRODUCT_ID, NAME, STOCK, PRICE, CURRENCY, CREATED) VALUES (?, ?, 10, 10, 'USD', CURRENT_TIMESTAMP)",
+                productId, "Cached product " + productId);
+
+        final var productDto = productService.getProduct(productId);
+        assertThat(cachedProduct(productId)).isSameAs(productDto);
+        assertThat(productService.getProduct(productId)).isSameAs(productDto);
+
+        reservationService.createReservation(CreateReservationDto.builder()
+                .orderId(UUID.randomUUID())
+                .productId(productId)
+                .quantity(3L)
+                .build());
+
+        assertThat(cachedProduct(productId)).isNull();
+        assertThat(productService.getProduct(productId).getStock()).isEqualTo(7L);
+    }
+
+    private ProductDto cachedProduct(final UUID productId) {
+        final var cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        assertThat(cache).isNotNull();
+        return cache.get(productId, ProductDto.class);
+    }
+}
@@ -0,0 +1,271 @@
+package no.acntech.reservation.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import no.acntech.reservation.model.ReservationChangedEvent;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.proto.CreateReservationRequest;
+import no.acntech.reservation.proto.CreateReservationsRequest;
+import no.acntech.reservation.proto.DeleteReservationRequest;
+import no.acntech.reservation.proto.FindReservationsRequest;
+import no.acntech.reservation.proto.GetReservationRequest;
+import no.acntech.reservation.proto.ProtoTypes;
+import no.acntech.reservation.proto.Reservation;
+import no.acntech.reservation.proto.ReservationServiceGrpc;
+import no.acntech.reservation.proto.ReservationStatus;
+import no.acntech.reservation.proto.UpdateReservationRequest;
+import no.acntech.reservation.proto.WatchReservationsRequest;
+import no.acntech.reservation.service.ReservationChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Calls the gRPC API over the in-process transport, through the server the application starts, so that the exception
+ * advice and the change feed take part as they do behind the network port.
+ */
+@SpringBootTest(properties = {
+        "grpc.server.port=-1",
+        "grpc.server.in-process-name=" + ReservationGrpcServiceTest.SERVER_NAME
+})
+class ReservationGrpcServiceTest {
+
+    static final String SERVER_NAME = "reservation-grpc-service-test";
+    private static final long STOCK = 100;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReservationChangeFeed reservationChangeFeed;
+    private ManagedChannel channel;
+    private ReservationServiceGrpc.ReservationServiceBlockingStub blockingStub;
+    private ReservationServiceGrpc.ReservationServiceStub stub;
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        channel = InProcessChannelBuilder.forName(SERVER_NAME).build();
+        blockingStub = ReservationServiceGrpc.newBlockingStub(channel)
+                .withDeadlineAfter(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        stub = ReservationServiceGrpc.newStub(channel);
+        orderId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void createsAndGetsAReservation() {
+        final var created = blockingStub.createReservation(createRequest(5));
+
+        final var reservation = blockingStub.getReservation(GetReservationRequest.newBuilder()
+                .setReservationId(created.getReservationId())
+                .build());
+
+        assertThat(reservation.getReservationId()).isEqualTo(created.getReservationId());
+        assertThat(reservation.getProductId()).isEqualTo(created.getProductId());
+        assertThat(ProtoTypes.toUuid(reservation.getOrderId())).isEqualTo(orderId);
+        assertThat(reservation.getQuantity()).isEqualTo(5);
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.RESERVED);
+        assertThat(reservation.hasCreated()).isTrue();
+    }
+
+    @Test
+    void createsABatchOfReservationsInRequestOrder() {
+        final var response = blockingStub.createReservations(CreateReservationsRequest.newBuilder()
+                .addReservations(createRequest(1))
+                .addReservations(createRequest(2))
+                .addReservations(createRequest(3))
+                .build());
+
+        assertThat(response.getReservationsList())
+                .extracting(Reservation::getQuantity)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(response.getReservationsList())
+                .extracting(Reservation::getStatus)
+                .containsOnly(ReservationStatus.RESERVED);
+    }
+
+    @Test
+    void findsTheReservationsOfAnOrder() {
+        final var first = blockingStub.createReservation(createRequest(1));
+        final var second = blockingStub.createReservation(createRequest(2));
+        blockingStub.createReservation(createRequest(UUID.randomUUID(), 3));
+
+        final var reservations = blockingStub.findReservations(FindReservationsRequest.newBuilder()
+                .setOrderId(ProtoTypes.toBytes(orderId))
+                .build());
+
+        assertThat(reservations).toIterable()
+                .extracting(Reservation::getReservationId)
+                .containsExactlyInAnyOrder(first.getReservationId(), second.getReservationId());
+    }
+
+    @Test
+    void confirmsAndCancelsReservations() {
+        final var confirmed = blockingStub.createReservation(createRequest(1));
+        final var canceled = blockingStub.createReservation(createRequest(2));
+
+        final var updated = blockingStub.updateReservation(UpdateReservationRequest.newBuilder()
+                .setReservationId(confirmed.getReservationId())
+                .setStatus(ReservationStatus.CONFIRMED)
+                .build());
+        final var deleted = blockingStub.deleteReservation(DeleteReservationRequest.newBuilder()
+                .setReservationId(canceled.getReservationId())
+                .build());
+
+        assertThat(updated.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(deleted.getStatus()).isEqualTo(ReservationStatus.CANCELED);
+    }
+
+    @Test
+    void answersNotFoundForAnUnknownReservation() {
+        assertThatThrownBy(() -> blockingStub.getReservation(GetReservationRequest.newBuilder()
+                .setReservationId(ProtoTypes.toBytes(UUID.randomUUID()))
+                .build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+    }
+
+    @Test
+    void answersNotFoundForAnUnknownProduct() {
+        assertThatThrownBy(() -> blockingStub.createReservation(CreateReservationRequest.newBuilder()
+                .setOrderId(ProtoTypes.toBytes(orderId))
+                .setProductId(ProtoTypes.toBytes(UUID.randomUUID()))
+                .setQuantity(1)
+                .build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+    }
+
+    @Test
+    void answersInvalidArgumentForAnInvalidUpdate() {
+        final var created = blockingStub.createReservation(createRequest(1));
+
+        assertThatThrownBy(() -> blockingStub.updateReservation(UpdateReservationRequest.newBuilder()
+                .setReservationId(created.getReservationId())
+                .setStatus(ReservationStatus.REJECTED)
+                .build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+    }
+
+    @Test
+    void watchesTheChangesToTheReservationsOfAnOrder() throws InterruptedException {
+        final var watcher = new RecordingObserver();
+        stub.watchReservations(WatchReservationsRequest.newBuilder()
+                .setOrderId(ProtoTypes.toBytes(orderId))
+                .build(), watcher);
+        try {
+            awaitWatching(watcher);
+
+            final var created = blockingStub.createReservation(createRequest(4));
+            blockingStub.createReservation(createRequest(UUID.randomUUID(), 5));
+            final var deleted = blockingStub.deleteReservation(DeleteReservationRequest.newBuilder()
+                    .setReservationId(created.getReservationId())
+                    .build());
+
+            assertThat(watcher.reservations.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo(created);
+            assertThat(watcher.reservations.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo(deleted);
+            assertThat(watcher.reservations.poll(100, TimeUnit.MILLISECONDS)).isNull();
+            assertThat(watcher.error).isNull();
+        } finally {
+            watcher.requestStream.cancel("Test done", null);
+        }
+    }
+
+    /**
+     * The subscription is made on the server once the call has started, which the client can not see. Marker changes
+     * are published until one comes through, so that no change made after this returns can be missed.
+     */
+    private void awaitWatching(final RecordingObserver watcher) throws InterruptedException {
+        final var marker = ReservationDto.builder()
+                .reservationId(UUID.randomUUID())
+                .orderId(orderId)
+                .quantity(0L)
+                .status(no.acntech.reservation.model.ReservationStatus.RESERVED)
+                .created(ZonedDateTime.now())
+                .build();
+        final var markerId = ProtoTypes.toBytes(marker.getReservationId());
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            reservationChangeFeed.onReservationChanged(new ReservationChangedEvent(marker));
+            final var reservation = watcher.reservations.poll(50, TimeUnit.MILLISECONDS);
+            if (reservation != null) {
+                assertThat(reservation.getReservationId()).isEqualTo(markerId);
+                // Let the markers still on their way come through before the changes under test are made
+                while (watcher.reservations.poll(100, TimeUnit.MILLISECONDS) != null) {
+                }
+                return;
+            }
+        }
+        throw new AssertionError("Watch was not subscribed within " + TIMEOUT_SECONDS + " seconds");
+    }
+
+    private CreateReservationRequest createRequest(final long quantity) {
+        return createRequest(orderId, quantity);
+    }
+
+    /**
+     * An order can only have one reservation of a product, so every reservation is of a product of its own.
+     */
+    private CreateReservationRequest createRequest(final UUID orderId, final long quantity) {
+        return CreateReservationRequest.newBuilder()
+                .setOrderId(ProtoTypes.toBytes(orderId))
+                .setProductId(ProtoTypes.toBytes(createProduct()))
+                .setQuantity(quantity)
+                .build();
+    }
+
+    private UUID createProduct() {
+        final var productId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO PRODUCTS (PRODUCT_ID, NAME, STOCK, PRICE, CURRENCY, CREATED) VALUES (?, ?, ?, 10, 'USD', CURRENT_TIMESTAMP)",
+                productId, "Product " + productId, STOCK);
+        return productId;
+    }
+
+    /**
+     * Records the reservations streamed to it, and keeps the request stream so that the call can be cancelled.
+     */
+    private static final class RecordingObserver implements ClientResponseObserver<WatchReservationsRequest, Reservation> {
+
+        private final BlockingQueue<Reservation> reservations = new LinkedBlockingQueue<>();
+        private volatile ClientCallStreamObserver<WatchReservationsRequest> requestStream;
+        private volatile Throwable error;
+
+        @Override
+        public void beforeStart(final ClientCallStreamObserver<WatchReservationsRequest> requestStream) {
+            this.requestStream = requestStream;
+        }
+
+        @Override
+        public void onNext(final Reservation reservation) {
+            reservations.add(reservation);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+}
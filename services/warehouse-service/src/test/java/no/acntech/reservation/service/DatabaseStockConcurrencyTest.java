@@ -0,0 +1,8 @@
+package no.acntech.reservation.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "grpc.server.port=-1")
+class DatabaseStockConcurrencyTest extends StockConcurrencyTest {
+
+}
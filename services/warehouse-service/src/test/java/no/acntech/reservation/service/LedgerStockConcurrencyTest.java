@@ -0,0 +1,13 @@
+package no.acntech.reservation.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+        properties = {
+                "app.inventory.strategy=ledger",
+                "spring.datasource.url=jdbc:h2:mem:ledger-stock;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "grpc.server.port=-1"
+        })
+class LedgerStockConcurrencyTest extends StockConcurrencyTest {
+
+}
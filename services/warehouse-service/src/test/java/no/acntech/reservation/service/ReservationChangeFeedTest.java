@@ -0,0 +1,181 @@
+package no.acntech.reservation.service;
+
+import no.acntech.reservation.model.ReservationChangedEvent;
+import no.acntech.reservation.model.ReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationChangeFeedTest {
+
+    private static final int MAX_PENDING = 5;
+    private static final long TIMEOUT_SECONDS = 10;
+    private final ReservationChangeFeed reservationChangeFeed = new ReservationChangeFeed(MAX_PENDING);
+
+    @AfterEach
+    void tearDown() {
+        reservationChangeFeed.destroy();
+    }
+
+    @Test
+    void deliversTheChangesInTheOrderTheyWereCommitted() throws InterruptedException {
+        final var orderId = UUID.randomUUID();
+        final var watcher = new RecordingWatcher();
+        reservationChangeFeed.subscribe(null, watcher);
+
+        // Published in rounds that fit within the pending changes a watcher may have
+        final var quantities = IntStream.rangeClosed(1, 100).boxed().toList();
+        for (int quantity : quantities) {
+            publish(orderId, quantity);
+            if (quantity % MAX_PENDING == 0) {
+                watcher.awaitChanges(quantity);
+            }
+        }
+
+        assertThat(watcher.awaitChanges(100)).isTrue();
+        assertThat(watcher.quantities()).containsExactlyElementsOf(quantities.stream().map(Integer::longValue).toList());
+        assertThat(watcher.aborts).hasValue(0);
+    }
+
+    @Test
+    void deliversOnlyTheChangesToTheReservationsOfTheOrder() throws InterruptedException {
+        final var orderId = UUID.randomUUID();
+        final var watcher = new RecordingWatcher();
+        reservationChangeFeed.subscribe(orderId, watcher);
+
+        publish(orderId, 1);
+        publish(UUID.randomUUID(), 2);
+        publish(orderId, 3);
+
+        assertThat(watcher.awaitChanges(2)).isTrue();
+        assertThat(watcher.quantities()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void dropsAWatcherThatFallsTooFarBehind() throws InterruptedException {
+        final var orderId = UUID.randomUUID();
+        final var watcher = new RecordingWatcher();
+        watcher.release = new CountDownLatch(1);
+        reservationChangeFeed.subscribe(null, watcher);
+
+        // The watcher holds on to the first change while more changes queue up behind it
+        publish(orderId, 0);
+        assertThat(watcher.awaitChanges(1)).isTrue();
+        for (int quantity = 1; quantity <= MAX_PENDING + 1; quantity++) {
+            publish(orderId, quantity);
+        }
+        watcher.release.countDown();
+
+        assertThat(watcher.aborted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        publish(orderId, 100);
+        assertThat(watcher.quantities()).containsExactly(0L);
+        assertThat(watcher.aborts).hasValue(1);
+    }
+
+    @Test
+    void dropsAWatcherThatFails() throws InterruptedException {
+        final var orderId = UUID.randomUUID();
+        final var watcher = new RecordingWatcher();
+        watcher.failing = true;
+        reservationChangeFeed.subscribe(null, watcher);
+
+        publish(orderId, 1);
+
+        assertThat(watcher.aborted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        publish(orderId, 2);
+        assertThat(watcher.quantities()).containsExactly(1L);
+        assertThat(watcher.aborts).hasValue(1);
+    }
+
+    @Test
+    void stopsDeliveringOnceTheSubscriptionIsClosed() throws InterruptedException {
+        final var orderId = UUID.randomUUID();
+        final var watcher = new RecordingWatcher();
+        final var subscription = reservationChangeFeed.subscribe(null, watcher);
+
+        publish(orderId, 1);
+        assertThat(watcher.awaitChanges(1)).isTrue();
+        subscription.close();
+        publish(orderId, 2);
+        reservationChangeFeed.destroy();
+
+        assertThat(watcher.quantities()).containsExactly(1L);
+        assertThat(watcher.aborts).hasValue(0);
+    }
+
+    @Test
+    void abortsTheWatchersWhenTheFeedShutsDown() throws InterruptedException {
+        final var watcher = new RecordingWatcher();
+        reservationChangeFeed.subscribe(null, watcher);
+
+        reservationChangeFeed.destroy();
+
+        assertThat(watcher.aborted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(watcher.aborts).hasValue(1);
+    }
+
+    private void publish(final UUID orderId, final long quantity) {
+        reservationChangeFeed.onReservationChanged(new ReservationChangedEvent(ReservationDto.builder()
+                .reservationId(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .orderId(orderId)
+                .quantity(quantity)
+                .status(ReservationStatus.RESERVED)
+                .build()));
+    }
+
+    /**
+     * Records the changes it is given. It can be made to hold on to each change until released, or to fail.
+     */
+    private static final class RecordingWatcher implements ReservationChangeFeed.Watcher {
+
+        private final List<ReservationDto> changes = new CopyOnWriteArrayList<>();
+        private final CountDownLatch aborted = new CountDownLatch(1);
+        private final AtomicInteger aborts = new AtomicInteger();
+        private volatile CountDownLatch release = new CountDownLatch(0);
+        private volatile boolean failing;
+
+        @Override
+        public void onChange(final ReservationDto reservationDto) {
+            changes.add(reservationDto);
+            if (failing) {
+                throw new IllegalStateException("Client is gone");
+            }
+            try {
+                release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onAbort() {
+            aborts.incrementAndGet();
+            aborted.countDown();
+        }
+
+        private boolean awaitChanges(final int count) throws InterruptedException {
+            final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (changes.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            return changes.size() >= count;
+        }
+
+        private List<Long> quantities() {
+            return changes.stream()
+                    .map(ReservationDto::getQuantity)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package no.acntech.reservation.service;
+
+import no.acntech.inventory.service.LedgerStockStrategy;
+import no.acntech.inventory.service.StockStrategy;
+import no.acntech.reservation.model.CreateReservationDto;
+import no.acntech.reservation.model.ReservationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers one product from many threads with single and batch reservations, some of which are canceled again, and
+ * checks that the stock is never oversold. Run against each {@link StockStrategy} by the subclasses.
+ */
+abstract class StockConcurrencyTest {
+
+    private static final long STOCK = 500;
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 40;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private StockStrategy stockStrategy;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentReservationsNeverOversellOneProduct() throws Exception {
+        final var productId = createProduct();
+        final var lowestStock = new AtomicLong(STOCK);
+        final var running = new AtomicBoolean(true);
+        final var executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            final var sampler = executor.submit(() -> {
+                while (running.get()) {
+                    lowestStock.accumulateAndGet(stockOf(productId), Math::min);
+                }
+            });
+            final var start = new CountDownLatch(1);
+            final var workers = new ArrayList<Future<?>>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    reserve(productId);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final var worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            running.set(false);
+            sampler.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (stockStrategy instanceof LedgerStockStrategy ledgerStockStrategy) {
+            ledgerStockStrategy.flush();
+        }
+        final var remainingStock = stockOf(productId);
+        final var reservedQuantity = quantityOf(productId, ReservationStatus.RESERVED);
+
+        assertThat(lowestStock.get()).isNotNegative();
+        assertThat(remainingStock).isNotNegative();
+        assertThat(reservedQuantity + remainingStock).isEqualTo(STOCK);
+        assertThat(reservedQuantity).isPositive();
+        assertThat(quantityOf(productId, ReservationStatus.REJECTED)).isPositive();
+        assertThat(quantityOf(productId, ReservationStatus.CANCELED)).isPositive();
+    }
+
+    /**
+     * Asks for more than the stock in total, so that reservations get rejected once the stock runs out. Every fifth
+     * round cancels what it reserved, which gives stock back while others are still taking it.
+     */
+    private void reserve(final UUID productId) {
+        final var random = ThreadLocalRandom.current();
+        for (int round = 0; round < ROUNDS; round++) {
+            final var reservations = round % 3 == 0
+                    ? reservationService.createReservations(List.of(reservation(productId, random), reservation(productId, random)))
+                    : List.of(reservationService.createReservation(reservation(productId, random)));
+            if (round % 5 == 0) {
+                reservations.forEach(reservationDto -> reservationService.deleteReservation(reservationDto.getReservationId()));
+            }
+        }
+    }
+
+    private static CreateReservationDto reservation(final UUID productId, final ThreadLocalRandom random) {
+        return CreateReservationDto.builder()
+                .orderId(UUID.randomUUID())
+                .productId(productId)
+                .quantity(random.nextLong(1, 4))
+                .build();
+    }
+
+    private UUID createProduct() {
+        final var productId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO PRODUCTS (PRODUCT_ID, NAME, STOCK, PRICE, CURRENCY, CREATED) VALUES (?, ?, ?, 10, 'USD', CURRENT_TIMESTAMP)",
+                productId, "Hot product " + productId, STOCK);
+        return productId;
+    }
+
+    private long stockOf(final UUID productId) {
+        final var stock = jdbcTemplate.queryForObject("SELECT STOCK FROM PRODUCTS WHERE PRODUCT_ID = ?", Long.class, productId);
+        return stock == null ? 0 : stock;
+    }
+
+    private long quantityOf(final UUID productId, final ReservationStatus status) {
+        final var quantity = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(R.QUANTITY), 0)
+                FROM RESERVATIONS R JOIN PRODUCTS P ON P.ID = R.PRODUCT_ID
+                WHERE P.PRODUCT_ID = ? AND R.STATUS = ?
+                """, Long.class, productId, status.name());
+        return quantity == null ? 0 : quantity;
+    }
+}
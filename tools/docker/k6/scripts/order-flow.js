@@ -0,0 +1,77 @@
+import http from 'k6/http';
+import {check, sleep} from 'k6';
+import {uuidv4} from 'https://jslib.k6.io/k6-utils/1.4.0/index.js';
+
+const ORDERING_URL = __ENV.ORDERING_URL || 'http://localhost:9002';
+const WAREHOUSE_URL = __ENV.WAREHOUSE_URL || 'http://localhost:9003';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '2000');
+const STEPS = 10;
+const POLL_ATTEMPTS = 50;
+const PARAMS = {headers: {'Content-Type': 'application/json'}};
+
+// Concurrency is raised in steps until the thresholds no longer hold. The number of VUs at the time the test is
+// aborted is the maximum sustainable concurrency for the mode the services run in.
+export const options = {
+    scenarios: {
+        orders: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: Array.from({length: STEPS}, (_, i) => [
+                {duration: '20s', target: Math.round(MAX_VUS * (i + 1) / STEPS)},
+                {duration: '40s', target: Math.round(MAX_VUS * (i + 1) / STEPS)},
+            ]).flat(),
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: [{threshold: 'rate<0.01', abortOnFail: true, delayAbortEval: '30s'}],
+        http_req_duration: [{threshold: 'p(95)<1000', abortOnFail: true, delayAbortEval: '30s'}],
+    },
+};
+
+export function setup() {
+    const products = http.get(`${WAREHOUSE_URL}/api/products`).json();
+    return {productIds: products.map(product => product.productId)};
+}
+
+export default function (data) {
+    const order = http.post(`${ORDERING_URL}/api/orders`, JSON.stringify({
+        customerId: uuidv4(),
+        name: `Load test order ${__VU}-${__ITER}`,
+    }), idempotent());
+    if (!check(order, {'order created': r => r.status === 201})) {
+        return;
+    }
+    const orderId = order.json('orderId');
+    const productId = data.productIds[Math.floor(Math.random() * data.productIds.length)];
+    const item = http.post(`${ORDERING_URL}/api/orders/${orderId}/items`, JSON.stringify({
+        productId: productId,
+        quantity: 1,
+    }), idempotent());
+    if (!check(item, {'item created': r => r.status === 200 || r.status === 202})) {
+        return;
+    }
+    // The reservation is made in the background, so wait for the item to leave the pending status
+    const itemId = item.json('items.0.itemId');
+    if (!check(awaitItem(itemId), {'item reserved': status => status === 'RESERVED'})) {
+        return;
+    }
+    const confirmed = http.put(`${ORDERING_URL}/api/orders/${orderId}`, null, PARAMS);
+    check(confirmed, {'order confirmed': r => r.status === 200});
+}
+
+// A fresh Idempotency-Key per request, as a real client would send to make its retries safe
+function idempotent() {
+    return {headers: Object.assign({'Idempotency-Key': uuidv4()}, PARAMS.headers)};
+}
+
+function awaitItem(itemId) {
+    for (let attempt = 0; attempt < POLL_ATTEMPTS; attempt++) {
+        const status = http.get(`${ORDERING_URL}/api/items/${itemId}`, {tags: {name: 'poll item'}}).json('status');
+        if (status !== 'PENDING') {
+            return status;
+        }
+        sleep(0.1);
+    }
+    return 'PENDING';
+}